@@ -0,0 +1,65 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package math;
+
+import com.jme3.math.Matrix3f;
+import com.jme3.math.Vector2f;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the static matrix utilities in {@link Matrices}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MatricesBenchmark {
+  private Matrix3f a;
+  private Matrix3f b;
+  private Vector2f p;
+  private Matrix3f store;
+  private Vector2f vecStore;
+
+  @Setup
+  public void setup() {
+    a = Matrices.createRotation(0.3f, new Vector2f(1, 2));
+    b = Matrices.createTranslation(new Vector2f(-4, 5));
+    p = new Vector2f(3, -7);
+    store = new Matrix3f();
+    vecStore = new Vector2f();
+  }
+
+  @Benchmark
+  public Matrix3f mult() {
+    return Matrices.mult(a, b);
+  }
+
+  @Benchmark
+  public Matrix3f createRotationAroundPoint() {
+    return Matrices.createRotation(0.3f, p);
+  }
+
+  @Benchmark
+  public Vector2f transform() {
+    return Matrices.transform(a, p);
+  }
+
+  @Benchmark
+  public Matrix3f multStore() {
+    return Matrices.mult(a, b, store);
+  }
+
+  @Benchmark
+  public Matrix3f createRotationAroundPointStore() {
+    return Matrices.createRotation(0.3f, p, store);
+  }
+
+  @Benchmark
+  public Vector2f transformStore() {
+    return Matrices.transform(a, p, vecStore);
+  }
+}
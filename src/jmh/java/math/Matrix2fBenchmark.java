@@ -0,0 +1,46 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package math;
+
+import com.jme3.math.Vector2f;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link Matrix2f}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class Matrix2fBenchmark {
+  private Matrix2f mat;
+  private Vector2f b;
+  private Vector2f store;
+
+  @Setup
+  public void setup() {
+    // determinant 1, so repeated inversion toggles between M and M^-1 without drifting away
+    mat = new Matrix2f(2, 1, 3, 2);
+    b = new Vector2f(1, -1);
+    store = new Vector2f();
+  }
+
+  @Benchmark
+  public Matrix2f invertLocal() {
+    return mat.invertLocal();
+  }
+
+  @Benchmark
+  public Matrix2f invert() {
+    return mat.invert();
+  }
+
+  @Benchmark
+  public Vector2f solve() {
+    return mat.solve(b, store);
+  }
+}
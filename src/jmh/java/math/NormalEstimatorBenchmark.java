@@ -0,0 +1,51 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package math;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link NormalEstimator}, parameterized by the number of points.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class NormalEstimatorBenchmark {
+  @Param({"10000", "1000000"})
+  public int size;
+
+  @Param({"8", "16"})
+  public int k;
+
+  private float[] xyz;
+  private float[] normals;
+  private float[] curvatures;
+
+  @Setup
+  public void setup() {
+    var random = new Random(42);
+    xyz = new float[3 * size];
+    for (int i = 0; i < size; i++) {
+      // noisy height field
+      var x = random.nextFloat() * 100;
+      var y = random.nextFloat() * 100;
+      xyz[3 * i] = x;
+      xyz[3 * i + 1] = y;
+      xyz[3 * i + 2] = MathF.sin(x * 0.1f) * MathF.cos(y * 0.1f) + random.nextFloat() * 0.01f;
+    }
+    normals = new float[3 * size];
+    curvatures = new float[size];
+  }
+
+  @Benchmark
+  public float[] estimate() {
+    new NormalEstimator(k).estimate(xyz, size, normals, curvatures);
+    return normals;
+  }
+}
@@ -0,0 +1,47 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package math;
+
+import com.jme3.math.Vector3f;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link PCA}, parameterized by the number of points.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PCABenchmark {
+  @Param({"16", "1024", "65536"})
+  public int size;
+
+  private Vector3f[] points;
+
+  @Setup
+  public void setup() {
+    var random = new Random(42);
+    points = new Vector3f[size];
+    for (int i = 0; i < size; i++) {
+      // noisy samples of a tilted plane
+      var x = random.nextFloat() * 10;
+      var y = random.nextFloat() * 10;
+      points[i] = new Vector3f(x, y, 0.5f * x - 0.25f * y + random.nextFloat() * 0.1f);
+    }
+  }
+
+  @Benchmark
+  public PCA addAndApply() {
+    var pca = new PCA();
+    for (Vector3f point : points) {
+      pca.add(point);
+    }
+    pca.applyPCA();
+    return pca;
+  }
+}
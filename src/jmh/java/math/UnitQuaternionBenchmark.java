@@ -0,0 +1,33 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package math;
+
+import com.jme3.math.Vector3f;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link UnitQuaternion}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UnitQuaternionBenchmark {
+  private UnitQuaternion q;
+  private Vector3f p;
+
+  @Setup
+  public void setup() {
+    q = UnitQuaternion.fromAxisAngle(0.7f, new Vector3f(1, 2, 3));
+    p = new Vector3f(4, -5, 6);
+  }
+
+  @Benchmark
+  public Vector3f rotate() {
+    return q.rotate(p);
+  }
+}
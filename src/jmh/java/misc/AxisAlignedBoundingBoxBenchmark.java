@@ -0,0 +1,67 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package misc;
+
+import com.jme3.math.Vector3f;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for computing the bounds of {@link #size} points with {@link AxisAlignedBoundingBox}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AxisAlignedBoundingBoxBenchmark {
+  @Param({"100000", "10000000"})
+  public int size;
+
+  private float[] xyz;
+  private List<Vector3f> points;
+
+  @Setup
+  public void setup() {
+    var random = new Random(42);
+    xyz = new float[3 * size];
+    points = new ArrayList<>(size);
+    for (int i = 0; i < xyz.length; i++) {
+      xyz[i] = random.nextFloat() * 100;
+    }
+    for (int i = 0; i < size; i++) {
+      points.add(new Vector3f(xyz[3 * i], xyz[3 * i + 1], xyz[3 * i + 2]));
+    }
+  }
+
+  @Benchmark
+  public AxisAlignedBoundingBox addEach() {
+    var box = new AxisAlignedBoundingBox();
+    for (Vector3f point : points) {
+      box.add(point);
+    }
+    return box;
+  }
+
+  @Benchmark
+  public AxisAlignedBoundingBox addAll() {
+    var box = new AxisAlignedBoundingBox();
+    box.addAll(xyz, 0, size);
+    return box;
+  }
+
+  @Benchmark
+  public AxisAlignedBoundingBox ofParallelArray() {
+    return AxisAlignedBoundingBox.ofParallel(xyz, 0, size);
+  }
+
+  @Benchmark
+  public AxisAlignedBoundingBox ofParallelList() {
+    return AxisAlignedBoundingBox.ofParallel(points);
+  }
+}
@@ -0,0 +1,118 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package shape3d;
+
+import com.jme3.math.Vector3f;
+import misc.AxisAlignedBoundingBox;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link BoundingVolumeHierarchy}, casting a batch of {@value #RAYS} rays
+ * into a scene of random spheres, compared to a linear scan.
+ * <p>
+ * {@link #intersectNearestHit} casts into a scene mixing spheres, boxes and triangle meshes,
+ * reusing one {@link Hit}. It must not allocate, the gc profiler reports about 0 B/op for it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BoundingVolumeHierarchyBenchmark {
+  private static final int RAYS = 1024;
+
+  @Param({"1000", "100000"})
+  public int size;
+
+  private List<Shape3D> shapes;
+  private BoundingVolumeHierarchy bvh;
+  private BoundingVolumeHierarchy mixed;
+  private Ray3D[] rays;
+  private final Hit hit = new Hit();
+
+  @Setup
+  public void setup() {
+    var random = new Random(42);
+    shapes = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      var center = new Vector3f(random.nextFloat() * 100, random.nextFloat() * 100, random.nextFloat() * 100);
+      shapes.add(new Sphere(center, 0.1f + random.nextFloat() * 0.5f));
+    }
+    bvh = new BoundingVolumeHierarchy(shapes);
+
+    List<Shape3D> mixedShapes = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      var x = random.nextFloat() * 100;
+      var y = random.nextFloat() * 100;
+      var z = random.nextFloat() * 100;
+      var s = 0.1f + random.nextFloat() * 0.5f;
+      if (i % 3 == 0) {
+        mixedShapes.add(new Sphere(new Vector3f(x, y, z), s));
+      } else if (i % 3 == 1) {
+        var box = new AxisAlignedBoundingBox();
+        box.add(new Vector3f(x, y, z));
+        box.add(new Vector3f(x + s, y + s, z + s));
+        mixedShapes.add(box);
+      } else {
+        mixedShapes.add(new TriangleMesh(new float[]{x, y, z, x + s, y, z, x, y + s, z, x, y, z + s},
+                new int[]{0, 1, 2, 0, 1, 3, 0, 2, 3, 1, 2, 3}));
+      }
+    }
+    mixed = new BoundingVolumeHierarchy(mixedShapes);
+
+    rays = new Ray3D[RAYS];
+    for (int i = 0; i < RAYS; i++) {
+      var origin = new Vector3f(random.nextFloat() * 100, random.nextFloat() * 100, random.nextFloat() * 100);
+      var dir = new Vector3f(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, random.nextFloat() - 0.5f);
+      rays[i] = new Ray3D(origin, dir.normalizeLocal());
+    }
+  }
+
+  @Benchmark
+  public void intersectNearest(Blackhole bh) {
+    for (Ray3D ray : rays) {
+      bh.consume(bvh.intersectNearest(ray));
+    }
+  }
+
+  @Benchmark
+  public void intersectNearestHit(Blackhole bh) {
+    for (Ray3D ray : rays) {
+      hit.clear();
+      bh.consume(mixed.intersectNearest(ray, hit));
+    }
+  }
+
+  @Benchmark
+  public void intersectAny(Blackhole bh) {
+    for (Ray3D ray : rays) {
+      bh.consume(bvh.intersectAny(ray, 10));
+    }
+  }
+
+  @Benchmark
+  public void linearScan(Blackhole bh) {
+    for (Ray3D ray : rays) {
+      var best = Float.POSITIVE_INFINITY;
+      for (Shape3D shape : shapes) {
+        var lambda = Intersector3D.intersectRayParameter(ray, shape);
+        if (lambda < best) {
+          best = lambda;
+        }
+      }
+      bh.consume(best);
+    }
+  }
+
+  @Benchmark
+  public BoundingVolumeHierarchy build() {
+    return new BoundingVolumeHierarchy(shapes);
+  }
+}
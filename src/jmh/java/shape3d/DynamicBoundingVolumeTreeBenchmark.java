@@ -0,0 +1,88 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package shape3d;
+
+import misc.AxisAlignedBoundingBox;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks one broadphase frame of {@link DynamicBoundingVolumeTree}, moving all boxes of a scene
+ * and enumerating the overlapping pairs, compared to testing all pairs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DynamicBoundingVolumeTreeBenchmark {
+  @Param({"1000", "10000"})
+  public int size;
+
+  private float[] positions;
+  private float[] velocities;
+  private int[] proxies;
+  private DynamicBoundingVolumeTree<Object> tree;
+  private AxisAlignedBoundingBox[] boxes;
+  private final AxisAlignedBoundingBox box = new AxisAlignedBoundingBox();
+
+  @Setup
+  public void setup() {
+    var random = new Random(42);
+    var extent = (float) Math.cbrt(size) * 4;
+    positions = new float[3 * size];
+    velocities = new float[3 * size];
+    proxies = new int[size];
+    boxes = new AxisAlignedBoundingBox[size];
+    tree = new DynamicBoundingVolumeTree<>();
+    for (int i = 0; i < size; i++) {
+      for (int axis = 0; axis < 3; axis++) {
+        positions[3 * i + axis] = random.nextFloat() * extent;
+        velocities[3 * i + axis] = (random.nextFloat() - 0.5f) * 0.05f;
+      }
+      boxes[i] = new AxisAlignedBoundingBox();
+      proxies[i] = tree.insert(setBox(i, boxes[i]), null);
+    }
+  }
+
+  private AxisAlignedBoundingBox setBox(int i, AxisAlignedBoundingBox store) {
+    store.clear();
+    store.grow(positions[3 * i] - 0.5f, positions[3 * i + 1] - 0.5f, positions[3 * i + 2] - 0.5f);
+    store.grow(positions[3 * i] + 0.5f, positions[3 * i + 1] + 0.5f, positions[3 * i + 2] + 0.5f);
+    return store;
+  }
+
+  private void move() {
+    for (int i = 0; i < 3 * size; i++) {
+      positions[i] += velocities[i];
+    }
+  }
+
+  @Benchmark
+  public void tree(Blackhole bh) {
+    move();
+    for (int i = 0; i < size; i++) {
+      tree.update(proxies[i], setBox(i, box));
+    }
+    tree.findOverlappingPairs((first, second) -> bh.consume(first ^ second));
+  }
+
+  @Benchmark
+  public void allPairs(Blackhole bh) {
+    move();
+    for (int i = 0; i < size; i++) {
+      setBox(i, boxes[i]);
+    }
+    for (int i = 0; i < size; i++) {
+      for (int j = i + 1; j < size; j++) {
+        if (Intersector3D.testBoxBox(boxes[i], boxes[j])) {
+          bh.consume(i ^ j);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package shape3d;
+
+import com.jme3.math.Vector3f;
+import math.MathF;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link Intersector3D}, parameterized by the ratio of rays hitting their target.
+ * <p>
+ * Each invocation casts a fixed batch of {@value #RAYS} rays, so the results are reported per batch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class Intersector3DBenchmark {
+  private static final int RAYS = 1024;
+
+  @Param({"0.0", "0.5", "1.0"})
+  public float hitRatio;
+
+  private Ray3D[] rays;
+  private Sphere sphere;
+  private Plane plane;
+  private final Hit hit = new Hit();
+  private RayPacket[] packets;
+
+  @Setup
+  public void setup() {
+    var random = new Random(42);
+    sphere = new Sphere(new Vector3f(0, 0, 0), 1);
+    plane = new Plane(new Vector3f(0, 0, 0), new Vector3f(0, 0, 1));
+    rays = new Ray3D[RAYS];
+    for (int i = 0; i < RAYS; i++) {
+      // rays start on z = 10 looking down -z; hits pass through the unit disk, misses stay outside
+      boolean hit = random.nextFloat() < hitRatio;
+      var radius = hit ? random.nextFloat() * 0.9f : 1.1f + random.nextFloat() * 5;
+      var angle = random.nextFloat() * MathF.TWO_PI;
+      var origin = new Vector3f(radius * MathF.cos(angle), radius * MathF.sin(angle), 10);
+      // misses also run parallel to the plane, so they miss both shapes
+      var dir = hit ? new Vector3f(0, 0, -1) : new Vector3f(1, 0, 0);
+      rays[i] = new Ray3D(origin, dir);
+    }
+    packets = new RayPacket[RAYS / 8];
+    for (int i = 0; i < RAYS; i++) {
+      if (i % 8 == 0) {
+        packets[i / 8] = new RayPacket(8);
+      }
+      packets[i / 8].set(i % 8, rays[i]);
+    }
+  }
+
+  @Benchmark
+  public void intersectRaySphere(Blackhole bh) {
+    for (Ray3D ray : rays) {
+      bh.consume(Intersector3D.intersectRaySphere(ray, sphere));
+    }
+  }
+
+  @Benchmark
+  public void intersectRaySphereNormalized(Blackhole bh) {
+    for (Ray3D ray : rays) {
+      bh.consume(Intersector3D.intersectRaySphereNormalized(ray, sphere));
+    }
+  }
+
+  @Benchmark
+  public void intersectRayPlane(Blackhole bh) {
+    for (Ray3D ray : rays) {
+      bh.consume(Intersector3D.intersectRayPlane(ray, plane));
+    }
+  }
+
+  @Benchmark
+  public void intersectRaySphereHit(Blackhole bh) {
+    for (Ray3D ray : rays) {
+      bh.consume(Intersector3D.intersect(ray, sphere, hit.clear()));
+    }
+  }
+
+  @Benchmark
+  public void intersectRaySpherePacket(Blackhole bh) {
+    for (RayPacket packet : packets) {
+      packet.clear();
+      bh.consume(packet.intersect(sphere, 0));
+    }
+  }
+}
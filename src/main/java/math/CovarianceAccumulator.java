@@ -0,0 +1,299 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package math;
+
+import com.jme3.math.Matrix3f;
+import com.jme3.math.Vector3f;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collector;
+
+/**
+ * Accumulates the mean and the covariance of a stream of 3D points in a single pass,
+ * without retaining the points themselves.
+ * <p>
+ * The update follows Welford's algorithm, which is numerically stable even if the points
+ * are far from the origin. Only the point count, the mean and the six unique entries
+ * of the symmetric co-moment matrix {@code Σ (p - mean)(p - mean)ᵀ} are stored,
+ * all in double precision.
+ * <p>
+ * Accumulators of disjoint point sets can be merged with {@link #combine(CovarianceAccumulator)}
+ * (pairwise update by Chan et al.), so large point sets can be split into chunks that are
+ * accumulated independently, e.g. by {@link #collector()} on a parallel stream
+ * or by {@link #ofParallel(float[], int, int)} for packed coordinates.
+ */
+public class CovarianceAccumulator {
+  /**
+   * Number of points below which {@link #ofParallel(float[], int, int)} stops splitting.
+   */
+  private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+  private long count;
+
+  private double meanX;
+  private double meanY;
+  private double meanZ;
+
+  // unique entries of the symmetric co-moment matrix
+  private double xx;
+  private double xy;
+  private double xz;
+  private double yy;
+  private double yz;
+  private double zz;
+
+  /**
+   * Creates a new empty accumulator.
+   */
+  public CovarianceAccumulator() {
+  }
+
+  /**
+   * Adds a point.
+   */
+  public void add(Vector3f point) {
+    add(point.x, point.y, point.z);
+  }
+
+  /**
+   * Adds the point {@code (x, y, z)}.
+   */
+  public void add(float x, float y, float z) {
+    count++;
+    double dx = x - meanX;
+    double dy = y - meanY;
+    double dz = z - meanZ;
+    meanX += dx / count;
+    meanY += dy / count;
+    meanZ += dz / count;
+    // deltas to the old mean times deltas to the new mean
+    double ex = x - meanX;
+    double ey = y - meanY;
+    double ez = z - meanZ;
+    xx += dx * ex;
+    xy += dx * ey;
+    xz += dx * ez;
+    yy += dy * ey;
+    yz += dy * ez;
+    zz += dz * ez;
+  }
+
+  /**
+   * Adds {@code count} points, stored interleaved as {@code x0, y0, z0, x1, ...}
+   * in {@code xyz} starting at {@code offset}.
+   *
+   * @throws IndexOutOfBoundsException if the range exceeds the array
+   */
+  public void addAll(float[] xyz, int offset, int count) {
+    Objects.checkFromIndexSize(offset, 3 * count, xyz.length);
+    for (int i = offset, end = offset + 3 * count; i < end; i += 3) {
+      add(xyz[i], xyz[i + 1], xyz[i + 2]);
+    }
+  }
+
+  /**
+   * Merges the points accumulated by {@code other} into this accumulator,
+   * as if they had been added to this accumulator directly.
+   * {@code other} is left unchanged.
+   *
+   * @return itself
+   */
+  public CovarianceAccumulator combine(CovarianceAccumulator other) {
+    if (other.count == 0) {
+      return this;
+    }
+    if (count == 0) {
+      set(other);
+      return this;
+    }
+    long n = count + other.count;
+    double dx = other.meanX - meanX;
+    double dy = other.meanY - meanY;
+    double dz = other.meanZ - meanZ;
+    double f = (double) count * other.count / n;
+    double g = (double) other.count / n;
+
+    xx += other.xx + dx * dx * f;
+    xy += other.xy + dx * dy * f;
+    xz += other.xz + dx * dz * f;
+    yy += other.yy + dy * dy * f;
+    yz += other.yz + dy * dz * f;
+    zz += other.zz + dz * dz * f;
+    meanX += dx * g;
+    meanY += dy * g;
+    meanZ += dz * g;
+    count = n;
+    return this;
+  }
+
+  /**
+   * Returns a collector accumulating a stream of points,
+   * merging partial accumulators when used on a parallel stream.
+   */
+  public static Collector<Vector3f, ?, CovarianceAccumulator> collector() {
+    return Collector.of(
+            CovarianceAccumulator::new,
+            CovarianceAccumulator::add,
+            CovarianceAccumulator::combine,
+            Collector.Characteristics.UNORDERED,
+            Collector.Characteristics.IDENTITY_FINISH);
+  }
+
+  /**
+   * Accumulates {@code count} points, stored interleaved as {@code x0, y0, z0, x1, ...}
+   * in {@code xyz} starting at {@code offset}, splitting the work across the common fork/join pool.
+   *
+   * @return a new instance
+   * @throws IndexOutOfBoundsException if the range exceeds the array
+   */
+  public static CovarianceAccumulator ofParallel(float[] xyz, int offset, int count) {
+    Objects.checkFromIndexSize(offset, 3 * count, xyz.length);
+    return ForkJoinPool.commonPool().invoke(new AccumulateTask(xyz, offset, count));
+  }
+
+  /**
+   * Gets the number of points added so far.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Gets the mean of all points added so far, that is their centroid.
+   *
+   * @return the parameter {@code store}
+   */
+  public Vector3f getMean(Vector3f store) {
+    return store.set((float) meanX, (float) meanY, (float) meanZ);
+  }
+
+  /**
+   * Gets the co-moment (scatter) matrix {@code Σ (p - mean)(p - mean)ᵀ}
+   * of all points added so far.
+   *
+   * @return the parameter {@code store}
+   */
+  public Matrix3f getScatterMatrix(Matrix3f store) {
+    return writeSymmetric(store, 1);
+  }
+
+  /**
+   * Gets the (biased) covariance matrix {@code 1/n Σ (p - mean)(p - mean)ᵀ}
+   * of all points added so far, or the zero matrix if there are none.
+   *
+   * @return the parameter {@code store}
+   */
+  public Matrix3f getCovariance(Matrix3f store) {
+    return writeSymmetric(store, count == 0 ? 0 : 1.0 / count);
+  }
+
+  /**
+   * Gets the entry of the co-moment (scatter) matrix at the given position in double precision.
+   *
+   * @param row the row index in [0, 2]
+   * @param col the column index in [0, 2]
+   */
+  public double getScatter(int row, int col) {
+    switch (row * 3 + col) {
+      case 0:
+        return xx;
+      case 1:
+      case 3:
+        return xy;
+      case 2:
+      case 6:
+        return xz;
+      case 4:
+        return yy;
+      case 5:
+      case 7:
+        return yz;
+      case 8:
+        return zz;
+      default:
+        throw new IllegalArgumentException("Invalid indices into matrix.");
+    }
+  }
+
+  /**
+   * Removes all points.
+   */
+  public void clear() {
+    count = 0;
+    meanX = meanY = meanZ = 0;
+    xx = xy = xz = yy = yz = zz = 0;
+  }
+
+  private void set(CovarianceAccumulator other) {
+    count = other.count;
+    meanX = other.meanX;
+    meanY = other.meanY;
+    meanZ = other.meanZ;
+    xx = other.xx;
+    xy = other.xy;
+    xz = other.xz;
+    yy = other.yy;
+    yz = other.yz;
+    zz = other.zz;
+  }
+
+  private Matrix3f writeSymmetric(Matrix3f store, double scale) {
+    var sxx = (float) (xx * scale);
+    var sxy = (float) (xy * scale);
+    var sxz = (float) (xz * scale);
+    var syy = (float) (yy * scale);
+    var syz = (float) (yz * scale);
+    var szz = (float) (zz * scale);
+    store.set(0, 0, sxx);
+    store.set(0, 1, sxy);
+    store.set(0, 2, sxz);
+    store.set(1, 0, sxy);
+    store.set(1, 1, syy);
+    store.set(1, 2, syz);
+    store.set(2, 0, sxz);
+    store.set(2, 1, syz);
+    store.set(2, 2, szz);
+    return store;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("CovarianceAccumulator[n=%d, mean=(%f, %f, %f)]", count, meanX, meanY, meanZ);
+  }
+
+  /**
+   * Accumulates a range of packed points, recursively split in halves.
+   */
+  private static class AccumulateTask extends RecursiveTask<CovarianceAccumulator> {
+    private static final long serialVersionUID = 1L;
+
+    private final float[] xyz;
+    private final int offset;
+    private final int count;
+
+    AccumulateTask(float[] xyz, int offset, int count) {
+      this.xyz = xyz;
+      this.offset = offset;
+      this.count = count;
+    }
+
+    @Override
+    protected CovarianceAccumulator compute() {
+      if (count <= PARALLEL_THRESHOLD) {
+        var accumulator = new CovarianceAccumulator();
+        accumulator.addAll(xyz, offset, count);
+        return accumulator;
+      }
+      int half = count / 2;
+      var right = new AccumulateTask(xyz, offset + 3 * half, count - half);
+      right.fork();
+      var left = new AccumulateTask(xyz, offset, half).compute();
+      return left.combine(right.join());
+    }
+  }
+}
@@ -0,0 +1,84 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package math;
+
+import java.util.Objects;
+
+/**
+ * Batch kernels for intersecting 2D lines and rays, stored as structure of arrays.
+ * <p>
+ * A set of lines or rays is given by four arrays {@code px, py, dx, dy} holding the positions and
+ * directions. The kernels intersect a single line or ray {@code (p, d)} against the elements
+ * {@code [offset, offset + count)} of such a set and write, at the same indices,
+ * the line parameters and whether they intersect into output arrays.
+ * They neither allocate nor throw for parallel lines, so intersecting all pairs of a set
+ * reduces to calling a kernel once per element.
+ * <p>
+ * The line parameters are measured in multiples of the direction vectors as given.
+ * If all directions are normalized, the results equal those of {@link Line#intersect(Line)}
+ * and {@link Ray#intersect(Ray)}.
+ */
+public final class Intersector2D {
+  private Intersector2D() {
+  }
+
+  /**
+   * Intersects the line {@code p + λ1 * d} with the lines {@code q[j] + λ2 * e[j]}
+   * for {@code j} in {@code [offset, offset + count)}.
+   * <p>
+   * {@code hit[j]} is set to {@code false} if the lines are parallel,
+   * in which case {@code lambda1[j]} and {@code lambda2[j]} are undefined.
+   *
+   * @return the number of intersecting lines
+   * @throws IndexOutOfBoundsException if the range exceeds any of the arrays
+   */
+  public static int intersectLines(float px, float py, float dx, float dy,
+                                   float[] qx, float[] qy, float[] ex, float[] ey, int offset, int count,
+                                   float[] lambda1, float[] lambda2, boolean[] hit) {
+    return intersect(px, py, dx, dy, qx, qy, ex, ey, offset, count, lambda1, lambda2, hit, false);
+  }
+
+  /**
+   * Intersects the ray {@code p + λ1 * d} with the rays {@code q[j] + λ2 * e[j]}
+   * for {@code j} in {@code [offset, offset + count)}.
+   * <p>
+   * {@code hit[j]} is set to {@code false} if the rays are parallel or the intersection point
+   * of their lines does not lie on both rays ({@code λ1 < 0} or {@code λ2 < 0}).
+   * The line parameters are written even if the rays miss, unless they are parallel.
+   *
+   * @return the number of intersecting rays
+   * @throws IndexOutOfBoundsException if the range exceeds any of the arrays
+   */
+  public static int intersectRays(float px, float py, float dx, float dy,
+                                  float[] qx, float[] qy, float[] ex, float[] ey, int offset, int count,
+                                  float[] lambda1, float[] lambda2, boolean[] hit) {
+    return intersect(px, py, dx, dy, qx, qy, ex, ey, offset, count, lambda1, lambda2, hit, true);
+  }
+
+  private static int intersect(float px, float py, float dx, float dy,
+                               float[] qx, float[] qy, float[] ex, float[] ey, int offset, int count,
+                               float[] lambda1, float[] lambda2, boolean[] hit, boolean rays) {
+    int length = Math.min(Math.min(qx.length, qy.length), Math.min(ex.length, ey.length));
+    Objects.checkFromIndexSize(offset, count, length);
+    Objects.checkFromIndexSize(offset, count, Math.min(Math.min(lambda1.length, lambda2.length), hit.length));
+
+    int hits = 0;
+    for (int j = offset, end = offset + count; j < end; j++) {
+      // solve [d, -e] (λ1, λ2)ᵀ = q - p with Cramer's rule
+      var bx = qx[j] - px;
+      var by = qy[j] - py;
+      var det = ey[j] * -dx + ex[j] * dy;
+      var l1 = (ex[j] * by - ey[j] * bx) / det;
+      var l2 = (dx * by - dy * bx) / det;
+      var intersects = det != 0 && (!rays || (l1 >= 0 && l2 >= 0));
+      lambda1[j] = l1;
+      lambda2[j] = l2;
+      hit[j] = intersects;
+      hits += intersects ? 1 : 0;
+    }
+    return hits;
+  }
+}
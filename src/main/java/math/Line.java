@@ -58,15 +58,12 @@ public class Line {
     var a = new Matrix2f(
             direction.x, -other.direction.x,
             direction.y, -other.direction.y);
-    var b = other.position.subtract(position);
-
-    Vector2f x;
-    try {
-      x = a.invertLocal().mult(b);
-    } catch (IllegalStateException e) {
+    if (a.determinant() == 0) {
       // no solution found
       return null;
     }
+    var b = other.position.subtract(position);
+    var x = a.solve(b, b);
 
     return new Intersection(x.x, x.y);
   }
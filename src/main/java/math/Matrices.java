@@ -7,6 +7,9 @@ package math;
 
 import com.jme3.math.*;
 
+import java.nio.FloatBuffer;
+import java.util.Objects;
+
 import static math.MathF.cos;
 import static math.MathF.sin;
 
@@ -28,7 +31,17 @@ public class Matrices {
      * projecting into a new coordinate system spanned by the two basis vectors {@code eX} and {@code eY}.
      */
     public static Matrix3f createCoordinateSystem(Vector2f eX, Vector2f eY) {
-        return new Matrix3f(
+        return createCoordinateSystem(eX, eY, new Matrix3f());
+    }
+
+    /**
+     * Like {@link #createCoordinateSystem(Vector2f, Vector2f)},
+     * but writes the result into {@code store}.
+     *
+     * @return the parameter {@code store}
+     */
+    public static Matrix3f createCoordinateSystem(Vector2f eX, Vector2f eY, Matrix3f store) {
+        return set(store,
                 eX.x, eY.x, 0,
                 eX.y, eY.y, 0,
                 0, 0, 1);
@@ -40,7 +53,20 @@ public class Matrices {
      * offset by translation vector {@code o}.
      */
     public static Matrix3f createCoordinateSystem(Vector2f eX, Vector2f eY, Vector2f o) {
-        return createTranslation(o).mult(createCoordinateSystem(eX, eY));
+        return createCoordinateSystem(eX, eY, o, new Matrix3f());
+    }
+
+    /**
+     * Like {@link #createCoordinateSystem(Vector2f, Vector2f, Vector2f)},
+     * but writes the result into {@code store}.
+     *
+     * @return the parameter {@code store}
+     */
+    public static Matrix3f createCoordinateSystem(Vector2f eX, Vector2f eY, Vector2f o, Matrix3f store) {
+        return set(store,
+                eX.x, eY.x, o.x,
+                eX.y, eY.y, o.y,
+                0, 0, 1);
     }
 
     /**
@@ -48,7 +74,17 @@ public class Matrices {
      * translating by {@code v}.
      */
     public static Matrix3f createTranslation(Vector2f v) {
-        return new Matrix3f(
+        return createTranslation(v, new Matrix3f());
+    }
+
+    /**
+     * Like {@link #createTranslation(Vector2f)},
+     * but writes the result into {@code store}.
+     *
+     * @return the parameter {@code store}
+     */
+    public static Matrix3f createTranslation(Vector2f v, Matrix3f store) {
+        return set(store,
                 1, 0, v.x,
                 0, 1, v.y,
                 0, 0, 1);
@@ -61,9 +97,22 @@ public class Matrices {
      * @param th angle in radians
      */
     public static Matrix3f createRotation(float th) {
-        return new Matrix3f(
-                cos(th), -sin(th), 0,
-                sin(th), cos(th), 0,
+        return createRotation(th, new Matrix3f());
+    }
+
+    /**
+     * Like {@link #createRotation(float)},
+     * but writes the result into {@code store}.
+     *
+     * @param th angle in radians
+     * @return the parameter {@code store}
+     */
+    public static Matrix3f createRotation(float th, Matrix3f store) {
+        var c = cos(th);
+        var s = sin(th);
+        return set(store,
+                c, -s, 0,
+                s, c, 0,
                 0, 0, 1);
     }
 
@@ -74,9 +123,26 @@ public class Matrices {
      * @param th angle in radians
      */
     public static Matrix3f createRotation(float th, Vector2f p) {
-        return createTranslation(p)
-                .mult(createRotation(th))
-                .mult(createTranslation(p.negate()));
+        return createRotation(th, p, new Matrix3f());
+    }
+
+    /**
+     * Like {@link #createRotation(float, Vector2f)},
+     * but writes the result into {@code store}.
+     * <p>
+     * Instead of composing {@code T(p) * R * T(-p)}, the result {@code [R, p - Rp; 0 1]}
+     * is computed in closed form.
+     *
+     * @param th angle in radians
+     * @return the parameter {@code store}
+     */
+    public static Matrix3f createRotation(float th, Vector2f p, Matrix3f store) {
+        var c = cos(th);
+        var s = sin(th);
+        return set(store,
+                c, -s, p.x - (c * p.x - s * p.y),
+                s, c, p.y - (s * p.x + c * p.y),
+                0, 0, 1);
     }
 
     /**
@@ -86,8 +152,21 @@ public class Matrices {
      * May be removed when JME introduces a {@code Matrix3f::mult(Vector2f) -> Vector2f} method.
      */
     public static Vector2f transform(Matrix3f m, Vector2f v) {
-        var u = m.mult(new Vector3f(v.x, v.y, 1));
-        return new Vector2f(u.x, u.y);
+        return transform(m, v, new Vector2f());
+    }
+
+    /**
+     * Like {@link #transform(Matrix3f, Vector2f)},
+     * but writes the result into {@code store}, which may be {@code v} itself.
+     *
+     * @return the parameter {@code store}
+     */
+    public static Vector2f transform(Matrix3f m, Vector2f v, Vector2f store) {
+        var x = v.x;
+        var y = v.y;
+        return store.set(
+                m.get(0, 0) * x + m.get(0, 1) * y + m.get(0, 2),
+                m.get(1, 0) * x + m.get(1, 1) * y + m.get(1, 2));
     }
 
     // 3D homogeneous transformation matrices
@@ -99,7 +178,17 @@ public class Matrices {
      * basis vectors {@code eX}, {@code eY} and {@code eZ}.
      */
     public static Matrix4f createCoordinateSystem(Vector3f eX, Vector3f eY, Vector3f eZ) {
-        return new Matrix4f(
+        return createCoordinateSystem(eX, eY, eZ, new Matrix4f());
+    }
+
+    /**
+     * Like {@link #createCoordinateSystem(Vector3f, Vector3f, Vector3f)},
+     * but writes the result into {@code store}.
+     *
+     * @return the parameter {@code store}
+     */
+    public static Matrix4f createCoordinateSystem(Vector3f eX, Vector3f eY, Vector3f eZ, Matrix4f store) {
+        return set(store,
                 eX.x, eY.x, eZ.x, 0,
                 eX.y, eY.y, eZ.y, 0,
                 eX.z, eY.z, eZ.z, 0,
@@ -113,7 +202,21 @@ public class Matrices {
      * offset by translation vector {@code o}.
      */
     public static Matrix4f createCoordinateSystem(Vector3f eX, Vector3f eY, Vector3f eZ, Vector3f o) {
-        return createTranslation(o).mult(createCoordinateSystem(eX, eY, eZ));
+        return createCoordinateSystem(eX, eY, eZ, o, new Matrix4f());
+    }
+
+    /**
+     * Like {@link #createCoordinateSystem(Vector3f, Vector3f, Vector3f, Vector3f)},
+     * but writes the result into {@code store}.
+     *
+     * @return the parameter {@code store}
+     */
+    public static Matrix4f createCoordinateSystem(Vector3f eX, Vector3f eY, Vector3f eZ, Vector3f o, Matrix4f store) {
+        return set(store,
+                eX.x, eY.x, eZ.x, o.x,
+                eX.y, eY.y, eZ.y, o.y,
+                eX.z, eY.z, eZ.z, o.z,
+                0, 0, 0, 1);
     }
 
     /**
@@ -121,7 +224,17 @@ public class Matrices {
      * translating by {@code v}.
      */
     public static Matrix4f createTranslation(Vector3f v) {
-        return new Matrix4f(
+        return createTranslation(v, new Matrix4f());
+    }
+
+    /**
+     * Like {@link #createTranslation(Vector3f)},
+     * but writes the result into {@code store}.
+     *
+     * @return the parameter {@code store}
+     */
+    public static Matrix4f createTranslation(Vector3f v, Matrix4f store) {
+        return set(store,
                 1, 0, 0, v.x,
                 0, 1, 0, v.y,
                 0, 0, 1, v.z,
@@ -135,8 +248,21 @@ public class Matrices {
      * @param th angle in radians
      */
     public static Matrix4f createRotation(Vector3f a, float th) {
-        var q = new Quaternion().fromAngleAxis(th, a);
-        return q.toRotationMatrix(new Matrix4f());
+        return createRotation(a, th, new Matrix4f());
+    }
+
+    /**
+     * Like {@link #createRotation(Vector3f, float)},
+     * but writes the result into {@code store}.
+     * <p>
+     * The rotation is computed in closed form using Rodrigues' rotation formula,
+     * a zero-length axis yields the identity.
+     *
+     * @param th angle in radians
+     * @return the parameter {@code store}
+     */
+    public static Matrix4f createRotation(Vector3f a, float th, Matrix4f store) {
+        return createRotation(a, th, 0, 0, 0, store);
     }
 
     /**
@@ -146,9 +272,53 @@ public class Matrices {
      * @param th angle in radians
      */
     public static Matrix4f createRotation(Vector3f a, float th, Vector3f p) {
-        return createTranslation(p)
-                .mult(createRotation(a, th))
-                .mult(createTranslation(p.negate()));
+        return createRotation(a, th, p, new Matrix4f());
+    }
+
+    /**
+     * Like {@link #createRotation(Vector3f, float, Vector3f)},
+     * but writes the result into {@code store}.
+     * <p>
+     * Instead of composing {@code T(p) * R * T(-p)}, the result {@code [R, p - Rp; 0 1]}
+     * is computed in closed form.
+     *
+     * @param th angle in radians
+     * @return the parameter {@code store}
+     */
+    public static Matrix4f createRotation(Vector3f a, float th, Vector3f p, Matrix4f store) {
+        return createRotation(a, th, p.x, p.y, p.z, store);
+    }
+
+    private static Matrix4f createRotation(Vector3f a, float th, float px, float py, float pz, Matrix4f store) {
+        var length = MathF.sqrt(a.x * a.x + a.y * a.y + a.z * a.z);
+        if (length == 0) {
+            return set(store,
+                    1, 0, 0, 0,
+                    0, 1, 0, 0,
+                    0, 0, 1, 0,
+                    0, 0, 0, 1);
+        }
+        var x = a.x / length;
+        var y = a.y / length;
+        var z = a.z / length;
+        var c = cos(th);
+        var s = sin(th);
+        var t = 1 - c;
+
+        var r00 = t * x * x + c;
+        var r01 = t * x * y - s * z;
+        var r02 = t * x * z + s * y;
+        var r10 = t * x * y + s * z;
+        var r11 = t * y * y + c;
+        var r12 = t * y * z - s * x;
+        var r20 = t * x * z - s * y;
+        var r21 = t * y * z + s * x;
+        var r22 = t * z * z + c;
+        return set(store,
+                r00, r01, r02, px - (r00 * px + r01 * py + r02 * pz),
+                r10, r11, r12, py - (r10 * px + r11 * py + r12 * pz),
+                r20, r21, r22, pz - (r20 * px + r21 * py + r22 * pz),
+                0, 0, 0, 1);
     }
 
     /**
@@ -156,7 +326,17 @@ public class Matrices {
      * scaling along each axis by the individual components of {@code s}.
      */
     public static Matrix4f createScaling(Vector3f s) {
-        return new Matrix4f(
+        return createScaling(s, new Matrix4f());
+    }
+
+    /**
+     * Like {@link #createScaling(Vector3f)},
+     * but writes the result into {@code store}.
+     *
+     * @return the parameter {@code store}
+     */
+    public static Matrix4f createScaling(Vector3f s, Matrix4f store) {
+        return set(store,
                 s.x, 0, 0, 0,
                 0, s.y, 0, 0,
                 0, 0, s.z, 0,
@@ -171,112 +351,507 @@ public class Matrices {
      * that is 3x3 matrix A of 4x4 matrix M = [A 0; 0 1];
      */
     public static Matrix3f xyz(Matrix4f m) {
-        var a = new Matrix3f();
-        for (int row = 0; row < 3; row++) {
-            for (int column = 0; column < 3; column++) {
-                a.set(row, column, m.get(row, column));
-            }
-        }
-        return a;
+        return xyz(m, new Matrix3f());
+    }
+
+    /**
+     * Like {@link #xyz(Matrix4f)},
+     * but writes the result into {@code store}.
+     *
+     * @return the parameter {@code store}
+     */
+    public static Matrix3f xyz(Matrix4f m, Matrix3f store) {
+        return set(store,
+                m.m00, m.m01, m.m02,
+                m.m10, m.m11, m.m12,
+                m.m20, m.m21, m.m22);
     }
 
     public static Matrix3f innerProduct(Vector3f a, Vector3f b) {
-        Matrix3f res = new Matrix3f();
-        for (int row = 0; row < 3; row++) {
-            for (int col = 0; col < 3; col++) {
-                res.set(row, col, a.get(row) * b.get(col));
-            }
-        }
-        return res;
+        return innerProduct(a, b, new Matrix3f());
+    }
+
+    /**
+     * Like {@link #innerProduct(Vector3f, Vector3f)},
+     * but writes the result into {@code store}.
+     *
+     * @return the parameter {@code store}
+     */
+    public static Matrix3f innerProduct(Vector3f a, Vector3f b, Matrix3f store) {
+        return set(store,
+                a.x * b.x, a.x * b.y, a.x * b.z,
+                a.y * b.x, a.y * b.y, a.y * b.z,
+                a.z * b.x, a.z * b.y, a.z * b.z);
     }
 
     public static Matrix4f innerProduct(Vector4f a, Vector4f b) {
-        Matrix4f res = new Matrix4f();
-        for (int row = 0; row < 4; row++) {
-            for (int col = 0; col < 4; col++) {
-                res.set(row, col, a.get(row) * b.get(col));
-            }
-        }
-        return res;
+        return innerProduct(a, b, new Matrix4f());
+    }
+
+    /**
+     * Like {@link #innerProduct(Vector4f, Vector4f)},
+     * but writes the result into {@code store}.
+     *
+     * @return the parameter {@code store}
+     */
+    public static Matrix4f innerProduct(Vector4f a, Vector4f b, Matrix4f store) {
+        return set(store,
+                a.x * b.x, a.x * b.y, a.x * b.z, a.x * b.w,
+                a.y * b.x, a.y * b.y, a.y * b.z, a.y * b.w,
+                a.z * b.x, a.z * b.y, a.z * b.z, a.z * b.w,
+                a.w * b.x, a.w * b.y, a.w * b.z, a.w * b.w);
     }
 
     public static Matrix4f makeHomogenious(Matrix3f t) {
-        return new Matrix4f(t.get(0, 0), t.get(0, 1), t.get(0, 2), 0,
+        return makeHomogenious(t, new Matrix4f());
+    }
+
+    /**
+     * Like {@link #makeHomogenious(Matrix3f)},
+     * but writes the result into {@code store}.
+     *
+     * @return the parameter {@code store}
+     */
+    public static Matrix4f makeHomogenious(Matrix3f t, Matrix4f store) {
+        return set(store,
+                t.get(0, 0), t.get(0, 1), t.get(0, 2), 0,
                 t.get(1, 0), t.get(1, 1), t.get(1, 2), 0,
                 t.get(2, 0), t.get(2, 1), t.get(2, 2), 0,
                 0, 0, 0, 1);
     }
 
     public static Matrix3f makeHomogeniousTranslationMatrix(Vector2f t) {
-        Matrix3f T = new Matrix3f(1, 0, t.x, 0, 1, t.y, 0, 0, 1);
-        return T;
+        return makeHomogeniousTranslationMatrix(t, new Matrix3f());
+    }
+
+    /**
+     * Like {@link #makeHomogeniousTranslationMatrix(Vector2f)},
+     * but writes the result into {@code store}.
+     *
+     * @return the parameter {@code store}
+     */
+    public static Matrix3f makeHomogeniousTranslationMatrix(Vector2f t, Matrix3f store) {
+        return set(store,
+                1, 0, t.x,
+                0, 1, t.y,
+                0, 0, 1);
     }
 
     public static Matrix4f makeHomogeniousTranslationMatrix(Vector3f t) {
-        Matrix4f T = new Matrix4f(1, 0, 0, t.x,
+        return makeHomogeniousTranslationMatrix(t, new Matrix4f());
+    }
+
+    /**
+     * Like {@link #makeHomogeniousTranslationMatrix(Vector3f)},
+     * but writes the result into {@code store}.
+     *
+     * @return the parameter {@code store}
+     */
+    public static Matrix4f makeHomogeniousTranslationMatrix(Vector3f t, Matrix4f store) {
+        return set(store,
+                1, 0, 0, t.x,
                 0, 1, 0, t.y,
                 0, 0, 1, t.z,
                 0, 0, 0, 1);
-        return T;
     }
 
     public static Matrix3f getRotation(Matrix4f T) {
-        return new Matrix3f(T.m00, T.m01, T.m02,
-                T.m10, T.m11, T.m12,
-                T.m20, T.m21, T.m22);
+        return getRotation(T, new Matrix3f());
+    }
+
+    /**
+     * Like {@link #getRotation(Matrix4f)},
+     * but writes the result into {@code store}.
+     *
+     * @return the parameter {@code store}
+     */
+    public static Matrix3f getRotation(Matrix4f T, Matrix3f store) {
+        return xyz(T, store);
     }
 
     public static Matrix3f makeCoordinateSystemWhereXIs(Vector3f x) {
+        return makeCoordinateSystemWhereXIs(x, new Matrix3f());
+    }
 
-        Vector3f z = x.cross(Vector3f.UNIT_Y);
-        float d = x.normalize().dot(Vector3f.UNIT_Y);
-        if (Math.abs(d) > 0.95f) {
-            z = x.cross(Vector3f.UNIT_X);
+    /**
+     * Like {@link #makeCoordinateSystemWhereXIs(Vector3f)},
+     * but writes the result into {@code store}.
+     * As there, {@code x} is normalized in place.
+     *
+     * @return the parameter {@code store}
+     */
+    public static Matrix3f makeCoordinateSystemWhereXIs(Vector3f x, Matrix3f store) {
+        // z = x × (0, 1, 0), or x × (1, 0, 0) if x is almost parallel to the y axis
+        float zx = -x.z, zy = 0, zz = x.x;
+        if (Math.abs(x.y / x.length()) > 0.95f) {
+            zx = 0;
+            zy = x.z;
+            zz = -x.y;
         }
-
-        Vector3f y = z.cross(x);
+        // y = z × x
+        float yx = zy * x.z - zz * x.y;
+        float yy = zz * x.x - zx * x.z;
+        float yz = zx * x.y - zy * x.x;
         x.normalizeLocal();
-        y.normalizeLocal();
-        z.normalizeLocal();
-        Matrix3f T = new Matrix3f(x.x, y.x, z.x, x.y, y.y, z.y, x.z, y.z, z.z);
-        return T;
+        return setColumns(store, x.x, x.y, x.z, yx, yy, yz, zx, zy, zz);
     }
 
     public static Matrix3f makeCoordinateSystemWhereYIs(Vector3f y) {
-        Vector3f z = Vector3f.UNIT_X.cross(y);
-        float d = Vector3f.UNIT_X.dot(y.normalize());
-        if (Math.abs(d) > 0.95f) {
-            z = Vector3f.UNIT_Y.cross(y);
+        return makeCoordinateSystemWhereYIs(y, new Matrix3f());
+    }
+
+    /**
+     * Like {@link #makeCoordinateSystemWhereYIs(Vector3f)},
+     * but writes the result into {@code store}.
+     * As there, {@code y} is normalized in place.
+     *
+     * @return the parameter {@code store}
+     */
+    public static Matrix3f makeCoordinateSystemWhereYIs(Vector3f y, Matrix3f store) {
+        // z = (1, 0, 0) × y, or (0, 1, 0) × y if y is almost parallel to the x axis
+        float zx = 0, zy = -y.z, zz = y.y;
+        if (Math.abs(y.x / y.length()) > 0.95f) {
+            zx = y.z;
+            zy = 0;
+            zz = -y.x;
         }
-        Vector3f x = y.cross(z);
-        x.normalizeLocal();
+        // x = y × z
+        float xx = y.y * zz - y.z * zy;
+        float xy = y.z * zx - y.x * zz;
+        float xz = y.x * zy - y.y * zx;
         y.normalizeLocal();
-        z.normalizeLocal();
-        Matrix3f T = new Matrix3f(x.x, y.x, z.x, x.y, y.y, z.y, x.z, y.z, z.z);
-        return T;
+        return setColumns(store, xx, xy, xz, y.x, y.y, y.z, zx, zy, zz);
+    }
+
+    /**
+     * Gets the inverse length of a vector, or 1 for the zero vector, like {@link Vector3f#normalizeLocal()}.
+     */
+    private static float invLength(float x, float y, float z) {
+        float lengthSq = x * x + y * y + z * z;
+        return lengthSq == 0 ? 1 : 1 / (float) Math.sqrt(lengthSq);
+    }
+
+    /**
+     * Sets the columns of {@code store} to the normalized vectors x, y and z.
+     */
+    private static Matrix3f setColumns(Matrix3f store, float xx, float xy, float xz,
+                                       float yx, float yy, float yz, float zx, float zy, float zz) {
+        float lx = invLength(xx, xy, xz);
+        float ly = invLength(yx, yy, yz);
+        float lz = invLength(zx, zy, zz);
+        return set(store,
+                xx * lx, yx * ly, zx * lz,
+                xy * lx, yy * ly, zy * lz,
+                xz * lx, yz * ly, zz * lz);
     }
 
     public static Matrix3f mult(Matrix3f A, Matrix3f B) {
-        Matrix3f result = new Matrix3f();
-        for (int rowIndex = 0; rowIndex < 3; rowIndex++) {
-            for (int columnIndex = 0; columnIndex < 3; columnIndex++) {
-                float value = 0;
-                for (int i = 0; i < 3; i++) {
-                    value += A.get(rowIndex, i) * B.get(i, columnIndex);
-                }
-                result.set(rowIndex, columnIndex, value);
-            }
-        }
-        return result;
+        return mult(A, B, new Matrix3f());
+    }
+
+    /**
+     * Like {@link #mult(Matrix3f, Matrix3f)},
+     * but writes the result into {@code store}, which may be {@code A} or {@code B} itself.
+     *
+     * @return the parameter {@code store}
+     */
+    public static Matrix3f mult(Matrix3f A, Matrix3f B, Matrix3f store) {
+        float a00 = A.get(0, 0), a01 = A.get(0, 1), a02 = A.get(0, 2);
+        float a10 = A.get(1, 0), a11 = A.get(1, 1), a12 = A.get(1, 2);
+        float a20 = A.get(2, 0), a21 = A.get(2, 1), a22 = A.get(2, 2);
+        float b00 = B.get(0, 0), b01 = B.get(0, 1), b02 = B.get(0, 2);
+        float b10 = B.get(1, 0), b11 = B.get(1, 1), b12 = B.get(1, 2);
+        float b20 = B.get(2, 0), b21 = B.get(2, 1), b22 = B.get(2, 2);
+        return set(store,
+                a00 * b00 + a01 * b10 + a02 * b20, a00 * b01 + a01 * b11 + a02 * b21, a00 * b02 + a01 * b12 + a02 * b22,
+                a10 * b00 + a11 * b10 + a12 * b20, a10 * b01 + a11 * b11 + a12 * b21, a10 * b02 + a11 * b12 + a12 * b22,
+                a20 * b00 + a21 * b10 + a22 * b20, a20 * b01 + a21 * b11 + a22 * b21, a20 * b02 + a21 * b12 + a22 * b22);
     }
 
     public static Matrix3f add(Matrix3f A, Matrix3f B) {
-        Matrix3f res = new Matrix3f();
+        return add(A, B, new Matrix3f());
+    }
+
+    /**
+     * Like {@link #add(Matrix3f, Matrix3f)},
+     * but writes the result into {@code store}, which may be {@code A} or {@code B} itself.
+     *
+     * @return the parameter {@code store}
+     */
+    public static Matrix3f add(Matrix3f A, Matrix3f B, Matrix3f store) {
         for (int i = 0; i < 3; i++) {
             for (int j = 0; j < 3; j++) {
-                res.set(i, j, A.get(i, j) + B.get(i, j));
+                store.set(i, j, A.get(i, j) + B.get(i, j));
             }
         }
-        return res;
+        return store;
+    }
+
+    // batch transformations
+    // ===========================================================================
+    // All batch methods transform points, that is they use a homogeneous coordinate of 1.
+    // If the last row of the matrix is [0 ... 0 1], the transformation is affine
+    // and the homogeneous divide is skipped, otherwise each point is divided by its w.
+    // Source and destination may be the same array (at the same offset) to transform in place.
+
+    /**
+     * Applies a 3x3 homogeneous transformation matrix to {@code count} 2D points,
+     * stored interleaved as {@code x0, y0, x1, y1, ...} in {@code src} starting at {@code srcOffset},
+     * and writes them interleaved into {@code dst} starting at {@code dstOffset}.
+     *
+     * @throws IndexOutOfBoundsException if either range exceeds its array
+     */
+    public static void transformPoints(Matrix3f m, float[] src, int srcOffset, float[] dst, int dstOffset, int count) {
+        Objects.checkFromIndexSize(srcOffset, 2 * count, src.length);
+        Objects.checkFromIndexSize(dstOffset, 2 * count, dst.length);
+        float m00 = m.get(0, 0), m01 = m.get(0, 1), m02 = m.get(0, 2);
+        float m10 = m.get(1, 0), m11 = m.get(1, 1), m12 = m.get(1, 2);
+        float m20 = m.get(2, 0), m21 = m.get(2, 1), m22 = m.get(2, 2);
+
+        if (m20 == 0 && m21 == 0 && m22 == 1) {
+            for (int i = 0; i < count; i++) {
+                var x = src[srcOffset + 2 * i];
+                var y = src[srcOffset + 2 * i + 1];
+                dst[dstOffset + 2 * i] = m00 * x + m01 * y + m02;
+                dst[dstOffset + 2 * i + 1] = m10 * x + m11 * y + m12;
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                var x = src[srcOffset + 2 * i];
+                var y = src[srcOffset + 2 * i + 1];
+                var w = 1 / (m20 * x + m21 * y + m22);
+                dst[dstOffset + 2 * i] = (m00 * x + m01 * y + m02) * w;
+                dst[dstOffset + 2 * i + 1] = (m10 * x + m11 * y + m12) * w;
+            }
+        }
+    }
+
+    /**
+     * Applies a 3x3 homogeneous transformation matrix to {@code count} 2D points,
+     * stored as separate coordinate arrays (structure of arrays) starting at {@code offset},
+     * and writes them to the destination coordinate arrays at the same offset.
+     *
+     * @throws IndexOutOfBoundsException if the range exceeds any of the arrays
+     */
+    public static void transformPoints(Matrix3f m, float[] xs, float[] ys, float[] dstXs, float[] dstYs, int offset, int count) {
+        Objects.checkFromIndexSize(offset, count, Math.min(xs.length, ys.length));
+        Objects.checkFromIndexSize(offset, count, Math.min(dstXs.length, dstYs.length));
+        float m00 = m.get(0, 0), m01 = m.get(0, 1), m02 = m.get(0, 2);
+        float m10 = m.get(1, 0), m11 = m.get(1, 1), m12 = m.get(1, 2);
+        float m20 = m.get(2, 0), m21 = m.get(2, 1), m22 = m.get(2, 2);
+        int end = offset + count;
+
+        if (m20 == 0 && m21 == 0 && m22 == 1) {
+            for (int i = offset; i < end; i++) {
+                var x = xs[i];
+                var y = ys[i];
+                dstXs[i] = m00 * x + m01 * y + m02;
+                dstYs[i] = m10 * x + m11 * y + m12;
+            }
+        } else {
+            for (int i = offset; i < end; i++) {
+                var x = xs[i];
+                var y = ys[i];
+                var w = 1 / (m20 * x + m21 * y + m22);
+                dstXs[i] = (m00 * x + m01 * y + m02) * w;
+                dstYs[i] = (m10 * x + m11 * y + m12) * w;
+            }
+        }
+    }
+
+    /**
+     * Applies a 4x4 homogeneous transformation matrix to {@code count} 3D points,
+     * stored interleaved as {@code x0, y0, z0, x1, ...} in {@code src} starting at {@code srcOffset},
+     * and writes them interleaved into {@code dst} starting at {@code dstOffset}.
+     *
+     * @throws IndexOutOfBoundsException if either range exceeds its array
+     */
+    public static void transformPoints(Matrix4f m, float[] src, int srcOffset, float[] dst, int dstOffset, int count) {
+        Objects.checkFromIndexSize(srcOffset, 3 * count, src.length);
+        Objects.checkFromIndexSize(dstOffset, 3 * count, dst.length);
+        float m00 = m.m00, m01 = m.m01, m02 = m.m02, m03 = m.m03;
+        float m10 = m.m10, m11 = m.m11, m12 = m.m12, m13 = m.m13;
+        float m20 = m.m20, m21 = m.m21, m22 = m.m22, m23 = m.m23;
+        float m30 = m.m30, m31 = m.m31, m32 = m.m32, m33 = m.m33;
+
+        if (m30 == 0 && m31 == 0 && m32 == 0 && m33 == 1) {
+            for (int i = 0; i < count; i++) {
+                var x = src[srcOffset + 3 * i];
+                var y = src[srcOffset + 3 * i + 1];
+                var z = src[srcOffset + 3 * i + 2];
+                dst[dstOffset + 3 * i] = m00 * x + m01 * y + m02 * z + m03;
+                dst[dstOffset + 3 * i + 1] = m10 * x + m11 * y + m12 * z + m13;
+                dst[dstOffset + 3 * i + 2] = m20 * x + m21 * y + m22 * z + m23;
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                var x = src[srcOffset + 3 * i];
+                var y = src[srcOffset + 3 * i + 1];
+                var z = src[srcOffset + 3 * i + 2];
+                var w = 1 / (m30 * x + m31 * y + m32 * z + m33);
+                dst[dstOffset + 3 * i] = (m00 * x + m01 * y + m02 * z + m03) * w;
+                dst[dstOffset + 3 * i + 1] = (m10 * x + m11 * y + m12 * z + m13) * w;
+                dst[dstOffset + 3 * i + 2] = (m20 * x + m21 * y + m22 * z + m23) * w;
+            }
+        }
+    }
+
+    /**
+     * Applies a 4x4 homogeneous transformation matrix to {@code count} 3D points,
+     * stored as separate coordinate arrays (structure of arrays) starting at {@code offset},
+     * and writes them to the destination coordinate arrays at the same offset.
+     *
+     * @throws IndexOutOfBoundsException if the range exceeds any of the arrays
+     */
+    public static void transformPoints(Matrix4f m, float[] xs, float[] ys, float[] zs,
+                                       float[] dstXs, float[] dstYs, float[] dstZs, int offset, int count) {
+        Objects.checkFromIndexSize(offset, count, Math.min(xs.length, Math.min(ys.length, zs.length)));
+        Objects.checkFromIndexSize(offset, count, Math.min(dstXs.length, Math.min(dstYs.length, dstZs.length)));
+        float m00 = m.m00, m01 = m.m01, m02 = m.m02, m03 = m.m03;
+        float m10 = m.m10, m11 = m.m11, m12 = m.m12, m13 = m.m13;
+        float m20 = m.m20, m21 = m.m21, m22 = m.m22, m23 = m.m23;
+        float m30 = m.m30, m31 = m.m31, m32 = m.m32, m33 = m.m33;
+        int end = offset + count;
+
+        if (m30 == 0 && m31 == 0 && m32 == 0 && m33 == 1) {
+            for (int i = offset; i < end; i++) {
+                var x = xs[i];
+                var y = ys[i];
+                var z = zs[i];
+                dstXs[i] = m00 * x + m01 * y + m02 * z + m03;
+                dstYs[i] = m10 * x + m11 * y + m12 * z + m13;
+                dstZs[i] = m20 * x + m21 * y + m22 * z + m23;
+            }
+        } else {
+            for (int i = offset; i < end; i++) {
+                var x = xs[i];
+                var y = ys[i];
+                var z = zs[i];
+                var w = 1 / (m30 * x + m31 * y + m32 * z + m33);
+                dstXs[i] = (m00 * x + m01 * y + m02 * z + m03) * w;
+                dstYs[i] = (m10 * x + m11 * y + m12 * z + m13) * w;
+                dstZs[i] = (m20 * x + m21 * y + m22 * z + m23) * w;
+            }
+        }
+    }
+
+    /**
+     * Applies a 4x4 homogeneous transformation matrix to {@code count} 3D points,
+     * stored interleaved as {@code x0, y0, z0, x1, ...} in {@code src} starting at its current position,
+     * and writes them interleaved into {@code dst} starting at its current position.
+     * <p>
+     * The positions of both buffers are left unchanged. Both may be the same buffer.
+     *
+     * @throws IndexOutOfBoundsException if either buffer has less than {@code 3 * count} remaining floats
+     */
+    public static void transformPoints(Matrix4f m, FloatBuffer src, FloatBuffer dst, int count) {
+        Objects.checkFromIndexSize(0, 3 * count, src.remaining());
+        Objects.checkFromIndexSize(0, 3 * count, dst.remaining());
+        float m00 = m.m00, m01 = m.m01, m02 = m.m02, m03 = m.m03;
+        float m10 = m.m10, m11 = m.m11, m12 = m.m12, m13 = m.m13;
+        float m20 = m.m20, m21 = m.m21, m22 = m.m22, m23 = m.m23;
+        float m30 = m.m30, m31 = m.m31, m32 = m.m32, m33 = m.m33;
+        int srcOffset = src.position();
+        int dstOffset = dst.position();
+
+        if (m30 == 0 && m31 == 0 && m32 == 0 && m33 == 1) {
+            for (int i = 0; i < count; i++) {
+                var x = src.get(srcOffset + 3 * i);
+                var y = src.get(srcOffset + 3 * i + 1);
+                var z = src.get(srcOffset + 3 * i + 2);
+                dst.put(dstOffset + 3 * i, m00 * x + m01 * y + m02 * z + m03);
+                dst.put(dstOffset + 3 * i + 1, m10 * x + m11 * y + m12 * z + m13);
+                dst.put(dstOffset + 3 * i + 2, m20 * x + m21 * y + m22 * z + m23);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                var x = src.get(srcOffset + 3 * i);
+                var y = src.get(srcOffset + 3 * i + 1);
+                var z = src.get(srcOffset + 3 * i + 2);
+                var w = 1 / (m30 * x + m31 * y + m32 * z + m33);
+                dst.put(dstOffset + 3 * i, (m00 * x + m01 * y + m02 * z + m03) * w);
+                dst.put(dstOffset + 3 * i + 1, (m10 * x + m11 * y + m12 * z + m13) * w);
+                dst.put(dstOffset + 3 * i + 2, (m20 * x + m21 * y + m22 * z + m23) * w);
+            }
+        }
+    }
+
+    /**
+     * Applies a 3x3 homogeneous transformation matrix to {@code count} 2D points,
+     * stored interleaved as {@code x0, y0, x1, y1, ...} in {@code src} starting at its current position,
+     * and writes them interleaved into {@code dst} starting at its current position.
+     * <p>
+     * The positions of both buffers are left unchanged. Both may be the same buffer.
+     *
+     * @throws IndexOutOfBoundsException if either buffer has less than {@code 2 * count} remaining floats
+     */
+    public static void transformPoints(Matrix3f m, FloatBuffer src, FloatBuffer dst, int count) {
+        Objects.checkFromIndexSize(0, 2 * count, src.remaining());
+        Objects.checkFromIndexSize(0, 2 * count, dst.remaining());
+        float m00 = m.get(0, 0), m01 = m.get(0, 1), m02 = m.get(0, 2);
+        float m10 = m.get(1, 0), m11 = m.get(1, 1), m12 = m.get(1, 2);
+        float m20 = m.get(2, 0), m21 = m.get(2, 1), m22 = m.get(2, 2);
+        int srcOffset = src.position();
+        int dstOffset = dst.position();
+
+        if (m20 == 0 && m21 == 0 && m22 == 1) {
+            for (int i = 0; i < count; i++) {
+                var x = src.get(srcOffset + 2 * i);
+                var y = src.get(srcOffset + 2 * i + 1);
+                dst.put(dstOffset + 2 * i, m00 * x + m01 * y + m02);
+                dst.put(dstOffset + 2 * i + 1, m10 * x + m11 * y + m12);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                var x = src.get(srcOffset + 2 * i);
+                var y = src.get(srcOffset + 2 * i + 1);
+                var w = 1 / (m20 * x + m21 * y + m22);
+                dst.put(dstOffset + 2 * i, (m00 * x + m01 * y + m02) * w);
+                dst.put(dstOffset + 2 * i + 1, (m10 * x + m11 * y + m12) * w);
+            }
+        }
+    }
+
+    // store helpers
+    // ===========================================================================
+
+    private static Matrix3f set(Matrix3f store,
+                                float m00, float m01, float m02,
+                                float m10, float m11, float m12,
+                                float m20, float m21, float m22) {
+        store.set(0, 0, m00);
+        store.set(0, 1, m01);
+        store.set(0, 2, m02);
+        store.set(1, 0, m10);
+        store.set(1, 1, m11);
+        store.set(1, 2, m12);
+        store.set(2, 0, m20);
+        store.set(2, 1, m21);
+        store.set(2, 2, m22);
+        return store;
+    }
+
+    private static Matrix4f set(Matrix4f store,
+                                float m00, float m01, float m02, float m03,
+                                float m10, float m11, float m12, float m13,
+                                float m20, float m21, float m22, float m23,
+                                float m30, float m31, float m32, float m33) {
+        store.m00 = m00;
+        store.m01 = m01;
+        store.m02 = m02;
+        store.m03 = m03;
+        store.m10 = m10;
+        store.m11 = m11;
+        store.m12 = m12;
+        store.m13 = m13;
+        store.m20 = m20;
+        store.m21 = m21;
+        store.m22 = m22;
+        store.m23 = m23;
+        store.m30 = m30;
+        store.m31 = m31;
+        store.m32 = m32;
+        store.m33 = m33;
+        return store;
     }
 }
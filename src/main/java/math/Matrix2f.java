@@ -7,7 +7,7 @@ package math;
 
 import com.jme3.math.Vector2f;
 
-import java.util.Arrays;
+import java.util.Objects;
 
 /**
  * A 2x2 matrix, built after the matrix classes of JME.
@@ -16,37 +16,62 @@ public class Matrix2f {
   public static final int ROWS = 2;
   public static final int COLS = 2;
 
-  private final float[][] data;
+  private float m00;
+  private float m01;
+  private float m10;
+  private float m11;
 
   /**
    * Creates a new identity matrix.
    */
   public Matrix2f() {
-    this.data = new float[][]{{1, 0}, {0, 1}};
+    this(1, 0, 0, 1);
   }
 
   /**
    * Creates a new matrix with specified values.
    */
   public Matrix2f(float m00, float m01, float m10, float m11) {
-    this.data = new float[][]{{m00, m01}, {m10, m11}};
+    this.m00 = m00;
+    this.m01 = m01;
+    this.m10 = m10;
+    this.m11 = m11;
   }
 
   /**
    * Creates a new matrix that is the copy of another.
    */
   public Matrix2f(Matrix2f that) {
-    this.data = new float[ROWS][COLS];
-    for (int row = 0; row < ROWS; row++) {
-      System.arraycopy(that.data[row], 0, this.data[row], 0, COLS);
-    }
+    this(that.m00, that.m01, that.m10, that.m11);
+  }
+
+  /**
+   * Sets all values of this matrix.
+   *
+   * @return itself
+   */
+  public Matrix2f set(float m00, float m01, float m10, float m11) {
+    this.m00 = m00;
+    this.m01 = m01;
+    this.m10 = m10;
+    this.m11 = m11;
+    return this;
+  }
+
+  /**
+   * Sets this matrix to the values of another.
+   *
+   * @return itself
+   */
+  public Matrix2f set(Matrix2f that) {
+    return set(that.m00, that.m01, that.m10, that.m11);
   }
 
   /**
    * Returns the calculated determinant.
    */
   public float determinant() {
-    return data[0][0] * data[1][1] - data[0][1] * data[1][0];
+    return m00 * m11 - m01 * m10;
   }
 
   /**
@@ -61,15 +86,7 @@ public class Matrix2f {
     if (det == 0) {
       throw new IllegalStateException("not invertible, determinant is zero");
     }
-    var a = data[0][0];
-    var b = data[0][1];
-    var c = data[1][0];
-    var d = data[1][1];
-    this.data[0][0] = d / det;
-    this.data[0][1] = -b / det;
-    this.data[1][0] = -c / det;
-    this.data[1][1] = a / det;
-    return this;
+    return set(m11 / det, -m01 / det, -m10 / det, m00 / det);
   }
 
   /**
@@ -84,6 +101,28 @@ public class Matrix2f {
     return copy.invertLocal();
   }
 
+  /**
+   * Solves the linear system {@code Mx = b} for {@code x} using Cramer's rule,
+   * without computing the inverse of this matrix {@code M}.
+   *
+   * @param b     the right-hand side {@code b}
+   * @param store receives the solution {@code x}, may be {@code b} itself
+   * @return the parameter {@code store}
+   * @throws IllegalStateException if the matrix is not invertible,
+   *                               that is when {@link Matrix2f#determinant()} returns {@code 0}
+   */
+  public Vector2f solve(Vector2f b, Vector2f store) {
+    var det = determinant();
+    if (det == 0) {
+      throw new IllegalStateException("not invertible, determinant is zero");
+    }
+    var x = b.x;
+    var y = b.y;
+    store.x = (m11 * x - m01 * y) / det;
+    store.y = (m00 * y - m10 * x) / det;
+    return store;
+  }
+
   /**
    * Sets this matrix {@code M} to the result of the scalar multiplication {@code λM}.
    *
@@ -91,12 +130,7 @@ public class Matrix2f {
    * @return itself
    */
   public Matrix2f multLocal(float scl) {
-    for (int row = 0; row < ROWS; row++) {
-      for (int col = 0; col < COLS; col++) {
-        this.data[row][col] *= scl;
-      }
-    }
-    return this;
+    return set(m00 * scl, m01 * scl, m10 * scl, m11 * scl);
   }
 
   /**
@@ -105,11 +139,7 @@ public class Matrix2f {
    * @return the parameter {@code vec}
    */
   public Vector2f multLocal(Vector2f vec) {
-    float x = vec.x;
-    float y = vec.y;
-    vec.x = data[0][0] * x + data[0][1] * y;
-    vec.y = data[1][0] * x + data[1][1] * y;
-    return vec;
+    return mult(vec, vec);
   }
 
   /**
@@ -119,12 +149,7 @@ public class Matrix2f {
    * @return itself
    */
   public Matrix2f multLocal(Matrix2f rhs) {
-    var copy = new Matrix2f(this);
-    this.data[0][0] = copy.data[0][0] * rhs.data[0][0] + copy.data[0][1] * rhs.data[1][0];
-    this.data[0][1] = copy.data[0][0] * rhs.data[0][1] + copy.data[0][1] * rhs.data[1][1];
-    this.data[1][0] = copy.data[1][0] * rhs.data[0][0] + copy.data[1][1] * rhs.data[1][0];
-    this.data[1][1] = copy.data[1][0] * rhs.data[0][1] + copy.data[1][1] * rhs.data[1][1];
-    return this;
+    return mult(rhs, this);
   }
 
   /**
@@ -145,8 +170,22 @@ public class Matrix2f {
    * @return a new instance
    */
   public Vector2f mult(Vector2f vec) {
-    var copy = new Vector2f(vec);
-    return multLocal(copy);
+    return mult(vec, new Vector2f());
+  }
+
+  /**
+   * Stores the result of the matrix-vector multiplication {@code Mv} in {@code store}.
+   *
+   * @param vec   the vector {@code v}
+   * @param store receives the result, may be {@code vec} itself
+   * @return the parameter {@code store}
+   */
+  public Vector2f mult(Vector2f vec, Vector2f store) {
+    var x = vec.x;
+    var y = vec.y;
+    store.x = m00 * x + m01 * y;
+    store.y = m10 * x + m11 * y;
+    return store;
   }
 
   /**
@@ -156,8 +195,22 @@ public class Matrix2f {
    * @return a new instance
    */
   public Matrix2f mult(Matrix2f mat) {
-    var copy = new Matrix2f(this);
-    return copy.multLocal(mat);
+    return mult(mat, new Matrix2f());
+  }
+
+  /**
+   * Stores the result of the matrix multiplication {@code MR} in {@code store}.
+   *
+   * @param mat   the other matrix {@code R}
+   * @param store receives the result, may be this matrix or {@code mat} itself
+   * @return the parameter {@code store}
+   */
+  public Matrix2f mult(Matrix2f mat, Matrix2f store) {
+    return store.set(
+            m00 * mat.m00 + m01 * mat.m10,
+            m00 * mat.m01 + m01 * mat.m11,
+            m10 * mat.m00 + m11 * mat.m10,
+            m10 * mat.m01 + m11 * mat.m11);
   }
 
   /**
@@ -165,9 +218,19 @@ public class Matrix2f {
    *
    * @param row the row index ({@code i})
    * @param col the column index ({@code j})
+   * @throws IndexOutOfBoundsException if the position is not within the matrix
    */
   public float get(int row, int col) {
-    return data[row][col];
+    switch (index(row, col)) {
+      case 0:
+        return m00;
+      case 1:
+        return m01;
+      case 2:
+        return m10;
+      default:
+        return m11;
+    }
   }
 
   /**
@@ -176,9 +239,27 @@ public class Matrix2f {
    * @param row   the row index ({@code i})
    * @param col   the column index ({@code j})
    * @param value the new value
+   * @throws IndexOutOfBoundsException if the position is not within the matrix
    */
   public void set(int row, int col, float value) {
-    data[row][col] = value;
+    switch (index(row, col)) {
+      case 0:
+        m00 = value;
+        break;
+      case 1:
+        m01 = value;
+        break;
+      case 2:
+        m10 = value;
+        break;
+      default:
+        m11 = value;
+        break;
+    }
+  }
+
+  private static int index(int row, int col) {
+    return Objects.checkIndex(row, ROWS) * COLS + Objects.checkIndex(col, COLS);
   }
 
   @Override
@@ -186,24 +267,26 @@ public class Matrix2f {
     if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
     Matrix2f that = (Matrix2f) o;
-    return Arrays.deepEquals(data, that.data);
+    return Float.compare(m00, that.m00) == 0 &&
+            Float.compare(m01, that.m01) == 0 &&
+            Float.compare(m10, that.m10) == 0 &&
+            Float.compare(m11, that.m11) == 0;
   }
 
   @Override
   public int hashCode() {
-    return Arrays.deepHashCode(data);
+    int result = Float.hashCode(m00);
+    result = 31 * result + Float.hashCode(m01);
+    result = 31 * result + Float.hashCode(m10);
+    result = 31 * result + Float.hashCode(m11);
+    return result;
   }
 
   @Override
   public String toString() {
-    StringBuilder str = new StringBuilder("Matrix2f[\n");
-    for (int row = 0; row < ROWS; row++) {
-      str.append("  ");
-      for (int col = 0; col < COLS; col++) {
-        str.append(data[row][col]).append(" ");
-      }
-      str.append("\n");
-    }
-    return str + "]";
+    return "Matrix2f[\n" +
+            "  " + m00 + " " + m01 + " \n" +
+            "  " + m10 + " " + m11 + " \n" +
+            "]";
   }
 }
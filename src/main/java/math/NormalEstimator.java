@@ -0,0 +1,110 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package math;
+
+import misc.KdTree;
+
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Estimates surface normals and curvature for every point of a point cloud.
+ * <p>
+ * For each point, the {@code k} nearest neighbours (including the point itself) are looked up in a
+ * {@link KdTree} built once over the whole cloud. The normal is the eigenvector belonging to the
+ * smallest eigenvalue of the neighbourhood's covariance, as in {@link PCA}. The curvature is
+ * the surface variation {@code λ0 / (λ0 + λ1 + λ2)}, which is 0 for planar and 1/3 for isotropic
+ * neighbourhoods.
+ * <p>
+ * The points are processed in parallel chunks on the common fork/join pool.
+ * The sign of a normal is arbitrary, as the covariance does not carry orientation.
+ */
+public class NormalEstimator {
+  /**
+   * Number of points processed by one task, which allocates its scratch buffers once.
+   */
+  private static final int CHUNK_SIZE = 1024;
+
+  /**
+   * Number of neighbours per point.
+   */
+  private final int k;
+
+  /**
+   * Creates a new estimator using neighbourhoods of {@code k} points.
+   *
+   * @throws IllegalArgumentException if {@code k} is less than 3
+   */
+  public NormalEstimator(int k) {
+    checkArgument(k >= 3, "k must be at least 3");
+    this.k = k;
+  }
+
+  /**
+   * Estimates the normals of {@code count} points, stored interleaved as {@code x0, y0, z0, x1, ...}
+   * in {@code xyz} starting at index 0.
+   *
+   * @param normals    receives the normalized normals, interleaved like {@code xyz}
+   * @param curvatures receives the surface variation per point, may be {@code null}
+   * @throws IndexOutOfBoundsException if any of the arrays is too short for {@code count} points
+   */
+  public void estimate(float[] xyz, int count, float[] normals, float[] curvatures) {
+    estimate(new KdTree(xyz, 0, count), xyz, count, normals, curvatures);
+  }
+
+  /**
+   * Like {@link #estimate(float[], int, float[], float[])},
+   * but uses an existing tree built over the same points.
+   */
+  public void estimate(KdTree tree, float[] xyz, int count, float[] normals, float[] curvatures) {
+    Objects.checkFromIndexSize(0, 3 * count, xyz.length);
+    Objects.checkFromIndexSize(0, 3 * count, normals.length);
+    if (curvatures != null) {
+      Objects.checkFromIndexSize(0, count, curvatures.length);
+    }
+    checkArgument(tree.size() == count, "tree must be built over the same points");
+
+    int chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    IntStream.range(0, chunks).parallel().forEach(chunk -> {
+      int from = chunk * CHUNK_SIZE;
+      int to = Math.min(from + CHUNK_SIZE, count);
+      estimateRange(tree, xyz, from, to, normals, curvatures);
+    });
+  }
+
+  private void estimateRange(KdTree tree, float[] xyz, int from, int to, float[] normals, float[] curvatures) {
+    var neighbours = new int[k];
+    var distancesSq = new float[k];
+    var covariance = new CovarianceAccumulator();
+    var eigenValues = new double[3];
+    var eigenVectors = new double[9];
+
+    for (int i = from; i < to; i++) {
+      int found = tree.nearest(xyz[3 * i], xyz[3 * i + 1], xyz[3 * i + 2], k, neighbours, distancesSq);
+
+      covariance.clear();
+      for (int n = 0; n < found; n++) {
+        int j = neighbours[n];
+        covariance.add(xyz[3 * j], xyz[3 * j + 1], xyz[3 * j + 2]);
+      }
+      SymmetricEigen3.decompose(
+              covariance.getScatter(0, 0), covariance.getScatter(0, 1), covariance.getScatter(0, 2),
+              covariance.getScatter(1, 1), covariance.getScatter(1, 2),
+              covariance.getScatter(2, 2),
+              eigenValues, eigenVectors);
+
+      normals[3 * i] = (float) eigenVectors[0];
+      normals[3 * i + 1] = (float) eigenVectors[1];
+      normals[3 * i + 2] = (float) eigenVectors[2];
+      if (curvatures != null) {
+        var sum = eigenValues[0] + eigenValues[1] + eigenValues[2];
+        curvatures[i] = sum > 0 ? (float) (eigenValues[0] / sum) : 0;
+      }
+    }
+  }
+}
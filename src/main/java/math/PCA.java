@@ -1,13 +1,17 @@
 package math;
 
-import Jama.EigenvalueDecomposition;
 import com.jme3.math.Matrix3f;
 import com.jme3.math.Vector3f;
 import misc.Logger;
 
-import java.util.ArrayList;
-import java.util.List;
-
+/**
+ * Principal component analysis of a set of 3D points.
+ * <p>
+ * The points are not retained, they are accumulated into their mean and covariance in a single pass
+ * (see {@link CovarianceAccumulator}), so memory usage and the cost of {@link #applyPCA()}
+ * do not depend on the number of points.
+ * The eigen decomposition of the covariance is computed by {@link SymmetricEigen3} on primitives.
+ */
 public class PCA {
 
     /**
@@ -16,19 +20,24 @@ public class PCA {
     private Vector3f centroid = null;
 
     /**
-     * Container for the points.
+     * Running mean and covariance of the added points.
+     */
+    private final CovarianceAccumulator covariance = new CovarianceAccumulator();
+
+    /**
+     * The eigenvalues of the analyzed point set in ascending order.
      */
-    List<Vector3f> points = new ArrayList<>();
+    private final double[] eigenValues = new double[3];
 
     /**
-     * This matrix holds the eigenvalues of the analyzed point set.
+     * The eigenvectors of the analyzed point set, the k-th eigenvector at indices 3k to 3k + 2.
      */
-    private Jama.Matrix V = null;
+    private final double[] eigenVectors = new double[9];
 
     /**
-     * This diagonal matrix holds the eigenvectors of the analyzed point set.
+     * Whether the eigenvalues and eigenvectors are valid, that is the PCA has been applied.
      */
-    private Jama.Matrix D = null;
+    private boolean applied = false;
 
     /**
      * Constructor
@@ -40,7 +49,22 @@ public class PCA {
      * Add an additional point.
      */
     public void add(Vector3f point) {
-        points.add(point);
+        covariance.add(point);
+    }
+
+    /**
+     * Add an additional point {@code (x, y, z)}.
+     */
+    public void add(float x, float y, float z) {
+        covariance.add(x, y, z);
+    }
+
+    /**
+     * Add all points accumulated by {@code points},
+     * e.g. a partial result computed in parallel.
+     */
+    public void add(CovarianceAccumulator points) {
+        covariance.combine(points);
     }
 
     /**
@@ -48,81 +72,78 @@ public class PCA {
      */
     public void applyPCA() {
 
-        if (points.size() < 3) {
+        if (covariance.getCount() < 3) {
             Logger.getInstance().error("Need a least 3 points for PCA");
             return;
         }
 
-        // Compute centroid
-        centroid = new Vector3f();
-        for (Vector3f p : points) {
-            centroid = centroid.add(p);
-        }
-        centroid = centroid.mult(1.0f / points.size());
+        centroid = covariance.getMean(new Vector3f());
 
-        Matrix3f M = new Matrix3f();
-        for (Vector3f p : points) {
-            Vector3f d = p.subtract(centroid);
-            M = Matrices.add(M, Vectors.dyadic(d, d));
-        }
-
-        // Singular value decomposition
-        Jama.Matrix jamaM = new Jama.Matrix(3, 3);
-        for (int rowIndex = 0; rowIndex < 3; rowIndex++) {
-            for (int colIndex = 0; colIndex < 3; colIndex++) {
-                jamaM.set(colIndex, rowIndex, M.get(colIndex, rowIndex));
-            }
-        }
-        EigenvalueDecomposition e = jamaM.eig();
-        V = e.getV();
-        D = e.getD();
+        // Eigen decomposition of the scatter matrix
+        SymmetricEigen3.decompose(
+                covariance.getScatter(0, 0), covariance.getScatter(0, 1), covariance.getScatter(0, 2),
+                covariance.getScatter(1, 1), covariance.getScatter(1, 2),
+                covariance.getScatter(2, 2),
+                eigenValues, eigenVectors);
+        applied = true;
     }
 
     /**
-     * Getter.
+     * Get the eigenvalue at {@code index}, the eigenvalues are sorted in ascending order.
      */
     public double getEigenValue(int index) {
-        return D.get(index, index);
+        return eigenValues[index];
     }
 
     /**
-     * Getter.
+     * Get the normalized eigenvector belonging to {@link #getEigenValue(int)}.
      */
     public Vector3f getEigenVector(int index) {
-        int dimension = D.getColumnDimension();
-        Vector3f eigenVector = new Vector3f();
-        for (int i = 0; i < dimension; i++) {
-            eigenVector.set(i, (float) V.get(i, index));
-        }
-        return eigenVector;
+        return getEigenVector(index, new Vector3f());
     }
 
     /**
-     * Clear list of points.
+     * Like {@link #getEigenVector(int)}, but writes the result into {@code store}.
+     *
+     * @return the parameter {@code store}
+     */
+    public Vector3f getEigenVector(int index, Vector3f store) {
+        return store.set(
+                (float) eigenVectors[3 * index],
+                (float) eigenVectors[3 * index + 1],
+                (float) eigenVectors[3 * index + 2]);
+    }
+
+    /**
+     * Get the number of points added so far.
+     */
+    public long getPointCount() {
+        return covariance.getCount();
+    }
+
+    /**
+     * Clear all points.
      */
     public void clear() {
-        points.clear();
-        D = null;
-        V = null;
+        covariance.clear();
+        applied = false;
     }
 
+    /**
+     * Get the matrix {@code V D Vᵀ} recomposed from the eigenvectors {@code V}
+     * and the diagonal matrix of eigenvalues {@code D}.
+     */
     public Matrix3f getVDV() {
-        Matrix3f v = new Matrix3f();
-        Matrix3f d = new Matrix3f();
-        Jama.Matrix VV = V.transpose();
-        Matrix3f vv = new Matrix3f();
-
+        Matrix3f result = new Matrix3f();
         for (int rowIndex = 0; rowIndex < 3; rowIndex++) {
             for (int colIndex = 0; colIndex < 3; colIndex++) {
-                v.set(colIndex, rowIndex, (float) V.get(colIndex, rowIndex));
-                d.set(colIndex, rowIndex, (float) D.get(colIndex, rowIndex));
-                vv.set(colIndex, rowIndex, (float)VV.get(colIndex, rowIndex));
+                double value = 0;
+                for (int k = 0; k < 3; k++) {
+                    value += eigenVectors[3 * k + rowIndex] * eigenValues[k] * eigenVectors[3 * k + colIndex];
+                }
+                result.set(rowIndex, colIndex, (float) value);
             }
         }
-
-        Matrix3f result = Matrices.mult(v, d);
-        result = Matrices.mult(result, vv);
-
         return result;
     }
 
@@ -134,19 +155,69 @@ public class PCA {
         this.centroid = centroid;
     }
 
+    /**
+     * Get the eigenvectors as columns of a new Jama matrix,
+     * or {@code null} if the PCA has not been applied.
+     *
+     * @deprecated use {@link #getEigenVector(int, Vector3f)}
+     */
+    @Deprecated
     public Jama.Matrix getV() {
+        if (!applied) {
+            return null;
+        }
+        Jama.Matrix V = new Jama.Matrix(3, 3);
+        for (int rowIndex = 0; rowIndex < 3; rowIndex++) {
+            for (int colIndex = 0; colIndex < 3; colIndex++) {
+                V.set(rowIndex, colIndex, eigenVectors[3 * colIndex + rowIndex]);
+            }
+        }
         return V;
     }
 
+    /**
+     * Set the eigenvectors from the columns of a Jama matrix.
+     *
+     * @deprecated the eigenvectors are meant to be computed by {@link #applyPCA()}
+     */
+    @Deprecated
     public void setV(Jama.Matrix v) {
-        V = v;
+        for (int rowIndex = 0; rowIndex < 3; rowIndex++) {
+            for (int colIndex = 0; colIndex < 3; colIndex++) {
+                eigenVectors[3 * colIndex + rowIndex] = v.get(rowIndex, colIndex);
+            }
+        }
+        applied = true;
     }
 
+    /**
+     * Get the eigenvalues as diagonal of a new Jama matrix,
+     * or {@code null} if the PCA has not been applied.
+     *
+     * @deprecated use {@link #getEigenValue(int)}
+     */
+    @Deprecated
     public Jama.Matrix getD() {
+        if (!applied) {
+            return null;
+        }
+        Jama.Matrix D = new Jama.Matrix(3, 3);
+        for (int i = 0; i < 3; i++) {
+            D.set(i, i, eigenValues[i]);
+        }
         return D;
     }
 
+    /**
+     * Set the eigenvalues from the diagonal of a Jama matrix.
+     *
+     * @deprecated the eigenvalues are meant to be computed by {@link #applyPCA()}
+     */
+    @Deprecated
     public void setD(Jama.Matrix d) {
-        D = d;
+        for (int i = 0; i < 3; i++) {
+            eigenValues[i] = d.get(i, i);
+        }
+        applied = true;
     }
 }
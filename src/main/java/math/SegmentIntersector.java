@@ -0,0 +1,672 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package math;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Finds all pairs of intersecting segments among a set of 2D segments with the sweep line algorithm
+ * of Bentley and Ottmann, in {@code O((n + k) log n)} for {@code k} intersections.
+ * <p>
+ * A sweep line moves over the end points and intersection points of the segments in order of x and then y.
+ * The segments cut by the sweep line are kept in a treap in the order in which they cut it, and only
+ * segments becoming neighbours in this order are intersected, scheduling their intersection point as
+ * an event. At each event the segments through the point are reordered as they continue behind it.
+ * Degenerate input is handled as described by de Berg et al., Computational Geometry, chapter 2:
+ * vertical segments, segments ending on other segments and many segments through one point.
+ * The sweep computes in double precision with a small tolerance for points on segments, and each pair
+ * meeting at an event is confirmed with the float intersection test, so the results are those of
+ * testing all pairs. Collinear segments overlapping each other stay neighbours without intersecting,
+ * a bundle of them only slows the sweep.
+ * <p>
+ * Segment {@code i} is stored as {@code x0, y0, x1, y1} at index {@code 4i} of a packed array.
+ * Intersections are reported with the segment parameters as {@link Line.Intersection},
+ * where a parameter of 0 denotes the start and 1 the end of a segment.
+ * Segments touching at their end points intersect, collinear segments never do.
+ */
+public final class SegmentIntersector {
+  private SegmentIntersector() {
+  }
+
+  /**
+   * Receives the intersections found by {@link #intersectAll(float[], int, Listener)}.
+   */
+  @FunctionalInterface
+  public interface Listener {
+    /**
+     * Called once for each pair of intersecting segments.
+     *
+     * @param first        the index of the first segment
+     * @param second       the index of the second segment, always greater than {@code first}
+     * @param intersection the segment parameters of the intersection point,
+     *                     lambda1 for {@code first} and lambda2 for {@code second}
+     */
+    void onIntersection(int first, int second, Line.Intersection intersection);
+  }
+
+  /**
+   * An intersection between two segments, as returned by {@link #intersectAll(float[], int)}.
+   */
+  public static class Result {
+    private final int first;
+    private final int second;
+    private final Line.Intersection intersection;
+
+    public Result(int first, int second, Line.Intersection intersection) {
+      this.first = first;
+      this.second = second;
+      this.intersection = intersection;
+    }
+
+    /**
+     * Gets the index of the first segment.
+     */
+    public int getFirst() {
+      return first;
+    }
+
+    /**
+     * Gets the index of the second segment, which is greater than {@link #getFirst()}.
+     */
+    public int getSecond() {
+      return second;
+    }
+
+    /**
+     * Gets the segment parameters of the intersection point.
+     */
+    public Line.Intersection getIntersection() {
+      return intersection;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%d x %d: %s", first, second, intersection);
+    }
+  }
+
+  /**
+   * Finds all pairs of intersecting segments among {@code count} segments stored in {@code segments}.
+   *
+   * @return a new list of all intersections, in no particular order
+   * @throws IndexOutOfBoundsException if the array holds less than {@code count} segments
+   */
+  public static List<Result> intersectAll(float[] segments, int count) {
+    List<Result> results = new ArrayList<>();
+    intersectAll(segments, count, (first, second, intersection) ->
+            results.add(new Result(first, second, intersection)));
+    return results;
+  }
+
+  /**
+   * Finds all pairs of intersecting segments among {@code count} segments stored in {@code segments}
+   * and reports them to {@code listener}, in no particular order.
+   *
+   * @throws IndexOutOfBoundsException if the array holds less than {@code count} segments
+   */
+  public static void intersectAll(float[] segments, int count, Listener listener) {
+    Objects.checkFromIndexSize(0, 4 * count, segments.length);
+    new Sweep(segments, count, listener).run();
+  }
+
+  private static void intersect(int i, float px0, float py0, float px1, float py1,
+                                int j, float qx0, float qy0, float qx1, float qy1,
+                                Listener listener) {
+    // solve [d, -e] (λ1, λ2)ᵀ = q - p with Cramer's rule
+    var dx = px1 - px0;
+    var dy = py1 - py0;
+    var ex = qx1 - qx0;
+    var ey = qy1 - qy0;
+    var det = ey * -dx + ex * dy;
+    if (det == 0) {
+      return;
+    }
+    var bx = qx0 - px0;
+    var by = qy0 - py0;
+    var l1 = (ex * by - ey * bx) / det;
+    var l2 = (dx * by - dy * bx) / det;
+    if (l1 >= 0 && l1 <= 1 && l2 >= 0 && l2 <= 1) {
+      listener.onIntersection(i, j, new Line.Intersection(l1, l2));
+    }
+  }
+
+  /**
+   * Maps a float to an int, so that the signed int order equals the float order.
+   */
+  private static int sortableBits(float value) {
+    int bits = Float.floatToIntBits(value);
+    return bits ^ ((bits >> 31) & 0x7fffffff);
+  }
+
+  /**
+   * The state of one sweep over the segments.
+   * <p>
+   * The segments are oriented from their smaller to their larger end point in the order of x and then y.
+   * The sweep line passes an event point {@code p} as if slightly rotated, so it meets points above
+   * {@code p} with the same x later. Vertical segments therefore cut it from their lower end point on,
+   * above all other segments through that point.
+   */
+  private static final class Sweep {
+    private static final int NULL = -1;
+
+    private static final byte WAITING = 0;
+    private static final byte ACTIVE = 1;
+    private static final byte DONE = 2;
+
+    /**
+     * Relative tolerance for points lying on a segment and for the parameters of intersection points,
+     * well above the rounding errors of the computed intersection points.
+     */
+    private static final double EPSILON = 1e-9;
+
+    private final float[] segments;
+    private final int count;
+    private final Listener listener;
+
+    // the oriented segments from (ax, ay) to (bx, by)
+    private final double[] ax;
+    private final double[] ay;
+    private final double[] bx;
+    private final double[] by;
+    private final byte[] state;
+
+    /**
+     * The end point events in order, event {@code e} being the start of segment {@code e / 2}
+     * if {@code e} is even and its end if {@code e} is odd.
+     */
+    private final int[] endPoints;
+
+    // the heap of intersection events, at (heapX, heapY) for the segments heapS and heapT
+    private double[] heapX = new double[16];
+    private double[] heapY = new double[16];
+    private int[] heapS = new int[16];
+    private int[] heapT = new int[16];
+    private int heapSize;
+
+    // the treap of the segments cut by the sweep line, from bottom to top
+    private final int[] left;
+    private final int[] right;
+    private final int[] parent;
+    private final int[] size;
+    private final int[] priority;
+    private int root = NULL;
+    private int splitLeft;
+    private int splitRight;
+
+    // the segments starting at the event point, forced into the event and through the event point
+    private int[] starting = new int[8];
+    private int startingCount;
+    private int[] forced = new int[8];
+    private int forcedCount;
+    private int[] through = new int[8];
+    private int throughCount;
+
+    Sweep(float[] segments, int count, Listener listener) {
+      this.segments = segments;
+      this.count = count;
+      this.listener = listener;
+      ax = new double[count];
+      ay = new double[count];
+      bx = new double[count];
+      by = new double[count];
+      state = new byte[count];
+      left = new int[count];
+      right = new int[count];
+      parent = new int[count];
+      size = new int[count];
+      priority = new int[count];
+
+      // deterministic pseudo random priorities (xorshift)
+      int seed = 0x9e3779b9;
+      int events = 0;
+      for (int i = 0; i < count; i++) {
+        float x0 = segments[4 * i], y0 = segments[4 * i + 1];
+        float x1 = segments[4 * i + 2], y1 = segments[4 * i + 3];
+        var reversed = x1 < x0 || (x1 == x0 && y1 < y0);
+        ax[i] = reversed ? x1 : x0;
+        ay[i] = reversed ? y1 : y0;
+        bx[i] = reversed ? x0 : x1;
+        by[i] = reversed ? y0 : y1;
+        // points intersect nothing
+        state[i] = x0 == x1 && y0 == y1 ? DONE : WAITING;
+        events += state[i] == DONE ? 0 : 2;
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        priority[i] = seed;
+      }
+
+      // sort the end points by x, packing the sortable float bits and the event into a long,
+      // then the runs of equal x by y
+      var keys = new long[events];
+      int k = 0;
+      for (int e = 0; e < 2 * count; e++) {
+        if (state[e / 2] != DONE) {
+          keys[k++] = ((long) sortableBits((float) eventX(e)) << 32) | e;
+        }
+      }
+      Arrays.sort(keys);
+      for (int from = 0; from < events; ) {
+        int to = from + 1;
+        var x = eventX((int) keys[from]);
+        while (to < events && eventX((int) keys[to]) == x) {
+          to++;
+        }
+        if (to - from > 1) {
+          for (int i = from; i < to; i++) {
+            int e = (int) keys[i];
+            keys[i] = ((long) sortableBits((float) eventY(e)) << 32) | e;
+          }
+          Arrays.sort(keys, from, to);
+        }
+        from = to;
+      }
+      endPoints = new int[events];
+      for (int i = 0; i < events; i++) {
+        endPoints[i] = (int) keys[i];
+      }
+    }
+
+    private double eventX(int e) {
+      return (e & 1) == 0 ? ax[e / 2] : bx[e / 2];
+    }
+
+    private double eventY(int e) {
+      return (e & 1) == 0 ? ay[e / 2] : by[e / 2];
+    }
+
+    void run() {
+      int next = 0;
+      while (next < endPoints.length || heapSize > 0) {
+        double px, py;
+        if (heapSize == 0 || (next < endPoints.length
+                && !before(heapX[0], heapY[0], eventX(endPoints[next]), eventY(endPoints[next])))) {
+          px = eventX(endPoints[next]);
+          py = eventY(endPoints[next]);
+        } else {
+          px = heapX[0];
+          py = heapY[0];
+        }
+
+        startingCount = 0;
+        forcedCount = 0;
+        for (; next < endPoints.length && eventX(endPoints[next]) == px && eventY(endPoints[next]) == py; next++) {
+          int e = endPoints[next];
+          if ((e & 1) == 0) {
+            starting = add(starting, startingCount++, e / 2);
+          } else if (state[e / 2] == ACTIVE) {
+            // the segment must leave the sweep line here, even if rounding put it slightly aside
+            forced = add(forced, forcedCount++, e / 2);
+          }
+        }
+        while (heapSize > 0 && heapX[0] == px && heapY[0] == py) {
+          int s = heapS[0];
+          int t = heapT[0];
+          pop();
+          if (state[s] == ACTIVE && state[t] == ACTIVE) {
+            if (rank(s) > rank(t)) {
+              int swap = s;
+              s = t;
+              t = swap;
+            }
+            // not yet swapped by an earlier event at almost the same point
+            if (continuesBelow(t, s)) {
+              forced = add(forced, forcedCount++, s);
+              forced = add(forced, forcedCount++, t);
+            }
+          }
+        }
+        handle(px, py);
+      }
+    }
+
+    /**
+     * Handles the event point {@code p}, following de Berg et al.: reports the segments meeting at
+     * {@code p}, removes the segments ending there and reorders the segments continuing behind it.
+     */
+    private void handle(double px, double py) {
+      // the segments through p lie between the segments below and above p,
+      // widened to the segments forced into the event
+      int lo = countBelow(px, py);
+      int hi = Math.max(lo, countNotAbove(px, py));
+      for (int i = 0; i < forcedCount; i++) {
+        int r = rank(forced[i]);
+        lo = Math.min(lo, r);
+        hi = Math.max(hi, r + 1);
+      }
+      split(root, lo);
+      int below = splitLeft;
+      split(splitRight, hi - lo);
+      int middle = splitLeft;
+      int above = splitRight;
+      detach(below);
+      detach(above);
+      throughCount = 0;
+      collect(middle);
+
+      // pairs meeting at p, confirmed by the float test
+      for (int i = 0; i < throughCount; i++) {
+        int s = through[i];
+        for (int j = i + 1; j < throughCount; j++) {
+          // pairs still in the order they had in front of p cross at p
+          if (continuesBelow(through[j], s)) {
+            report(s, through[j]);
+          }
+        }
+        for (int j = 0; j < startingCount; j++) {
+          report(s, starting[j]);
+        }
+      }
+      for (int i = 0; i < startingCount; i++) {
+        for (int j = i + 1; j < startingCount; j++) {
+          report(starting[i], starting[j]);
+        }
+      }
+
+      // the segments continuing behind p, in the order they cut the sweep line behind p
+      int continuing = 0;
+      for (int i = 0; i < throughCount; i++) {
+        int s = through[i];
+        if (before(px, py, bx[s], by[s])) {
+          through[continuing++] = s;
+        } else {
+          state[s] = DONE;
+        }
+      }
+      for (int i = 0; i < startingCount; i++) {
+        int s = starting[i];
+        state[s] = ACTIVE;
+        through = add(through, continuing++, s);
+      }
+      for (int i = 1; i < continuing; i++) {
+        int s = through[i];
+        int j = i;
+        for (; j > 0 && continuesBelow(s, through[j - 1]); j--) {
+          through[j] = through[j - 1];
+        }
+        through[j] = s;
+      }
+
+      middle = NULL;
+      for (int i = 0; i < continuing; i++) {
+        int s = through[i];
+        left[s] = NULL;
+        right[s] = NULL;
+        update(s);
+        middle = merge(middle, s);
+      }
+      int lower = last(below);
+      int upper = first(above);
+      root = merge(merge(below, middle), above);
+      detach(root);
+
+      if (continuing == 0) {
+        schedule(lower, upper, px, py);
+      } else {
+        schedule(lower, through[0], px, py);
+        schedule(through[continuing - 1], upper, px, py);
+      }
+    }
+
+    private void report(int s, int t) {
+      int i = Math.min(s, t);
+      int j = Math.max(s, t);
+      intersect(i, segments[4 * i], segments[4 * i + 1], segments[4 * i + 2], segments[4 * i + 3],
+              j, segments[4 * j], segments[4 * j + 1], segments[4 * j + 2], segments[4 * j + 3], listener);
+    }
+
+    /**
+     * Schedules the intersection of the neighbours {@code s} below {@code t}, if they cross behind {@code p}.
+     */
+    private void schedule(int s, int t, double px, double py) {
+      if (s == NULL || t == NULL || !continuesBelow(t, s)) {
+        return;
+      }
+      var dsx = bx[s] - ax[s];
+      var dsy = by[s] - ay[s];
+      var dtx = bx[t] - ax[t];
+      var dty = by[t] - ay[t];
+      var denominator = dsx * dty - dsy * dtx;
+      if (denominator == 0) {
+        return;
+      }
+      var wx = ax[t] - ax[s];
+      var wy = ay[t] - ay[s];
+      var lambda = (wx * dty - wy * dtx) / denominator;
+      var mu = (wx * dsy - wy * dsx) / denominator;
+      if (lambda < -EPSILON || lambda > 1 + EPSILON || mu < -EPSILON || mu > 1 + EPSILON) {
+        return;
+      }
+      lambda = Math.max(0, Math.min(1, lambda));
+      var qx = ax[s] + lambda * dsx;
+      var qy = ay[s] + lambda * dsy;
+      if (before(px, py, qx, qy)) {
+        push(qx, qy, s, t);
+      }
+    }
+
+    /**
+     * Returns true if {@code s} cuts the sweep line below {@code t} behind a point both pass through,
+     * that is if the direction of {@code s} is clockwise from the direction of {@code t}.
+     * Collinear segments are ordered by index.
+     */
+    private boolean continuesBelow(int s, int t) {
+      var cross = (bx[s] - ax[s]) * (by[t] - ay[t]) - (by[s] - ay[s]) * (bx[t] - ax[t]);
+      return cross > 0 || (cross == 0 && s < t);
+    }
+
+    /**
+     * Returns true if {@code (x0, y0)} precedes {@code (x1, y1)} in the order of the sweep.
+     */
+    private static boolean before(double x0, double y0, double x1, double y1) {
+      return x0 < x1 || (x0 == x1 && y0 < y1);
+    }
+
+    /**
+     * Computes the orientation of {@code p} relative to the segment, positive if {@code p} lies above it.
+     * Points within the tolerance on the segment's line yield 0.
+     */
+    private int side(int s, double px, double py) {
+      var t1 = (bx[s] - ax[s]) * (py - ay[s]);
+      var t2 = (by[s] - ay[s]) * (px - ax[s]);
+      var orientation = t1 - t2;
+      var tolerance = EPSILON * (Math.abs(t1) + Math.abs(t2));
+      return orientation > tolerance ? 1 : orientation < -tolerance ? -1 : 0;
+    }
+
+    /**
+     * Counts the segments cutting the sweep line below {@code p}.
+     */
+    private int countBelow(double px, double py) {
+      int counted = 0;
+      for (int node = root; node != NULL; ) {
+        if (side(node, px, py) > 0) {
+          counted += sizeOf(left[node]) + 1;
+          node = right[node];
+        } else {
+          node = left[node];
+        }
+      }
+      return counted;
+    }
+
+    /**
+     * Counts the segments cutting the sweep line below or through {@code p}.
+     */
+    private int countNotAbove(double px, double py) {
+      int counted = 0;
+      for (int node = root; node != NULL; ) {
+        if (side(node, px, py) >= 0) {
+          counted += sizeOf(left[node]) + 1;
+          node = right[node];
+        } else {
+          node = left[node];
+        }
+      }
+      return counted;
+    }
+
+    // treap
+    // ===========================================================================
+
+    private int sizeOf(int node) {
+      return node == NULL ? 0 : size[node];
+    }
+
+    private void update(int node) {
+      size[node] = 1 + sizeOf(left[node]) + sizeOf(right[node]);
+      if (left[node] != NULL) {
+        parent[left[node]] = node;
+      }
+      if (right[node] != NULL) {
+        parent[right[node]] = node;
+      }
+    }
+
+    private void detach(int node) {
+      if (node != NULL) {
+        parent[node] = NULL;
+      }
+    }
+
+    /**
+     * Gets the position of the segment in the order of the sweep line.
+     */
+    private int rank(int node) {
+      int r = sizeOf(left[node]);
+      for (; parent[node] != NULL; node = parent[node]) {
+        if (right[parent[node]] == node) {
+          r += sizeOf(left[parent[node]]) + 1;
+        }
+      }
+      return r;
+    }
+
+    /**
+     * Splits the treap into its first {@code k} segments, {@link #splitLeft}, and the others, {@link #splitRight}.
+     */
+    private void split(int node, int k) {
+      if (node == NULL) {
+        splitLeft = NULL;
+        splitRight = NULL;
+      } else if (sizeOf(left[node]) < k) {
+        split(right[node], k - sizeOf(left[node]) - 1);
+        right[node] = splitLeft;
+        update(node);
+        splitLeft = node;
+      } else {
+        split(left[node], k);
+        left[node] = splitRight;
+        update(node);
+        splitRight = node;
+      }
+    }
+
+    private int merge(int a, int b) {
+      if (a == NULL) {
+        return b;
+      } else if (b == NULL) {
+        return a;
+      } else if (priority[a] > priority[b]) {
+        right[a] = merge(right[a], b);
+        update(a);
+        return a;
+      } else {
+        left[b] = merge(a, left[b]);
+        update(b);
+        return b;
+      }
+    }
+
+    private void collect(int node) {
+      if (node != NULL) {
+        collect(left[node]);
+        through = add(through, throughCount++, node);
+        collect(right[node]);
+      }
+    }
+
+    private int first(int node) {
+      if (node != NULL) {
+        while (left[node] != NULL) {
+          node = left[node];
+        }
+      }
+      return node;
+    }
+
+    private int last(int node) {
+      if (node != NULL) {
+        while (right[node] != NULL) {
+          node = right[node];
+        }
+      }
+      return node;
+    }
+
+    private static int[] add(int[] array, int index, int value) {
+      if (index == array.length) {
+        array = Arrays.copyOf(array, 2 * array.length);
+      }
+      array[index] = value;
+      return array;
+    }
+
+    // event heap
+    // ===========================================================================
+
+    private void push(double x, double y, int s, int t) {
+      if (heapSize == heapX.length) {
+        heapX = Arrays.copyOf(heapX, 2 * heapSize);
+        heapY = Arrays.copyOf(heapY, 2 * heapSize);
+        heapS = Arrays.copyOf(heapS, 2 * heapSize);
+        heapT = Arrays.copyOf(heapT, 2 * heapSize);
+      }
+      int i = heapSize++;
+      for (; i > 0; i = (i - 1) / 2) {
+        int up = (i - 1) / 2;
+        if (!before(x, y, heapX[up], heapY[up])) {
+          break;
+        }
+        move(up, i);
+      }
+      set(i, x, y, s, t);
+    }
+
+    private void pop() {
+      int lastIndex = --heapSize;
+      var x = heapX[lastIndex];
+      var y = heapY[lastIndex];
+      int i = 0;
+      while (2 * i + 1 < heapSize) {
+        int child = 2 * i + 1;
+        if (child + 1 < heapSize && before(heapX[child + 1], heapY[child + 1], heapX[child], heapY[child])) {
+          child++;
+        }
+        if (!before(heapX[child], heapY[child], x, y)) {
+          break;
+        }
+        move(child, i);
+        i = child;
+      }
+      set(i, x, y, heapS[lastIndex], heapT[lastIndex]);
+    }
+
+    private void move(int from, int to) {
+      set(to, heapX[from], heapY[from], heapS[from], heapT[from]);
+    }
+
+    private void set(int i, double x, double y, int s, int t) {
+      heapX[i] = x;
+      heapY[i] = y;
+      heapS[i] = s;
+      heapT[i] = t;
+    }
+  }
+}
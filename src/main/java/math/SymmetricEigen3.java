@@ -0,0 +1,173 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package math;
+
+import com.jme3.math.Matrix3f;
+
+/**
+ * A static utility class for the eigen decomposition of symmetric 3x3 matrices.
+ * <p>
+ * Uses the cyclic Jacobi method on primitives in double precision with a bounded number of sweeps,
+ * which converges quadratically and yields orthonormal eigenvectors even for repeated eigenvalues.
+ * Results are written into caller-supplied arrays, so a decomposition allocates nothing.
+ */
+public final class SymmetricEigen3 {
+  /**
+   * Upper bound for the number of sweeps over all off-diagonal elements,
+   * in practice 3x3 matrices converge after 4 to 6 sweeps.
+   */
+  private static final int MAX_SWEEPS = 16;
+
+  /**
+   * Relative precision at which off-diagonal elements are considered zero.
+   */
+  private static final double EPSILON = 1e-15;
+
+  private SymmetricEigen3() {
+  }
+
+  /**
+   * Computes the eigenvalues and eigenvectors of a symmetric 3x3 matrix, given by its upper triangle.
+   * <p>
+   * The eigenvalues are written to {@code values} in ascending order.
+   * The matching normalized eigenvectors are written to {@code vectors},
+   * the {@code k}-th eigenvector occupying the elements {@code 3k} to {@code 3k + 2}.
+   *
+   * @param values  an array of at least length 3 receiving the eigenvalues
+   * @param vectors an array of at least length 9 receiving the eigenvectors
+   */
+  public static void decompose(double a00, double a01, double a02,
+                               double a11, double a12,
+                               double a22,
+                               double[] values, double[] vectors) {
+    double[] d = values;
+    double[] v = vectors;
+    d[0] = a00;
+    d[1] = a11;
+    d[2] = a22;
+    v[0] = 1;
+    v[1] = 0;
+    v[2] = 0;
+    v[3] = 0;
+    v[4] = 1;
+    v[5] = 0;
+    v[6] = 0;
+    v[7] = 0;
+    v[8] = 1;
+
+    // off-diagonal elements, indexed by the row/column they do not touch
+    double o0 = a12;
+    double o1 = a02;
+    double o2 = a01;
+
+    for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+      var off = o0 * o0 + o1 * o1 + o2 * o2;
+      var diag = d[0] * d[0] + d[1] * d[1] + d[2] * d[2];
+      if (off <= EPSILON * EPSILON * diag || off == 0) {
+        break;
+      }
+
+      // rotate in the planes (0, 1), (0, 2) and (1, 2), r is the untouched index
+      for (int r = 2; r >= 0; r--) {
+        int p = r == 0 ? 1 : 0;
+        int q = r == 2 ? 1 : 2;
+        double apq;
+        double arp;
+        double arq;
+        switch (r) {
+          case 0:
+            apq = o0;
+            arp = o2;
+            arq = o1;
+            break;
+          case 1:
+            apq = o1;
+            arp = o2;
+            arq = o0;
+            break;
+          default:
+            apq = o2;
+            arp = o1;
+            arq = o0;
+            break;
+        }
+        if (apq == 0) {
+          continue;
+        }
+
+        // rotation annihilating apq, see Numerical Recipes, section 11.1
+        var theta = (d[q] - d[p]) / (2 * apq);
+        var t = (theta >= 0 ? 1 : -1) / (Math.abs(theta) + Math.sqrt(theta * theta + 1));
+        var c = 1 / Math.sqrt(t * t + 1);
+        var s = t * c;
+
+        d[p] -= t * apq;
+        d[q] += t * apq;
+        var newArp = c * arp - s * arq;
+        var newArq = s * arp + c * arq;
+        switch (r) {
+          case 0:
+            o0 = 0;
+            o2 = newArp;
+            o1 = newArq;
+            break;
+          case 1:
+            o1 = 0;
+            o2 = newArp;
+            o0 = newArq;
+            break;
+          default:
+            o2 = 0;
+            o1 = newArp;
+            o0 = newArq;
+            break;
+        }
+
+        for (int k = 0; k < 3; k++) {
+          var vkp = v[3 * p + k];
+          var vkq = v[3 * q + k];
+          v[3 * p + k] = c * vkp - s * vkq;
+          v[3 * q + k] = s * vkp + c * vkq;
+        }
+      }
+    }
+
+    // sort ascending
+    if (d[1] < d[0]) {
+      swap(d, v, 0, 1);
+    }
+    if (d[2] < d[1]) {
+      swap(d, v, 1, 2);
+      if (d[1] < d[0]) {
+        swap(d, v, 0, 1);
+      }
+    }
+  }
+
+  /**
+   * Computes the eigenvalues and eigenvectors of a symmetric 3x3 matrix,
+   * reading only its upper triangle.
+   *
+   * @see #decompose(double, double, double, double, double, double, double[], double[])
+   */
+  public static void decompose(Matrix3f m, double[] values, double[] vectors) {
+    decompose(m.get(0, 0), m.get(0, 1), m.get(0, 2),
+            m.get(1, 1), m.get(1, 2),
+            m.get(2, 2),
+            values, vectors);
+  }
+
+  private static void swap(double[] values, double[] vectors, int i, int j) {
+    var value = values[i];
+    values[i] = values[j];
+    values[j] = value;
+    for (int k = 0; k < 3; k++) {
+      var component = vectors[3 * i + k];
+      vectors[3 * i + k] = vectors[3 * j + k];
+      vectors[3 * j + k] = component;
+    }
+  }
+}
@@ -124,9 +124,17 @@ public final class Vectors {
      */
     public static boolean equals(Vector3f a, Vector3f b) {
         if (a == b) return true;
-        return MathHelper.equals(a.x, b.x) &&
-                MathHelper.equals(a.y, b.y) &&
-                MathHelper.equals(a.z, b.z);
+        return equals(a.x, a.y, a.z, b.x, b.y, b.z);
+    }
+
+    /**
+     * Checks whether the 3D vectors (ax, ay, az) and (bx, by, bz) are equal,
+     * with the same semantics as {@link #equals(Vector3f, Vector3f)}.
+     */
+    public static boolean equals(float ax, float ay, float az, float bx, float by, float bz) {
+        return MathHelper.equals(ax, bx) &&
+                MathHelper.equals(ay, by) &&
+                MathHelper.equals(az, bz);
     }
 
     public static Matrix3f dyadic(Vector3f u, Vector3f v) {
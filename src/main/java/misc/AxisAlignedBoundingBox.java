@@ -6,69 +6,334 @@
 package misc;
 
 import com.jme3.math.Vector3f;
+import shape3d.Hit;
+import shape3d.Intersector3D;
+import shape3d.Ray3D;
+import shape3d.Shape3D;
+import shape3d.Traceable;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Represents an axis-aligned bounding box in 3D space.
+ * <p>
+ * The corners are stored as six floats. A new box is empty, with its minimum at positive and its
+ * maximum at negative infinity, so that growing it by the first point makes it contain just that point.
+ * <p>
+ * The bounds of large point sets can be computed with {@link #ofParallel(float[], int, int)} and
+ * {@link #ofParallel(List)}, which split the points into chunks bounded independently on the common
+ * fork/join pool and merged with {@link #add(AxisAlignedBoundingBox)}.
  *
  * @author Philipp Jenke
  */
 
-public class AxisAlignedBoundingBox {
-  private static final int DIMENSION = 3;
+public class AxisAlignedBoundingBox implements Traceable {
+  /**
+   * Number of points below which {@link #ofParallel(float[], int, int)} stops splitting.
+   */
+  private static final int PARALLEL_THRESHOLD = 1 << 15;
 
   /**
    * Lower left corner.
    */
-  private Vector3f ll = null;
+  private float minX, minY, minZ;
 
   /**
    * Upper right corner
    */
-  private Vector3f ur = null;
+  private float maxX, maxY, maxZ;
 
   public AxisAlignedBoundingBox() {
+    clear();
+  }
+
+  /**
+   * Resets the box to the empty state.
+   */
+  public void clear() {
+    minX = minY = minZ = Float.POSITIVE_INFINITY;
+    maxX = maxY = maxZ = Float.NEGATIVE_INFINITY;
   }
 
+  /**
+   * Returns true if the box contains no point.
+   */
+  public boolean isEmpty() {
+    return minX > maxX;
+  }
+
+  /**
+   * Gets a new vector holding the lower left corner, or {@code null} if the box is empty.
+   */
   public Vector3f getLL() {
-    return ll;
+    return isEmpty() ? null : getLL(new Vector3f());
   }
 
+  /**
+   * Gets a new vector holding the upper right corner, or {@code null} if the box is empty.
+   */
   public Vector3f getUR() {
-    return ur;
+    return isEmpty() ? null : getUR(new Vector3f());
+  }
+
+  /**
+   * Gets the lower left corner, which is at positive infinity if the box is empty.
+   *
+   * @return the parameter {@code store}
+   */
+  public Vector3f getLL(Vector3f store) {
+    return store.set(minX, minY, minZ);
+  }
+
+  /**
+   * Gets the upper right corner, which is at negative infinity if the box is empty.
+   *
+   * @return the parameter {@code store}
+   */
+  public Vector3f getUR(Vector3f store) {
+    return store.set(maxX, maxY, maxZ);
+  }
+
+  public float getMinX() {
+    return minX;
+  }
+
+  public float getMinY() {
+    return minY;
+  }
+
+  public float getMinZ() {
+    return minZ;
+  }
+
+  public float getMaxX() {
+    return maxX;
+  }
+
+  public float getMaxY() {
+    return maxY;
+  }
+
+  public float getMaxZ() {
+    return maxZ;
   }
 
   public void add(Vector3f point) {
-    if (ll == null) {
-      ll = new Vector3f(point);
-    }
-    if (ur == null) {
-      ur = new Vector3f(point);
+    grow(point.x, point.y, point.z);
+  }
+
+  /**
+   * Grows the box to contain the point {@code (x, y, z)}.
+   */
+  public void grow(float x, float y, float z) {
+    minX = Math.min(minX, x);
+    minY = Math.min(minY, y);
+    minZ = Math.min(minZ, z);
+    maxX = Math.max(maxX, x);
+    maxY = Math.max(maxY, y);
+    maxZ = Math.max(maxZ, z);
+  }
+
+  /**
+   * Grows the box to contain {@code count} points, stored interleaved as {@code x0, y0, z0, x1, ...}
+   * in {@code xyz} starting at {@code offset}.
+   *
+   * @throws IndexOutOfBoundsException if the range exceeds the array
+   */
+  public void addAll(float[] xyz, int offset, int count) {
+    Objects.checkFromIndexSize(offset, 3 * count, xyz.length);
+    float x0 = minX, y0 = minY, z0 = minZ;
+    float x1 = maxX, y1 = maxY, z1 = maxZ;
+    for (int i = offset, end = offset + 3 * count; i < end; i += 3) {
+      var x = xyz[i];
+      var y = xyz[i + 1];
+      var z = xyz[i + 2];
+      x0 = Math.min(x0, x);
+      y0 = Math.min(y0, y);
+      z0 = Math.min(z0, z);
+      x1 = Math.max(x1, x);
+      y1 = Math.max(y1, y);
+      z1 = Math.max(z1, z);
     }
-    for (int i = 0; i < DIMENSION; i++) {
-      if (point.get(i) < ll.get(i)) {
-        ll.set(i, point.get(i));
-      }
-      if (point.get(i) > ur.get(i)) {
-        ur.set(i, point.get(i));
+    minX = x0;
+    minY = y0;
+    minZ = z0;
+    maxX = x1;
+    maxY = y1;
+    maxZ = z1;
+  }
+
+  /**
+   * Computes the bounds of {@code count} points, stored interleaved as {@code x0, y0, z0, x1, ...}
+   * in {@code xyz} starting at {@code offset}, splitting the work across the common fork/join pool.
+   *
+   * @return a new instance
+   * @throws IndexOutOfBoundsException if the range exceeds the array
+   */
+  public static AxisAlignedBoundingBox ofParallel(float[] xyz, int offset, int count) {
+    Objects.checkFromIndexSize(offset, 3 * count, xyz.length);
+    return ForkJoinPool.commonPool().invoke(new BoundsTask(xyz, null, offset, count));
+  }
+
+  /**
+   * Computes the bounds of a list of points, splitting the work across the common fork/join pool
+   * if the list supports fast random access.
+   *
+   * @return a new instance
+   */
+  public static AxisAlignedBoundingBox ofParallel(List<Vector3f> points) {
+    if (!(points instanceof RandomAccess)) {
+      var box = new AxisAlignedBoundingBox();
+      for (Vector3f point : points) {
+        box.grow(point.x, point.y, point.z);
       }
+      return box;
     }
+    return ForkJoinPool.commonPool().invoke(new BoundsTask(null, points, 0, points.size()));
   }
 
   public Vector3f getExtent() {
-    return ur.subtract(ll);
+    return getExtent(new Vector3f());
+  }
+
+  /**
+   * Gets the extent along each axis, which is zero if the box is empty.
+   *
+   * @return the parameter {@code store}
+   */
+  public Vector3f getExtent(Vector3f store) {
+    if (isEmpty()) {
+      return store.set(0, 0, 0);
+    }
+    return store.set(maxX - minX, maxY - minY, maxZ - minZ);
   }
 
   public Vector3f getCenter() {
-    return ll.add(ur).mult(0.5f);
+    return getCenter(new Vector3f());
+  }
+
+  /**
+   * Gets the center, which is the origin if the box is empty.
+   *
+   * @return the parameter {@code store}
+   */
+  public Vector3f getCenter(Vector3f store) {
+    if (isEmpty()) {
+      return store.set(0, 0, 0);
+    }
+    return store.set(0.5f * (minX + maxX), 0.5f * (minY + maxY), 0.5f * (minZ + maxZ));
+  }
+
+  /**
+   * Gets the surface area, which is zero if the box is empty.
+   */
+  public float getSurfaceArea() {
+    if (isEmpty()) {
+      return 0;
+    }
+    var dx = maxX - minX;
+    var dy = maxY - minY;
+    var dz = maxZ - minZ;
+    return 2 * (dx * dy + dy * dz + dz * dx);
+  }
+
+  @Override
+  public List<Shape3D> intersect(Shape3D other) {
+    return Intersector3D.intersectBoxWith(this, other);
+  }
+
+  @Override
+  public float intersectRayParameter(Ray3D ray) {
+    return Intersector3D.intersectRayParameter(ray, this);
+  }
+
+  @Override
+  public boolean intersect(Ray3D ray, Hit hitStore) {
+    return Intersector3D.intersect(ray, this, hitStore);
+  }
+
+  @Override
+  public boolean testSegment(float ax, float ay, float az, float bx, float by, float bz) {
+    return Intersector3D.testSegment(ax, ay, az, bx, by, bz, this);
+  }
+
+  @Override
+  public boolean computeBounds(float[] store, int offset) {
+    if (isEmpty()) {
+      return false;
+    }
+    store[offset] = minX;
+    store[offset + 1] = minY;
+    store[offset + 2] = minZ;
+    store[offset + 3] = maxX;
+    store[offset + 4] = maxY;
+    store[offset + 5] = maxZ;
+    return true;
   }
 
   @Override
   public String toString() {
-    return ll.toString() + " -> " + ur.toString();
+    if (isEmpty()) {
+      return "empty";
+    }
+    return "(" + minX + ", " + minY + ", " + minZ + ") -> (" + maxX + ", " + maxY + ", " + maxZ + ")";
   }
 
+  /**
+   * Grows the box to contain the given box, an empty box leaves it unchanged.
+   */
   public void add(AxisAlignedBoundingBox boundingBox) {
-    add(boundingBox.ll);
-    add(boundingBox.ur);
+    minX = Math.min(minX, boundingBox.minX);
+    minY = Math.min(minY, boundingBox.minY);
+    minZ = Math.min(minZ, boundingBox.minZ);
+    maxX = Math.max(maxX, boundingBox.maxX);
+    maxY = Math.max(maxY, boundingBox.maxY);
+    maxZ = Math.max(maxZ, boundingBox.maxZ);
+  }
+
+  /**
+   * Bounds a range of packed points or list elements, recursively split in halves.
+   */
+  private static class BoundsTask extends RecursiveTask<AxisAlignedBoundingBox> {
+    private static final long serialVersionUID = 1L;
+
+    private final float[] xyz;
+    private final List<Vector3f> points;
+    private final int offset;
+    private final int count;
+
+    BoundsTask(float[] xyz, List<Vector3f> points, int offset, int count) {
+      this.xyz = xyz;
+      this.points = points;
+      this.offset = offset;
+      this.count = count;
+    }
+
+    @Override
+    protected AxisAlignedBoundingBox compute() {
+      if (count <= PARALLEL_THRESHOLD) {
+        var box = new AxisAlignedBoundingBox();
+        if (xyz != null) {
+          box.addAll(xyz, offset, count);
+        } else {
+          for (int i = offset, end = offset + count; i < end; i++) {
+            var point = points.get(i);
+            box.grow(point.x, point.y, point.z);
+          }
+        }
+        return box;
+      }
+      int half = count / 2;
+      int stride = xyz != null ? 3 : 1;
+      var right = new BoundsTask(xyz, points, offset + stride * half, count - half);
+      right.fork();
+      var left = new BoundsTask(xyz, points, offset, half).compute();
+      left.add(right.join());
+      return left;
+    }
   }
 }
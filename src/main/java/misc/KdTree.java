@@ -0,0 +1,413 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package misc;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A static kd-tree over a set of 3D points, stored as packed coordinates.
+ * <p>
+ * The tree has an implicit layout without node objects: the points are reordered so that
+ * every range {@code [lo, hi)} has its splitting point at the median position {@code (lo + hi) / 2},
+ * the points left of it lying below, the points right of it above the splitting plane.
+ * The splitting axis is the axis of largest extent of the range.
+ * <p>
+ * Queries write the indices of the found points (relative to the array the tree was built from)
+ * into caller-supplied buffers and do not allocate, so a built tree can be queried concurrently.
+ * <p>
+ * Trees over at least {@value #PARALLEL_THRESHOLD} points are built on the common fork/join pool,
+ * the two halves of every range being independent once its median is selected.
+ */
+public class KdTree {
+  /**
+   * Number of points from which the tree is built in parallel.
+   */
+  static final int PARALLEL_THRESHOLD = 1 << 20;
+
+  /**
+   * Number of points below which a parallel build continues sequentially.
+   */
+  private static final int TASK_SIZE = 1 << 15;
+
+  /**
+   * The reordered points, packed as {@code x0, y0, z0, x1, ...}.
+   */
+  private final float[] points;
+
+  /**
+   * The original index of the point at each position.
+   */
+  private final int[] indices;
+
+  /**
+   * The splitting axis (0, 1 or 2) of the node at each position.
+   */
+  private final byte[] axes;
+
+  /**
+   * Builds a tree over {@code count} points, stored interleaved as {@code x0, y0, z0, x1, ...}
+   * in {@code xyz} starting at {@code offset}.
+   * The coordinates are copied, later changes to {@code xyz} do not affect the tree.
+   *
+   * @throws IndexOutOfBoundsException if the range exceeds the array
+   */
+  public KdTree(float[] xyz, int offset, int count) {
+    Objects.checkFromIndexSize(offset, 3 * count, xyz.length);
+    points = new float[3 * count];
+    indices = new int[count];
+    axes = new byte[count];
+
+    System.arraycopy(xyz, offset, points, 0, 3 * count);
+    for (int i = 0; i < count; i++) {
+      indices[i] = i;
+    }
+    if (count >= PARALLEL_THRESHOLD) {
+      ForkJoinPool.commonPool().invoke(new BuildTask(0, count));
+    } else {
+      build(0, count);
+    }
+  }
+
+  /**
+   * Gets the number of points in the tree.
+   */
+  public int size() {
+    return indices.length;
+  }
+
+  /**
+   * Finds the {@code k} points nearest to {@code (x, y, z)}.
+   * <p>
+   * The original indices of the found points are written to {@code result}
+   * and their squared distances to {@code distancesSq}, both ordered by ascending distance.
+   *
+   * @param k           the number of neighbours to find
+   * @param result      receives the indices, must have a length of at least {@code k}
+   * @param distancesSq receives the squared distances, must have a length of at least {@code k}
+   * @return the number of points found, that is the minimum of {@code k} and {@link #size()}
+   */
+  public int nearest(float x, float y, float z, int k, int[] result, float[] distancesSq) {
+    return nearest(x, y, z, k, Float.POSITIVE_INFINITY, result, distancesSq);
+  }
+
+  /**
+   * Finds the {@code k} points nearest to {@code (x, y, z)} within the distance {@code maxDistance},
+   * ignoring all points further away. Bounding the distance prunes the search from the start,
+   * which is much faster than an unbounded search if fewer than {@code k} points are near.
+   * <p>
+   * The original indices of the found points are written to {@code result}
+   * and their squared distances to {@code distancesSq}, both ordered by ascending distance.
+   *
+   * @param k           the number of neighbours to find
+   * @param result      receives the indices, must have a length of at least {@code k}
+   * @param distancesSq receives the squared distances, must have a length of at least {@code k}
+   * @return the number of points found, at most {@code k}
+   */
+  public int nearest(float x, float y, float z, int k, float maxDistance, int[] result, float[] distancesSq) {
+    if (k <= 0 || !(maxDistance >= 0)) {
+      return 0;
+    }
+    int found = nearest(0, indices.length, x, y, z, k, maxDistance * maxDistance, result, distancesSq, 0);
+    sortHeap(result, distancesSq, found);
+    return found;
+  }
+
+  /**
+   * Finds all points within the distance {@code radius} of {@code (x, y, z)}, in no particular order.
+   * <p>
+   * The original indices of the found points are written to {@code result} and, if it is not
+   * {@code null}, their squared distances to {@code distancesSq}. If more points are found than
+   * {@code result} can hold, only the first ones are written, but all are counted, so the query
+   * can be repeated with a buffer of the returned size.
+   *
+   * @param result      receives the indices
+   * @param distancesSq receives the squared distances, must be at least as long as {@code result},
+   *                    may be {@code null}
+   * @return the number of points within the radius, which may exceed the length of {@code result}
+   */
+  public int withinRadius(float x, float y, float z, float radius, int[] result, float[] distancesSq) {
+    if (!(radius >= 0)) {
+      return 0;
+    }
+    if (distancesSq != null && distancesSq.length < result.length) {
+      throw new IllegalArgumentException("distancesSq is shorter than result");
+    }
+    return withinRadius(0, indices.length, x, y, z, radius * radius, result, distancesSq, 0);
+  }
+
+  // construction
+  // ===========================================================================
+
+  private void build(int lo, int hi) {
+    while (hi - lo > 1) {
+      int axis = widestAxis(lo, hi);
+      int mid = (lo + hi) >>> 1;
+      select(lo, hi, mid, axis);
+      axes[mid] = (byte) axis;
+      // recurse into the smaller half, loop on the larger one
+      if (mid - lo < hi - mid - 1) {
+        build(lo, mid);
+        lo = mid + 1;
+      } else {
+        build(mid + 1, hi);
+        hi = mid;
+      }
+    }
+  }
+
+  /**
+   * Selects the median of a range, then builds both halves as independent tasks.
+   */
+  private class BuildTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final int lo;
+    private final int hi;
+
+    BuildTask(int lo, int hi) {
+      this.lo = lo;
+      this.hi = hi;
+    }
+
+    @Override
+    protected void compute() {
+      if (hi - lo <= TASK_SIZE) {
+        build(lo, hi);
+        return;
+      }
+      int axis = widestAxis(lo, hi);
+      int mid = (lo + hi) >>> 1;
+      select(lo, hi, mid, axis);
+      axes[mid] = (byte) axis;
+      invokeAll(new BuildTask(lo, mid), new BuildTask(mid + 1, hi));
+    }
+  }
+
+  private int widestAxis(int lo, int hi) {
+    float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+    float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+    for (int i = lo; i < hi; i++) {
+      var x = points[3 * i];
+      var y = points[3 * i + 1];
+      var z = points[3 * i + 2];
+      minX = Math.min(minX, x);
+      maxX = Math.max(maxX, x);
+      minY = Math.min(minY, y);
+      maxY = Math.max(maxY, y);
+      minZ = Math.min(minZ, z);
+      maxZ = Math.max(maxZ, z);
+    }
+    var dx = maxX - minX;
+    var dy = maxY - minY;
+    var dz = maxZ - minZ;
+    if (dx >= dy && dx >= dz) {
+      return 0;
+    }
+    return dy >= dz ? 1 : 2;
+  }
+
+  /**
+   * Partially sorts the range {@code [lo, hi)} along {@code axis} (quickselect),
+   * so that the point at {@code n} is at its sorted position.
+   */
+  private void select(int lo, int hi, int n, int axis) {
+    int left = lo;
+    int right = hi - 1;
+    while (right > left) {
+      // median of three as pivot
+      int m = (left + right) >>> 1;
+      if (coordinate(m, axis) < coordinate(left, axis)) swap(m, left);
+      if (coordinate(right, axis) < coordinate(left, axis)) swap(right, left);
+      if (coordinate(right, axis) < coordinate(m, axis)) swap(right, m);
+      var pivot = coordinate(m, axis);
+
+      int i = left;
+      int j = right;
+      while (i <= j) {
+        while (coordinate(i, axis) < pivot) i++;
+        while (coordinate(j, axis) > pivot) j--;
+        if (i <= j) {
+          swap(i, j);
+          i++;
+          j--;
+        }
+      }
+      if (n <= j) {
+        right = j;
+      } else if (n >= i) {
+        left = i;
+      } else {
+        return;
+      }
+    }
+  }
+
+  private float coordinate(int position, int axis) {
+    return points[3 * position + axis];
+  }
+
+  private void swap(int a, int b) {
+    for (int i = 0; i < 3; i++) {
+      var coordinate = points[3 * a + i];
+      points[3 * a + i] = points[3 * b + i];
+      points[3 * b + i] = coordinate;
+    }
+    var index = indices[a];
+    indices[a] = indices[b];
+    indices[b] = index;
+  }
+
+  // k nearest neighbours
+  // ===========================================================================
+
+  /**
+   * Collects the nearest points of the range {@code [lo, hi)} within the squared distance {@code maxDistSq}
+   * into the bounded max-heap {@code (heap, heapDistSq)} holding {@code count} elements.
+   *
+   * @return the new number of elements in the heap
+   */
+  private int nearest(int lo, int hi, float x, float y, float z, int k, float maxDistSq,
+                      int[] heap, float[] heapDistSq, int count) {
+    if (lo >= hi) {
+      return count;
+    }
+    int mid = (lo + hi) >>> 1;
+    var dx = x - points[3 * mid];
+    var dy = y - points[3 * mid + 1];
+    var dz = z - points[3 * mid + 2];
+    var distSq = dx * dx + dy * dy + dz * dz;
+    if (distSq <= maxDistSq) {
+      count = offer(indices[mid], distSq, k, heap, heapDistSq, count);
+    }
+
+    var axis = axes[mid];
+    var diff = axis == 0 ? dx : axis == 1 ? dy : dz;
+    if (diff < 0) {
+      count = nearest(lo, mid, x, y, z, k, maxDistSq, heap, heapDistSq, count);
+      if (count < k ? diff * diff <= maxDistSq : diff * diff < heapDistSq[0]) {
+        count = nearest(mid + 1, hi, x, y, z, k, maxDistSq, heap, heapDistSq, count);
+      }
+    } else {
+      count = nearest(mid + 1, hi, x, y, z, k, maxDistSq, heap, heapDistSq, count);
+      if (count < k ? diff * diff <= maxDistSq : diff * diff < heapDistSq[0]) {
+        count = nearest(lo, mid, x, y, z, k, maxDistSq, heap, heapDistSq, count);
+      }
+    }
+    return count;
+  }
+
+  // radius search
+  // ===========================================================================
+
+  /**
+   * Collects the points of the range {@code [lo, hi)} within the squared distance {@code radiusSq},
+   * given that {@code count} points were found before.
+   *
+   * @return the new number of points found
+   */
+  private int withinRadius(int lo, int hi, float x, float y, float z, float radiusSq,
+                           int[] result, float[] distancesSq, int count) {
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      var dx = x - points[3 * mid];
+      var dy = y - points[3 * mid + 1];
+      var dz = z - points[3 * mid + 2];
+      var distSq = dx * dx + dy * dy + dz * dz;
+      if (distSq <= radiusSq) {
+        if (count < result.length) {
+          result[count] = indices[mid];
+          if (distancesSq != null) {
+            distancesSq[count] = distSq;
+          }
+        }
+        count++;
+      }
+
+      var axis = axes[mid];
+      var diff = axis == 0 ? dx : axis == 1 ? dy : dz;
+      // descend into the near half, and into the far half only if the sphere crosses the plane
+      if (diff * diff <= radiusSq) {
+        count = withinRadius(lo, mid, x, y, z, radiusSq, result, distancesSq, count);
+        lo = mid + 1;
+      } else if (diff < 0) {
+        hi = mid;
+      } else {
+        lo = mid + 1;
+      }
+    }
+    return count;
+  }
+
+  // priority queue
+  // ===========================================================================
+
+  /**
+   * Offers a candidate to a bounded max-heap of capacity {@code k}, keyed by the squared distance.
+   *
+   * @return the new number of elements in the heap
+   */
+  static int offer(int index, float distSq, int k, int[] heap, float[] heapDistSq, int count) {
+    if (count < k) {
+      // sift up
+      int i = count;
+      while (i > 0) {
+        int parent = (i - 1) >>> 1;
+        if (heapDistSq[parent] >= distSq) {
+          break;
+        }
+        heap[i] = heap[parent];
+        heapDistSq[i] = heapDistSq[parent];
+        i = parent;
+      }
+      heap[i] = index;
+      heapDistSq[i] = distSq;
+      return count + 1;
+    }
+    if (distSq < heapDistSq[0]) {
+      siftDown(index, distSq, heap, heapDistSq, count);
+    }
+    return count;
+  }
+
+  /**
+   * Replaces the root of the max-heap with the given element and restores the heap property.
+   */
+  private static void siftDown(int index, float distSq, int[] heap, float[] heapDistSq, int count) {
+    int i = 0;
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= count) {
+        break;
+      }
+      if (child + 1 < count && heapDistSq[child + 1] > heapDistSq[child]) {
+        child++;
+      }
+      if (heapDistSq[child] <= distSq) {
+        break;
+      }
+      heap[i] = heap[child];
+      heapDistSq[i] = heapDistSq[child];
+      i = child;
+    }
+    heap[i] = index;
+    heapDistSq[i] = distSq;
+  }
+
+  /**
+   * Sorts a max-heap in place into ascending order (heap sort).
+   */
+  static void sortHeap(int[] heap, float[] heapDistSq, int count) {
+    for (int last = count - 1; last > 0; last--) {
+      var index = heap[last];
+      var distSq = heapDistSq[last];
+      heap[last] = heap[0];
+      heapDistSq[last] = heapDistSq[0];
+      siftDown(index, distSq, heap, heapDistSq, last);
+    }
+  }
+}
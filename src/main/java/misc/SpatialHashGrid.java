@@ -0,0 +1,307 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package misc;
+
+import math.MathF;
+import math.MathHelper;
+import math.Vectors;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A uniform grid over a set of 2D or 3D points, stored as packed coordinates, for neighbourhood queries
+ * on points of roughly uniform density, like particles.
+ * <p>
+ * Space is divided into cubic cells of a fixed size, which are hashed into a table of about twice as many
+ * buckets as there are points. {@link #rebuild(float[], int, int)} sorts the point indices by bucket with
+ * a counting sort in linear time, reusing its arrays, so the grid can be rebuilt every frame without
+ * allocating once its capacity suffices. Queries visit the cells overlapping the query sphere and skip
+ * points of other cells sharing a bucket, so no point is reported twice. Queries overlapping more cells
+ * than there are buckets, like those with a huge radius, test all points directly instead.
+ * <p>
+ * Cells are indexed by longs, clamped to {@code ±2^62}, so any finite or infinite coordinates work.
+ * Points beyond the clamped range share the outermost cells and are only found slower.
+ * <p>
+ * 2D points are stored as {@code x0, y0, x1, ...} and 3D points as {@code x0, y0, z0, x1, ...}.
+ * The grid references the coordinate array without copying it, the array must not change until the
+ * next rebuild. Neighbours are reported by their index, relative to the first point, and their squared
+ * distance to listeners working on primitives, so queries do not box or allocate.
+ */
+public class SpatialHashGrid {
+  /**
+   * Receives the points found by a query.
+   */
+  @FunctionalInterface
+  public interface NeighbourListener {
+    /**
+     * Called once for each point found.
+     *
+     * @param index      the index of the point
+     * @param distanceSq the squared distance of the point to the query position
+     */
+    void onNeighbour(int index, float distanceSq);
+  }
+
+  /**
+   * Receives the pairs found by {@link #forEachPair(float, PairListener)}.
+   */
+  @FunctionalInterface
+  public interface PairListener {
+    /**
+     * Called once for each pair of points within the query radius.
+     *
+     * @param first      the index of the first point
+     * @param second     the index of the second point, always greater than {@code first}
+     * @param distanceSq the squared distance of the points
+     */
+    void onPair(int first, int second, float distanceSq);
+  }
+
+  private final int dimensions;
+  private final float cellSize;
+  private final float invCellSize;
+
+  private float[] coordinates;
+  private int offset;
+  private int count;
+
+  /**
+   * The start of each bucket in {@link #sorted}, the bucket {@code b} ending at {@code bucketStart[b + 1]}.
+   */
+  private int[] bucketStart = new int[0];
+
+  /**
+   * The bucket of each point.
+   */
+  private int[] buckets = new int[0];
+
+  /**
+   * The point indices ordered by bucket.
+   */
+  private int[] sorted = new int[0];
+
+  private int mask;
+
+  /**
+   * The bound of the cell indices, leaving room to step beyond the outermost cells without overflowing.
+   */
+  private static final long CELL_LIMIT = 1L << 62;
+
+  /**
+   * Creates an empty grid.
+   *
+   * @param dimensions the number of coordinates per point, 2 or 3
+   * @param cellSize   the edge length of the cells, ideally about the radius of the typical query
+   */
+  public SpatialHashGrid(int dimensions, float cellSize) {
+    checkArgument(dimensions == 2 || dimensions == 3, "dimensions must be 2 or 3");
+    checkArgument(cellSize > 0 && Float.isFinite(cellSize), "cell size must be positive");
+    this.dimensions = dimensions;
+    this.cellSize = cellSize;
+    this.invCellSize = 1 / cellSize;
+  }
+
+  public int getDimensions() {
+    return dimensions;
+  }
+
+  public float getCellSize() {
+    return cellSize;
+  }
+
+  /**
+   * Gets the number of points in the grid.
+   */
+  public int size() {
+    return count;
+  }
+
+  /**
+   * Rebuilds the grid over {@code count} points stored in {@code coordinates} starting at {@code offset}.
+   *
+   * @throws IndexOutOfBoundsException if the range exceeds the array
+   */
+  public void rebuild(float[] coordinates, int offset, int count) {
+    Objects.checkFromIndexSize(offset, dimensions * count, coordinates.length);
+    this.coordinates = coordinates;
+    this.offset = offset;
+    this.count = count;
+
+    int tableSize = Integer.highestOneBit(Math.max(1, 2 * count - 1)) << 1;
+    mask = tableSize - 1;
+    if (bucketStart.length < tableSize + 1) {
+      bucketStart = new int[tableSize + 1];
+    }
+    if (sorted.length < count) {
+      sorted = new int[count];
+      buckets = new int[count];
+    }
+
+    // count the points per bucket, then turn the counts into bucket ends
+    Arrays.fill(bucketStart, 0, tableSize + 1, 0);
+    for (int i = 0; i < count; i++) {
+      int o = offset + dimensions * i;
+      int bucket = bucket(cell(coordinates[o]), cell(coordinates[o + 1]),
+              dimensions == 3 ? cell(coordinates[o + 2]) : 0);
+      buckets[i] = bucket;
+      bucketStart[bucket]++;
+    }
+    int end = 0;
+    for (int b = 0; b < tableSize; b++) {
+      end += bucketStart[b];
+      bucketStart[b] = end;
+    }
+    bucketStart[tableSize] = count;
+
+    // fill the buckets from their ends, leaving each bucket start behind and the indices ascending
+    for (int i = count - 1; i >= 0; i--) {
+      sorted[--bucketStart[buckets[i]]] = i;
+    }
+  }
+
+  // queries
+  // ===========================================================================
+
+  /**
+   * Finds all points within the distance {@code radius} of the 3D position {@code (x, y, z)},
+   * in no particular order.
+   *
+   * @return the number of points found
+   */
+  public int forEachNeighbour(float x, float y, float z, float radius, NeighbourListener listener) {
+    checkArgument(dimensions == 3, "not a 3D grid");
+    return query(x, y, z, radius, false, -1, listener, null);
+  }
+
+  /**
+   * Finds all points within the distance {@code radius} of the 2D position {@code (x, y)},
+   * in no particular order.
+   *
+   * @return the number of points found
+   */
+  public int forEachNeighbour(float x, float y, float radius, NeighbourListener listener) {
+    checkArgument(dimensions == 2, "not a 2D grid");
+    return query(x, y, 0, radius, false, -1, listener, null);
+  }
+
+  /**
+   * Finds all points equal to the 3D position {@code (x, y, z)} in the sense of
+   * {@link Vectors#equals(float, float, float, float, float, float)}, that is points whose coordinates
+   * all differ by less than {@link MathHelper#TOLERANCE}. For a 2D grid, {@code z} is ignored.
+   *
+   * @return the number of points found
+   */
+  public int forEachEqual(float x, float y, float z, NeighbourListener listener) {
+    return query(x, y, dimensions == 3 ? z : 0, MathHelper.TOLERANCE, true, -1, listener, null);
+  }
+
+  /**
+   * Finds all pairs of points within the distance {@code radius} of each other,
+   * each pair reported once and in no particular order.
+   *
+   * @return the number of pairs found
+   */
+  public int forEachPair(float radius, PairListener listener) {
+    int found = 0;
+    for (int i = 0; i < count; i++) {
+      int o = offset + dimensions * i;
+      found += query(coordinates[o], coordinates[o + 1], dimensions == 3 ? coordinates[o + 2] : 0,
+              radius, false, i, null, listener);
+    }
+    return found;
+  }
+
+  /**
+   * Reports the points within a sphere, or equal to its center if {@code equal} is set, either to a
+   * {@link NeighbourListener}, or for pair enumeration as pairs with a greater {@code self} to a
+   * {@link PairListener}.
+   */
+  private int query(float x, float y, float z, float radius, boolean equal, int self,
+                    NeighbourListener neighbourListener, PairListener pairListener) {
+    if (count == 0 || !(radius >= 0)) {
+      return 0;
+    }
+    var radiusSq = radius * radius;
+    long minX = cell(x - radius), maxX = cell(x + radius);
+    long minY = cell(y - radius), maxY = cell(y + radius);
+    long minZ = 0, maxZ = 0;
+    if (dimensions == 3) {
+      minZ = cell(z - radius);
+      maxZ = cell(z + radius);
+    }
+
+    int found = 0;
+    var cells = ((double) maxX - minX + 1) * ((double) maxY - minY + 1) * ((double) maxZ - minZ + 1);
+    if (cells > mask + 1) {
+      // visiting every bucket at least once, so test the points directly
+      for (int i = self + 1; i < count; i++) {
+        found += report(i, x, y, z, radiusSq, equal, self, neighbourListener, pairListener);
+      }
+      return found;
+    }
+
+    for (long cz = minZ; cz <= maxZ; cz++) {
+      for (long cy = minY; cy <= maxY; cy++) {
+        for (long cx = minX; cx <= maxX; cx++) {
+          int bucket = bucket(cx, cy, cz);
+          for (int s = bucketStart[bucket], end = bucketStart[bucket + 1]; s < end; s++) {
+            int i = sorted[s];
+            if (i <= self) {
+              continue;
+            }
+            // skip points of other cells hashed into the same bucket
+            int o = offset + dimensions * i;
+            if (cell(coordinates[o]) != cx || cell(coordinates[o + 1]) != cy
+                    || (dimensions == 3 && cell(coordinates[o + 2]) != cz)) {
+              continue;
+            }
+            found += report(i, x, y, z, radiusSq, equal, self, neighbourListener, pairListener);
+          }
+        }
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Reports the point {@code i} if it lies within the query sphere, or is equal to its center.
+   *
+   * @return 1 if the point is reported, else 0
+   */
+  private int report(int i, float x, float y, float z, float radiusSq, boolean equal, int self,
+                     NeighbourListener neighbourListener, PairListener pairListener) {
+    int o = offset + dimensions * i;
+    var px = coordinates[o];
+    var py = coordinates[o + 1];
+    var pz = dimensions == 3 ? coordinates[o + 2] : z;
+    var dx = px - x;
+    var dy = py - y;
+    var dz = pz - z;
+    var distanceSq = dx * dx + dy * dy + dz * dz;
+    if (equal ? !Vectors.equals(x, y, z, px, py, pz) : !(distanceSq <= radiusSq)) {
+      return 0;
+    }
+    if (pairListener != null) {
+      pairListener.onPair(self, i, distanceSq);
+    } else {
+      neighbourListener.onNeighbour(i, distanceSq);
+    }
+    return 1;
+  }
+
+  private long cell(float coordinate) {
+    var cell = (long) MathF.floor(coordinate * invCellSize);
+    return Math.max(-CELL_LIMIT, Math.min(CELL_LIMIT, cell));
+  }
+
+  private int bucket(long cx, long cy, long cz) {
+    var hash = (cx * 73856093) ^ (cy * 19349663) ^ (cz * 83492791);
+    return (int) (hash ^ (hash >>> 32)) & mask;
+  }
+}
@@ -0,0 +1,96 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package misc;
+
+import math.MathHelper;
+import math.Vectors;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Merges vertices that are equal within {@link MathHelper#TOLERANCE}, as used to clean up generated meshes.
+ * <p>
+ * Two vertices are equal in the sense of {@link Vectors#equals(float, float, float, float, float, float)},
+ * that is if all their coordinates differ by less than the tolerance. As this relation is not transitive,
+ * neither sorting with {@link Vectors#compare} nor merging equal vertices pairwise yields a consistent
+ * result. Vertices are therefore merged greedily in index order: each vertex is merged into the first
+ * preceding vertex it is equal to that was kept, or kept itself. The kept vertices are pairwise unequal.
+ * <p>
+ * The candidates are found with a {@link SpatialHashGrid} whose cells are twice the tolerance wide,
+ * so each kept vertex only checks the vertices of at most eight cells, and welding takes linear time.
+ * This holds for coordinates below about {@code 9e13} in magnitude, where the grid clamps its cell
+ * indices. Vertices beyond share the outermost cells, they are still welded correctly, but slower.
+ */
+public final class VertexWelder {
+  private VertexWelder() {
+  }
+
+  /**
+   * Welds {@code count} vertices, stored interleaved as {@code x0, y0, z0, x1, ...} in {@code xyz}
+   * starting at {@code offset}.
+   *
+   * @return a new array mapping each vertex to the index of the vertex it is merged into,
+   * with the kept vertices numbered consecutively in order of their first occurrence
+   * @throws IndexOutOfBoundsException if the range exceeds the array
+   */
+  public static int[] weld(float[] xyz, int offset, int count) {
+    Objects.checkFromIndexSize(offset, 3 * count, xyz.length);
+    var grid = new SpatialHashGrid(3, 2 * MathHelper.TOLERANCE);
+    grid.rebuild(xyz, offset, count);
+
+    var remap = new int[count];
+    Arrays.fill(remap, -1);
+    var next = new int[1];
+    SpatialHashGrid.NeighbourListener merge = (index, distanceSq) -> {
+      if (remap[index] < 0) {
+        remap[index] = next[0];
+      }
+    };
+    for (int i = 0; i < count; i++) {
+      if (remap[i] >= 0) {
+        continue;
+      }
+      // a vertex kept, claiming all later vertices equal to it
+      remap[i] = next[0];
+      int o = offset + 3 * i;
+      grid.forEachEqual(xyz[o], xyz[o + 1], xyz[o + 2], merge);
+      next[0]++;
+    }
+    return remap;
+  }
+
+  /**
+   * Gets the number of vertices kept by a remap array returned by {@link #weld(float[], int, int)}.
+   */
+  public static int getWeldedCount(int[] remap) {
+    int count = 0;
+    for (int target : remap) {
+      count = Math.max(count, target + 1);
+    }
+    return count;
+  }
+
+  /**
+   * Collects the coordinates of the vertices kept by a remap array returned by
+   * {@link #weld(float[], int, int)} for the same vertices.
+   *
+   * @return a new array of the packed coordinates of the kept vertices, in the order of their new indices
+   * @throws IndexOutOfBoundsException if the range exceeds the array
+   */
+  public static float[] compact(float[] xyz, int offset, int[] remap) {
+    Objects.checkFromIndexSize(offset, 3 * remap.length, xyz.length);
+    var welded = new float[3 * getWeldedCount(remap)];
+    int next = 0;
+    for (int i = 0; i < remap.length; i++) {
+      if (remap[i] == next) {
+        System.arraycopy(xyz, offset + 3 * i, welded, 3 * next, 3);
+        next++;
+      }
+    }
+    return welded;
+  }
+}
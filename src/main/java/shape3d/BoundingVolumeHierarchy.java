@@ -0,0 +1,576 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package shape3d;
+
+import misc.AxisAlignedBoundingBox;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A static bounding volume hierarchy over a collection of 3D shapes, accelerating ray queries.
+ * <p>
+ * The hierarchy is built top-down with the surface area heuristic (SAH), evaluating
+ * {@value #BIN_COUNT} bins along each axis, and flattened into primitive arrays in depth-first
+ * order: the left child of an interior node directly follows it, and each node stores its axis-aligned
+ * bounding box as six floats, as computed by {@link Shape3D#computeBounds(float[], int)}. Shapes without
+ * finite bounds, like planes, are kept aside and tested against every ray.
+ * <p>
+ * Hits are computed with {@link Intersector3D#intersectRayParameter(Ray3D, Shape3D)} and reported by
+ * the index of the shape in the list the hierarchy was built from, together with the ray parameter.
+ * Queries keep their state local to the calling thread, so a built hierarchy can be queried concurrently.
+ */
+public class BoundingVolumeHierarchy {
+  /**
+   * Number of bins per axis evaluated by the SAH.
+   */
+  private static final int BIN_COUNT = 12;
+
+  /**
+   * Cost of traversing a node, relative to the cost of intersecting a shape.
+   */
+  private static final float TRAVERSAL_COST = 1;
+
+  /**
+   * Number of shapes up to which a leaf is created if the SAH does not favour a split.
+   */
+  private static final int MAX_LEAF_SIZE = 4;
+
+  /**
+   * Depth below which nodes are split at their median instead of by the SAH,
+   * keeping the depth of the hierarchy below {@value #STACK_SIZE}.
+   */
+  private static final int MAX_SAH_DEPTH = 32;
+
+  /**
+   * Size of the traversal stack.
+   */
+  private static final int STACK_SIZE = 64;
+
+  /**
+   * The traversal stack of each thread, taken while a query runs,
+   * so a query started from a {@link HitListener} gets a stack of its own.
+   */
+  private static final ThreadLocal<int[]> STACKS = new ThreadLocal<>();
+
+  private static final int NEAREST = 0;
+  private static final int ANY = 1;
+  private static final int ALL = 2;
+
+  /**
+   * Receives the hits of {@link #intersectAll(Ray3D, float, HitListener)}.
+   */
+  @FunctionalInterface
+  public interface HitListener {
+    /**
+     * Called once for each shape hit by the ray.
+     *
+     * @param index  the index of the shape
+     * @param lambda the ray parameter of the hit
+     */
+    void onHit(int index, float lambda);
+  }
+
+  private final List<Shape3D> shapes;
+
+  /**
+   * Node bounds, packed as {@code minX, minY, minZ, maxX, maxY, maxZ} per node.
+   */
+  private final float[] nodeBounds;
+
+  /**
+   * For leaves, the position of the first shape in {@link #primitives},
+   * for interior nodes the index of the right child.
+   */
+  private final int[] nodeOffsets;
+
+  /**
+   * For leaves, the number of shapes, for interior nodes {@code -1 - axis} of the split.
+   */
+  private final int[] nodeCounts;
+
+  private int nodeCount;
+
+  /**
+   * Indices of the bounded shapes, ordered by leaf.
+   */
+  private final int[] primitives;
+
+  /**
+   * Indices of the shapes without finite bounds.
+   */
+  private final int[] unbounded;
+
+  /**
+   * Builds a hierarchy over the given shapes. The list is copied,
+   * but the shapes must not change while the hierarchy is in use.
+   */
+  public BoundingVolumeHierarchy(List<? extends Shape3D> shapes) {
+    this.shapes = new ArrayList<>(shapes);
+    int n = shapes.size();
+
+    // bounds and centroids of all bounded shapes
+    var bounds = new float[6 * n];
+    var centroids = new float[3 * n];
+    var bounded = new int[n];
+    var unboundedShapes = new int[n];
+    int boundedCount = 0;
+    int unboundedCount = 0;
+    for (int i = 0; i < n; i++) {
+      if (this.shapes.get(i).computeBounds(bounds, 6 * i)) {
+        for (int axis = 0; axis < 3; axis++) {
+          centroids[3 * i + axis] = 0.5f * (bounds[6 * i + axis] + bounds[6 * i + 3 + axis]);
+        }
+        bounded[boundedCount++] = i;
+      } else {
+        unboundedShapes[unboundedCount++] = i;
+      }
+    }
+
+    primitives = Arrays.copyOf(bounded, boundedCount);
+    unbounded = Arrays.copyOf(unboundedShapes, unboundedCount);
+    int capacity = Math.max(1, 2 * boundedCount - 1);
+    nodeBounds = new float[6 * capacity];
+    nodeOffsets = new int[capacity];
+    nodeCounts = new int[capacity];
+    if (boundedCount > 0) {
+      build(0, boundedCount, 0, bounds, centroids);
+    }
+  }
+
+  /**
+   * Gets the number of shapes in the hierarchy.
+   */
+  public int size() {
+    return shapes.size();
+  }
+
+  /**
+   * Gets the shape with the given index.
+   */
+  public Shape3D getShape(int index) {
+    return shapes.get(index);
+  }
+
+  /**
+   * Gets the number of nodes of the hierarchy.
+   */
+  public int getNodeCount() {
+    return nodeCount;
+  }
+
+  /**
+   * Gets a new box bounding all shapes with finite bounds, which is empty if there are none.
+   */
+  public AxisAlignedBoundingBox getBounds() {
+    var box = new AxisAlignedBoundingBox();
+    if (nodeCount > 0) {
+      box.grow(nodeBounds[0], nodeBounds[1], nodeBounds[2]);
+      box.grow(nodeBounds[3], nodeBounds[4], nodeBounds[5]);
+    }
+    return box;
+  }
+
+  // queries
+  // ===========================================================================
+
+  /**
+   * Finds the shape hit first by the ray.
+   *
+   * @param maxLambda   the largest ray parameter to consider
+   * @param lambdaStore receives the ray parameter of the hit at index 0 if a shape is hit,
+   *                    may be {@code null}
+   * @return the index of the shape hit first, or -1 if no shape is hit
+   */
+  public int intersectNearest(Ray3D ray, float maxLambda, float[] lambdaStore) {
+    var stack = acquireStack();
+    try {
+      return traverse(ray, maxLambda, NEAREST, null, lambdaStore, stack);
+    } finally {
+      STACKS.set(stack);
+    }
+  }
+
+  /**
+   * Finds the shape hit first by the ray.
+   *
+   * @return the index of the shape hit first, or -1 if no shape is hit
+   */
+  public int intersectNearest(Ray3D ray) {
+    return intersectNearest(ray, Float.POSITIVE_INFINITY, null);
+  }
+
+  /**
+   * Finds the shape hit first by the ray and records the hit in {@code hitStore}, including the index
+   * of the shape, if it is nearer than the hit already recorded there.
+   *
+   * @return true if a hit was recorded
+   * @see Intersector3D#intersect(Ray3D, Shape3D, Hit)
+   */
+  public boolean intersectNearest(Ray3D ray, Hit hitStore) {
+    int best;
+    var stack = acquireStack();
+    try {
+      best = traverse(ray, hitStore.getLambda(), NEAREST, null, null, stack);
+    } finally {
+      STACKS.set(stack);
+    }
+    if (best < 0 || !Intersector3D.intersect(ray, shapes.get(best), hitStore)) {
+      return false;
+    }
+    hitStore.setShapeIndex(best);
+    return true;
+  }
+
+  /**
+   * Finds any shape hit by the ray, stopping at the first hit found,
+   * which is the query to use for occlusion and visibility tests.
+   *
+   * @param maxLambda the largest ray parameter to consider
+   * @return the index of a shape hit, or -1 if no shape is hit
+   */
+  public int intersectAny(Ray3D ray, float maxLambda) {
+    var stack = acquireStack();
+    try {
+      return traverse(ray, maxLambda, ANY, null, null, stack);
+    } finally {
+      STACKS.set(stack);
+    }
+  }
+
+  /**
+   * Finds all shapes hit by the ray and reports them in no particular order.
+   *
+   * @param maxLambda the largest ray parameter to consider
+   * @return the number of shapes hit
+   */
+  public int intersectAll(Ray3D ray, float maxLambda, HitListener listener) {
+    var stack = acquireStack();
+    try {
+      return traverse(ray, maxLambda, ALL, listener, null, stack);
+    } finally {
+      STACKS.set(stack);
+    }
+  }
+
+  /**
+   * Finds all shapes hit by the ray.
+   *
+   * @return a new list of the shapes hit, in no particular order
+   */
+  public List<Shape3D> intersectAll(Ray3D ray) {
+    List<Shape3D> result = new ArrayList<>();
+    intersectAll(ray, Float.POSITIVE_INFINITY, (index, lambda) -> result.add(shapes.get(index)));
+    return result;
+  }
+
+  /**
+   * Runs a query of the given mode.
+   *
+   * @return for {@link #NEAREST} and {@link #ANY} the index of the shape hit or -1,
+   * for {@link #ALL} the number of hits
+   */
+  private int traverse(Ray3D ray, float maxLambda, int mode, HitListener listener, float[] lambdaStore,
+                       int[] stack) {
+    int best = -1;
+    int hits = 0;
+    var tMax = maxLambda;
+
+    for (int index : unbounded) {
+      var lambda = Intersector3D.intersectRayParameter(ray, shapes.get(index));
+      if (lambda <= tMax) {
+        if (mode == ANY) {
+          return index;
+        } else if (mode == ALL) {
+          listener.onHit(index, lambda);
+          hits++;
+        } else {
+          best = index;
+          tMax = lambda;
+        }
+      }
+    }
+
+    if (nodeCount > 0) {
+      var origin = ray.getPoint();
+      var dir = ray.getDir();
+      var ox = origin.x;
+      var oy = origin.y;
+      var oz = origin.z;
+      var invX = 1 / dir.x;
+      var invY = 1 / dir.y;
+      var invZ = 1 / dir.z;
+
+      int top = 0;
+      int node = 0;
+      while (true) {
+        if (intersectsNode(node, ox, oy, oz, invX, invY, invZ, tMax)) {
+          int count = nodeCounts[node];
+          if (count < 0) {
+            // visit the child nearer to the ray origin first
+            int axis = -1 - count;
+            var negative = axis == 0 ? dir.x < 0 : axis == 1 ? dir.y < 0 : dir.z < 0;
+            if (negative) {
+              stack[top++] = node + 1;
+              node = nodeOffsets[node];
+            } else {
+              stack[top++] = nodeOffsets[node];
+              node = node + 1;
+            }
+            continue;
+          }
+
+          for (int i = nodeOffsets[node], end = i + count; i < end; i++) {
+            int index = primitives[i];
+            var lambda = Intersector3D.intersectRayParameter(ray, shapes.get(index));
+            if (lambda <= tMax) {
+              if (mode == ANY) {
+                return index;
+              } else if (mode == ALL) {
+                listener.onHit(index, lambda);
+                hits++;
+              } else {
+                best = index;
+                tMax = lambda;
+              }
+            }
+          }
+        }
+        if (top == 0) {
+          break;
+        }
+        node = stack[--top];
+      }
+    }
+
+    if (mode == ALL) {
+      return hits;
+    }
+    if (best >= 0 && lambdaStore != null) {
+      lambdaStore[0] = tMax;
+    }
+    return best;
+  }
+
+  /**
+   * Takes the traversal stack of the current thread, to be put back when the query is done.
+   */
+  private static int[] acquireStack() {
+    var stack = STACKS.get();
+    if (stack == null) {
+      return new int[STACK_SIZE];
+    }
+    STACKS.set(null);
+    return stack;
+  }
+
+  /**
+   * Slab test of the ray against the bounds of a node.
+   */
+  private boolean intersectsNode(int node, float ox, float oy, float oz,
+                                 float invX, float invY, float invZ, float tMax) {
+    int o = 6 * node;
+    return Intersector3D.rayBoxParameter(ox, oy, oz, invX, invY, invZ,
+            nodeBounds[o], nodeBounds[o + 1], nodeBounds[o + 2],
+            nodeBounds[o + 3], nodeBounds[o + 4], nodeBounds[o + 5], tMax, false) >= 0;
+  }
+
+  // construction
+  // ===========================================================================
+
+  /**
+   * Builds the subtree over the shapes {@code primitives[first, first + count)}.
+   *
+   * @return the index of the subtree's root node
+   */
+  private int build(int first, int count, int depth, float[] bounds, float[] centroids) {
+    int node = nodeCount++;
+    int end = first + count;
+
+    // node bounds and centroid bounds
+    int o = 6 * node;
+    var centroidBounds = new float[6];
+    for (int axis = 0; axis < 3; axis++) {
+      nodeBounds[o + axis] = Float.POSITIVE_INFINITY;
+      nodeBounds[o + 3 + axis] = Float.NEGATIVE_INFINITY;
+      centroidBounds[axis] = Float.POSITIVE_INFINITY;
+      centroidBounds[3 + axis] = Float.NEGATIVE_INFINITY;
+    }
+    for (int i = first; i < end; i++) {
+      int shape = primitives[i];
+      for (int axis = 0; axis < 3; axis++) {
+        nodeBounds[o + axis] = Math.min(nodeBounds[o + axis], bounds[6 * shape + axis]);
+        nodeBounds[o + 3 + axis] = Math.max(nodeBounds[o + 3 + axis], bounds[6 * shape + 3 + axis]);
+        centroidBounds[axis] = Math.min(centroidBounds[axis], centroids[3 * shape + axis]);
+        centroidBounds[3 + axis] = Math.max(centroidBounds[3 + axis], centroids[3 * shape + axis]);
+      }
+    }
+    nodeOffsets[node] = first;
+    nodeCounts[node] = count;
+
+    int widest = 0;
+    for (int axis = 1; axis < 3; axis++) {
+      if (centroidBounds[3 + axis] - centroidBounds[axis] > centroidBounds[3 + widest] - centroidBounds[widest]) {
+        widest = axis;
+      }
+    }
+    if (count == 1 || centroidBounds[3 + widest] <= centroidBounds[widest]) {
+      // all centroids coincide, no split separates them
+      return node;
+    }
+
+    int axis = widest;
+    int mid = -1;
+    if (depth < MAX_SAH_DEPTH) {
+      // SAH over the bins of all axes, costs scaled by the surface area of the node
+      var bestCost = Float.POSITIVE_INFINITY;
+      int bestAxis = -1;
+      int bestBin = -1;
+      var binCounts = new int[BIN_COUNT];
+      var binBounds = new float[6 * BIN_COUNT];
+      var rightAreas = new float[BIN_COUNT];
+      for (int a = 0; a < 3; a++) {
+        var cMin = centroidBounds[a];
+        var extent = centroidBounds[3 + a] - cMin;
+        if (extent <= 0) {
+          continue;
+        }
+        Arrays.fill(binCounts, 0);
+        for (int b = 0; b < BIN_COUNT; b++) {
+          resetBounds(binBounds, 6 * b);
+        }
+        for (int i = first; i < end; i++) {
+          int shape = primitives[i];
+          int b = bin(centroids[3 * shape + a], cMin, extent);
+          binCounts[b]++;
+          growBounds(binBounds, 6 * b, bounds, 6 * shape);
+        }
+
+        var accumulated = new float[6];
+        resetBounds(accumulated, 0);
+        for (int b = BIN_COUNT - 1; b > 0; b--) {
+          growBounds(accumulated, 0, binBounds, 6 * b);
+          rightAreas[b] = surfaceArea(accumulated, 0);
+        }
+        resetBounds(accumulated, 0);
+        int leftCount = 0;
+        for (int b = 0; b < BIN_COUNT - 1; b++) {
+          growBounds(accumulated, 0, binBounds, 6 * b);
+          leftCount += binCounts[b];
+          int rightCount = count - leftCount;
+          if (leftCount == 0 || rightCount == 0) {
+            continue;
+          }
+          var cost = surfaceArea(accumulated, 0) * leftCount + rightAreas[b + 1] * rightCount;
+          if (cost < bestCost) {
+            bestCost = cost;
+            bestAxis = a;
+            bestBin = b;
+          }
+        }
+      }
+
+      var area = surfaceArea(nodeBounds, o);
+      if (bestAxis < 0 || TRAVERSAL_COST * area + bestCost >= area * count) {
+        if (count <= MAX_LEAF_SIZE) {
+          return node;
+        }
+      } else {
+        // partition by bin
+        axis = bestAxis;
+        var cMin = centroidBounds[axis];
+        var extent = centroidBounds[3 + axis] - cMin;
+        int i = first;
+        int j = end - 1;
+        while (i <= j) {
+          if (bin(centroids[3 * primitives[i] + axis], cMin, extent) <= bestBin) {
+            i++;
+          } else {
+            swap(i, j--);
+          }
+        }
+        mid = i;
+      }
+    }
+
+    if (mid <= first || mid >= end) {
+      // median split along the widest axis
+      axis = widest;
+      mid = first + count / 2;
+      select(first, end, mid, axis, centroids);
+    }
+
+    nodeCounts[node] = -1 - axis;
+    build(first, mid - first, depth + 1, bounds, centroids);
+    nodeOffsets[node] = build(mid, end - mid, depth + 1, bounds, centroids);
+    return node;
+  }
+
+  private static int bin(float centroid, float min, float extent) {
+    int b = (int) ((centroid - min) * BIN_COUNT / extent);
+    return Math.min(b, BIN_COUNT - 1);
+  }
+
+  private static void resetBounds(float[] box, int o) {
+    for (int axis = 0; axis < 3; axis++) {
+      box[o + axis] = Float.POSITIVE_INFINITY;
+      box[o + 3 + axis] = Float.NEGATIVE_INFINITY;
+    }
+  }
+
+  private static void growBounds(float[] box, int o, float[] other, int p) {
+    for (int axis = 0; axis < 3; axis++) {
+      box[o + axis] = Math.min(box[o + axis], other[p + axis]);
+      box[o + 3 + axis] = Math.max(box[o + 3 + axis], other[p + 3 + axis]);
+    }
+  }
+
+  private static float surfaceArea(float[] box, int o) {
+    var dx = box[o + 3] - box[o];
+    var dy = box[o + 4] - box[o + 1];
+    var dz = box[o + 5] - box[o + 2];
+    if (dx < 0 || dy < 0 || dz < 0) {
+      return 0;
+    }
+    return 2 * (dx * dy + dy * dz + dz * dx);
+  }
+
+  /**
+   * Partially sorts {@code primitives[lo, hi)} by centroid along {@code axis} (quickselect),
+   * so that the shape at {@code n} is at its sorted position.
+   */
+  private void select(int lo, int hi, int n, int axis, float[] centroids) {
+    int left = lo;
+    int right = hi - 1;
+    while (right > left) {
+      int m = (left + right) >>> 1;
+      var pivot = centroids[3 * primitives[m] + axis];
+      int i = left;
+      int j = right;
+      while (i <= j) {
+        while (centroids[3 * primitives[i] + axis] < pivot) i++;
+        while (centroids[3 * primitives[j] + axis] > pivot) j--;
+        if (i <= j) {
+          swap(i++, j--);
+        }
+      }
+      if (n <= j) {
+        right = j;
+      } else if (n >= i) {
+        left = i;
+      } else {
+        return;
+      }
+    }
+  }
+
+  private void swap(int i, int j) {
+    int shape = primitives[i];
+    primitives[i] = primitives[j];
+    primitives[j] = shape;
+  }
+}
@@ -0,0 +1,622 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package shape3d;
+
+import com.jme3.math.Vector3f;
+import misc.AxisAlignedBoundingBox;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A dynamic bounding volume tree over moving objects, used as collision broadphase.
+ * <p>
+ * Unlike {@link BoundingVolumeHierarchy}, the tree supports inserting, removing and moving objects
+ * at logarithmic cost. Each object is represented by a proxy, a leaf holding the object and its
+ * fat bounding box, which is the box given on insertion enlarged by a margin on each side.
+ * An object moving within its fat box does not change the tree at all, one leaving it is removed
+ * and reinserted. Leaves are inserted next to the sibling minimizing the increase in surface area
+ * and the tree is kept balanced with AVL-style rotations, so its height stays logarithmic
+ * regardless of the insertion order.
+ * <p>
+ * The nodes are stored in primitive arrays reused through a free list, with the bounds of each node
+ * packed as six floats. Proxies are identified by the index of their leaf, which remains valid until
+ * the proxy is removed. The tree is not thread safe.
+ *
+ * @param <T> the type of the objects stored with the proxies
+ */
+public class DynamicBoundingVolumeTree<T> {
+  /**
+   * Margin added to each side of the boxes by the default constructor.
+   */
+  public static final float DEFAULT_MARGIN = 0.1f;
+
+  private static final int NULL = -1;
+
+  /**
+   * Initial size of the traversal stacks, which grow as needed.
+   */
+  private static final int STACK_SIZE = 64;
+
+  /**
+   * Receives the proxies found by {@link #query(AxisAlignedBoundingBox, ProxyListener)}.
+   */
+  @FunctionalInterface
+  public interface ProxyListener {
+    /**
+     * Called once for each proxy whose fat box overlaps the query box.
+     *
+     * @return false to stop the query
+     */
+    boolean onProxy(int proxy);
+  }
+
+  /**
+   * Receives the pairs found by {@link #findOverlappingPairs(PairListener)}.
+   */
+  @FunctionalInterface
+  public interface PairListener {
+    /**
+     * Called once for each pair of proxies with overlapping fat boxes.
+     *
+     * @param first  the first proxy
+     * @param second the second proxy, always greater than {@code first}
+     */
+    void onPair(int first, int second);
+  }
+
+  /**
+   * Receives the proxies hit by {@link #intersect(Ray3D, float, RayListener)}.
+   */
+  @FunctionalInterface
+  public interface RayListener {
+    /**
+     * Called for each proxy whose fat box is hit by the ray within the current maximum ray parameter.
+     * Returning a smaller maximum, like the ray parameter of the object hit, clips the remaining query,
+     * which then only reports proxies whose boxes are entered before it.
+     *
+     * @param proxy  the proxy
+     * @param lambda the ray parameter at which the ray enters the fat box, 0 if it starts inside
+     * @return the new maximum ray parameter, or a negative value to stop the query
+     */
+    float onProxy(int proxy, float lambda);
+  }
+
+  private final float margin;
+
+  /**
+   * Node bounds, packed as {@code minX, minY, minZ, maxX, maxY, maxZ} per node.
+   */
+  private float[] bounds;
+
+  /**
+   * Parent of each node, {@link #NULL} for the root. For free nodes, the next free node.
+   */
+  private int[] parent;
+
+  private int[] child1;
+  private int[] child2;
+
+  /**
+   * Height of each node, 0 for leaves and -1 for free nodes.
+   */
+  private int[] height;
+
+  private Object[] data;
+
+  private int root = NULL;
+  private int freeList = NULL;
+  private int proxyCount;
+
+  /**
+   * Creates an empty tree with a margin of {@value #DEFAULT_MARGIN}.
+   */
+  public DynamicBoundingVolumeTree() {
+    this(DEFAULT_MARGIN);
+  }
+
+  /**
+   * Creates an empty tree enlarging the boxes of the proxies by {@code margin} on each side.
+   */
+  public DynamicBoundingVolumeTree(float margin) {
+    checkArgument(margin >= 0, "margin must not be negative");
+    this.margin = margin;
+    bounds = new float[0];
+    parent = new int[0];
+    child1 = new int[0];
+    child2 = new int[0];
+    height = new int[0];
+    data = new Object[0];
+    grow(16);
+  }
+
+  public float getMargin() {
+    return margin;
+  }
+
+  /**
+   * Gets the number of proxies in the tree.
+   */
+  public int size() {
+    return proxyCount;
+  }
+
+  /**
+   * Gets the height of the tree, 0 if it holds a single proxy and -1 if it is empty.
+   */
+  public int getHeight() {
+    return root == NULL ? -1 : height[root];
+  }
+
+  /**
+   * Gets a new box bounding the fat boxes of all proxies, which is empty if there are none.
+   */
+  public AxisAlignedBoundingBox getBounds() {
+    var box = new AxisAlignedBoundingBox();
+    if (root != NULL) {
+      box.grow(bounds[6 * root], bounds[6 * root + 1], bounds[6 * root + 2]);
+      box.grow(bounds[6 * root + 3], bounds[6 * root + 4], bounds[6 * root + 5]);
+    }
+    return box;
+  }
+
+  // proxies
+  // ===========================================================================
+
+  /**
+   * Inserts an object with the given bounds.
+   *
+   * @return the proxy of the object
+   * @throws IllegalArgumentException if the box is empty
+   */
+  public int insert(AxisAlignedBoundingBox box, T object) {
+    checkArgument(!box.isEmpty(), "cannot insert an empty box");
+    int proxy = allocateNode();
+    setFatBounds(proxy, box);
+    data[proxy] = object;
+    height[proxy] = 0;
+    insertLeaf(proxy);
+    proxyCount++;
+    return proxy;
+  }
+
+  /**
+   * Removes a proxy from the tree, after which its index may be reused by another proxy.
+   *
+   * @throws IllegalArgumentException if there is no such proxy
+   */
+  public void remove(int proxy) {
+    checkProxy(proxy);
+    removeLeaf(proxy);
+    freeNode(proxy);
+    proxyCount--;
+  }
+
+  /**
+   * Moves a proxy to the given bounds. The tree only changes if the box is not contained in the fat box
+   * of the proxy, in which case the proxy is reinserted with a new fat box.
+   *
+   * @return true if the proxy was reinserted
+   * @throws IllegalArgumentException if there is no such proxy or the box is empty
+   */
+  public boolean update(int proxy, AxisAlignedBoundingBox box) {
+    checkProxy(proxy);
+    checkArgument(!box.isEmpty(), "cannot update to an empty box");
+    int b = 6 * proxy;
+    if (bounds[b] <= box.getMinX() && bounds[b + 1] <= box.getMinY() && bounds[b + 2] <= box.getMinZ()
+            && bounds[b + 3] >= box.getMaxX() && bounds[b + 4] >= box.getMaxY() && bounds[b + 5] >= box.getMaxZ()) {
+      return false;
+    }
+    removeLeaf(proxy);
+    setFatBounds(proxy, box);
+    insertLeaf(proxy);
+    return true;
+  }
+
+  /**
+   * Gets the object stored with a proxy.
+   *
+   * @throws IllegalArgumentException if there is no such proxy
+   */
+  @SuppressWarnings("unchecked")
+  public T getObject(int proxy) {
+    checkProxy(proxy);
+    return (T) data[proxy];
+  }
+
+  /**
+   * Gets the fat box of a proxy.
+   *
+   * @return the parameter {@code store}
+   * @throws IllegalArgumentException if there is no such proxy
+   */
+  public AxisAlignedBoundingBox getFatBounds(int proxy, AxisAlignedBoundingBox store) {
+    checkProxy(proxy);
+    store.clear();
+    store.grow(bounds[6 * proxy], bounds[6 * proxy + 1], bounds[6 * proxy + 2]);
+    store.grow(bounds[6 * proxy + 3], bounds[6 * proxy + 4], bounds[6 * proxy + 5]);
+    return store;
+  }
+
+  // queries
+  // ===========================================================================
+
+  /**
+   * Finds all proxies whose fat boxes overlap the given box, in no particular order.
+   */
+  public void query(AxisAlignedBoundingBox box, ProxyListener listener) {
+    if (box.isEmpty()) {
+      return;
+    }
+    query(box.getMinX(), box.getMinY(), box.getMinZ(), box.getMaxX(), box.getMaxY(), box.getMaxZ(),
+            NULL, listener, null);
+  }
+
+  /**
+   * Finds all pairs of proxies whose fat boxes overlap, each pair reported once and in no particular order.
+   * Each proxy is queried against the tree, so the cost is {@code O(n log n + k)} for {@code k} pairs.
+   */
+  public void findOverlappingPairs(PairListener listener) {
+    var stack = new int[STACK_SIZE];
+    for (int proxy = 0; proxy < height.length; proxy++) {
+      if (height[proxy] != 0) {
+        continue;
+      }
+      int b = 6 * proxy;
+      stack = query(bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4], bounds[b + 5],
+              proxy, listener, stack);
+    }
+  }
+
+  /**
+   * Finds all pairs of proxies whose fat boxes overlap.
+   *
+   * @return a new list of pairs {@code {first, second}} with {@code first < second}, in no particular order
+   */
+  public List<int[]> findOverlappingPairs() {
+    List<int[]> pairs = new ArrayList<>();
+    findOverlappingPairs((first, second) -> pairs.add(new int[]{first, second}));
+    return pairs;
+  }
+
+  /**
+   * Finds the proxies whose fat boxes are hit by the ray within {@code maxLambda}, in no particular order.
+   * The listener can clip the query to the nearest object hit so far, so finding the nearest object
+   * only tests the objects whose boxes are entered before it.
+   */
+  public void intersect(Ray3D ray, float maxLambda, RayListener listener) {
+    if (root == NULL) {
+      return;
+    }
+    var p = ray.getPoint();
+    var invDir = ray.getInverseDir(new Vector3f());
+    var tMax = maxLambda;
+    var stack = new int[STACK_SIZE];
+    int top = 0;
+    stack[top++] = root;
+    while (top > 0) {
+      int node = stack[--top];
+      int b = 6 * node;
+      var entry = Intersector3D.rayBoxParameter(p.x, p.y, p.z, invDir.x, invDir.y, invDir.z,
+              bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4], bounds[b + 5], tMax, false);
+      if (Float.isNaN(entry)) {
+        continue;
+      }
+      if (height[node] == 0) {
+        var newMax = listener.onProxy(node, entry);
+        if (newMax < 0) {
+          return;
+        }
+        tMax = Math.min(tMax, newMax);
+      } else {
+        if (top + 2 > stack.length) {
+          stack = Arrays.copyOf(stack, 2 * stack.length);
+        }
+        stack[top++] = child2[node];
+        stack[top++] = child1[node];
+      }
+    }
+  }
+
+  /**
+   * Finds the objects whose fat boxes are hit by the ray.
+   *
+   * @return a new list of the objects, in no particular order
+   */
+  @SuppressWarnings("unchecked")
+  public List<T> intersect(Ray3D ray) {
+    List<T> result = new ArrayList<>();
+    intersect(ray, Float.POSITIVE_INFINITY, (proxy, lambda) -> {
+      result.add((T) data[proxy]);
+      return Float.POSITIVE_INFINITY;
+    });
+    return result;
+  }
+
+  /**
+   * Reports the proxies overlapping a box either to a {@link ProxyListener},
+   * or for pair enumeration as pairs with a greater {@code self} to a {@link PairListener}.
+   *
+   * @return the traversal stack, possibly grown, to be reused by the next query
+   */
+  private int[] query(float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+                      int self, Object listener, int[] stack) {
+    if (root == NULL) {
+      return stack;
+    }
+    if (stack == null) {
+      stack = new int[STACK_SIZE];
+    }
+    int top = 0;
+    stack[top++] = root;
+    while (top > 0) {
+      int node = stack[--top];
+      int b = 6 * node;
+      if (bounds[b] > maxX || bounds[b + 3] < minX || bounds[b + 1] > maxY || bounds[b + 4] < minY
+              || bounds[b + 2] > maxZ || bounds[b + 5] < minZ) {
+        continue;
+      }
+      if (height[node] == 0) {
+        if (self == NULL) {
+          if (!((ProxyListener) listener).onProxy(node)) {
+            return stack;
+          }
+        } else if (node > self) {
+          ((PairListener) listener).onPair(self, node);
+        }
+      } else {
+        if (top + 2 > stack.length) {
+          stack = Arrays.copyOf(stack, 2 * stack.length);
+        }
+        stack[top++] = child1[node];
+        stack[top++] = child2[node];
+      }
+    }
+    return stack;
+  }
+
+  // tree maintenance
+  // ===========================================================================
+
+  private void checkProxy(int proxy) {
+    Objects.checkIndex(proxy, height.length);
+    checkArgument(height[proxy] == 0, "no proxy %s", proxy);
+  }
+
+  private void setFatBounds(int node, AxisAlignedBoundingBox box) {
+    int b = 6 * node;
+    bounds[b] = box.getMinX() - margin;
+    bounds[b + 1] = box.getMinY() - margin;
+    bounds[b + 2] = box.getMinZ() - margin;
+    bounds[b + 3] = box.getMaxX() + margin;
+    bounds[b + 4] = box.getMaxY() + margin;
+    bounds[b + 5] = box.getMaxZ() + margin;
+  }
+
+  private int allocateNode() {
+    if (freeList == NULL) {
+      grow(2 * height.length);
+    }
+    int node = freeList;
+    freeList = parent[node];
+    parent[node] = NULL;
+    child1[node] = NULL;
+    child2[node] = NULL;
+    return node;
+  }
+
+  private void freeNode(int node) {
+    parent[node] = freeList;
+    height[node] = -1;
+    data[node] = null;
+    freeList = node;
+  }
+
+  /**
+   * Grows the node arrays to the given capacity, adding the new nodes to the free list.
+   */
+  private void grow(int capacity) {
+    int old = height.length;
+    bounds = Arrays.copyOf(bounds, 6 * capacity);
+    parent = Arrays.copyOf(parent, capacity);
+    child1 = Arrays.copyOf(child1, capacity);
+    child2 = Arrays.copyOf(child2, capacity);
+    height = Arrays.copyOf(height, capacity);
+    data = Arrays.copyOf(data, capacity);
+    for (int node = capacity - 1; node >= old; node--) {
+      parent[node] = freeList;
+      height[node] = -1;
+      freeList = node;
+    }
+  }
+
+  private void insertLeaf(int leaf) {
+    if (root == NULL) {
+      root = leaf;
+      parent[leaf] = NULL;
+      return;
+    }
+
+    // descend to the sibling whose union with the leaf increases the total surface area the least
+    int index = root;
+    while (height[index] > 0) {
+      var area = area(index);
+      var combinedArea = unionArea(index, leaf);
+      // cost of a new parent for this node and the leaf
+      var cost = 2 * combinedArea;
+      // increase in area of this node's ancestors, paid by descending further
+      var inheritanceCost = 2 * (combinedArea - area);
+      var cost1 = descentCost(child1[index], leaf) + inheritanceCost;
+      var cost2 = descentCost(child2[index], leaf) + inheritanceCost;
+      if (cost < cost1 && cost < cost2) {
+        break;
+      }
+      index = cost1 < cost2 ? child1[index] : child2[index];
+    }
+    int sibling = index;
+
+    // replace the sibling by a new parent of the sibling and the leaf
+    int oldParent = parent[sibling];
+    int newParent = allocateNode();
+    parent[newParent] = oldParent;
+    data[newParent] = null;
+    height[newParent] = height[sibling] + 1;
+    union(newParent, sibling, leaf);
+    child1[newParent] = sibling;
+    child2[newParent] = leaf;
+    parent[sibling] = newParent;
+    parent[leaf] = newParent;
+    if (oldParent == NULL) {
+      root = newParent;
+    } else if (child1[oldParent] == sibling) {
+      child1[oldParent] = newParent;
+    } else {
+      child2[oldParent] = newParent;
+    }
+
+    refit(parent[leaf]);
+  }
+
+  private void removeLeaf(int leaf) {
+    if (leaf == root) {
+      root = NULL;
+      return;
+    }
+    int p = parent[leaf];
+    int grandParent = parent[p];
+    int sibling = child1[p] == leaf ? child2[p] : child1[p];
+    freeNode(p);
+    parent[leaf] = NULL;
+    parent[sibling] = grandParent;
+    if (grandParent == NULL) {
+      root = sibling;
+      return;
+    }
+    if (child1[grandParent] == p) {
+      child1[grandParent] = sibling;
+    } else {
+      child2[grandParent] = sibling;
+    }
+    refit(grandParent);
+  }
+
+  /**
+   * Walks from a node up to the root, rebalancing and updating the bounds and heights on the way.
+   */
+  private void refit(int node) {
+    while (node != NULL) {
+      node = balance(node);
+      int c1 = child1[node];
+      int c2 = child2[node];
+      height[node] = 1 + Math.max(height[c1], height[c2]);
+      union(node, c1, c2);
+      node = parent[node];
+    }
+  }
+
+  /**
+   * Rotates the higher grandchild of {@code a} up if the heights of its children differ by more than one.
+   *
+   * @return the node now at the position of {@code a}
+   */
+  private int balance(int a) {
+    if (height[a] < 2) {
+      return a;
+    }
+    int b = child1[a];
+    int c = child2[a];
+    int diff = height[c] - height[b];
+    if (diff > 1) {
+      rotateUp(a, c, b, false);
+      return c;
+    } else if (diff < -1) {
+      rotateUp(a, b, c, true);
+      return b;
+    }
+    return a;
+  }
+
+  /**
+   * Makes {@code up}, the higher child of {@code a}, the parent of {@code a}. The higher child of {@code up}
+   * stays with it, the lower one replaces {@code up} as a child of {@code a}.
+   *
+   * @param other the other child of {@code a}
+   * @param first true if {@code up} is the first child of {@code a}
+   */
+  private void rotateUp(int a, int up, int other, boolean first) {
+    int f = child1[up];
+    int g = child2[up];
+
+    child1[up] = a;
+    parent[up] = parent[a];
+    parent[a] = up;
+    if (parent[up] == NULL) {
+      root = up;
+    } else if (child1[parent[up]] == a) {
+      child1[parent[up]] = up;
+    } else {
+      child2[parent[up]] = up;
+    }
+
+    int keep = height[f] > height[g] ? f : g;
+    int move = keep == f ? g : f;
+    child2[up] = keep;
+    if (first) {
+      child1[a] = move;
+    } else {
+      child2[a] = move;
+    }
+    parent[move] = a;
+    union(a, other, move);
+    union(up, a, keep);
+    height[a] = 1 + Math.max(height[other], height[move]);
+    height[up] = 1 + Math.max(height[a], height[keep]);
+  }
+
+  /**
+   * Gets the cost of descending into {@code child} to insert {@code leaf}, not counting the ancestors.
+   */
+  private float descentCost(int child, int leaf) {
+    if (height[child] == 0) {
+      return unionArea(child, leaf);
+    }
+    return unionArea(child, leaf) - area(child);
+  }
+
+  private float area(int node) {
+    int b = 6 * node;
+    var dx = bounds[b + 3] - bounds[b];
+    var dy = bounds[b + 4] - bounds[b + 1];
+    var dz = bounds[b + 5] - bounds[b + 2];
+    return 2 * (dx * dy + dy * dz + dz * dx);
+  }
+
+  private float unionArea(int n1, int n2) {
+    int b1 = 6 * n1;
+    int b2 = 6 * n2;
+    var dx = Math.max(bounds[b1 + 3], bounds[b2 + 3]) - Math.min(bounds[b1], bounds[b2]);
+    var dy = Math.max(bounds[b1 + 4], bounds[b2 + 4]) - Math.min(bounds[b1 + 1], bounds[b2 + 1]);
+    var dz = Math.max(bounds[b1 + 5], bounds[b2 + 5]) - Math.min(bounds[b1 + 2], bounds[b2 + 2]);
+    return 2 * (dx * dy + dy * dz + dz * dx);
+  }
+
+  /**
+   * Sets the bounds of {@code node} to the union of the bounds of {@code n1} and {@code n2}.
+   */
+  private void union(int node, int n1, int n2) {
+    int b = 6 * node;
+    int b1 = 6 * n1;
+    int b2 = 6 * n2;
+    for (int i = 0; i < 3; i++) {
+      bounds[b + i] = Math.min(bounds[b1 + i], bounds[b2 + i]);
+      bounds[b + 3 + i] = Math.max(bounds[b1 + 3 + i], bounds[b2 + 3 + i]);
+    }
+  }
+}
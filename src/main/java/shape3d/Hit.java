@@ -0,0 +1,183 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package shape3d;
+
+import com.jme3.math.Vector3f;
+
+/**
+ * A mutable record of a ray hitting a shape, meant to be reused across queries.
+ * <p>
+ * {@link Intersector3D#intersect(Ray3D, Shape3D, Hit)} only records hits nearer than the current
+ * ray parameter of the record, so the nearest hit among many shapes is found by clearing a record
+ * once and intersecting the ray with all shapes, without allocating.
+ */
+public class Hit {
+  /**
+   * Ray parameter of the hit point, infinite if there is no hit.
+   */
+  private float lambda;
+
+  private final Vector3f point = new Vector3f();
+
+  /**
+   * Normalized surface normal at the hit point.
+   */
+  private final Vector3f normal = new Vector3f();
+
+  private Shape3D shape;
+
+  /**
+   * Index of the shape within a collection, like a {@link BoundingVolumeHierarchy}.
+   */
+  private int shapeIndex;
+
+  /**
+   * Index of the hit triangle within a {@link TriangleMesh}.
+   */
+  private int primitiveIndex;
+
+  /**
+   * Barycentric coordinates of the hit point on a triangle.
+   */
+  private float u, v;
+
+  /**
+   * Scratch space for the intersection kernels.
+   */
+  final float[] scratch = new float[3];
+
+  /**
+   * Creates a new record without a hit.
+   */
+  public Hit() {
+    clear();
+  }
+
+  /**
+   * Resets the record to the state without a hit.
+   *
+   * @return this
+   */
+  public Hit clear() {
+    lambda = Float.POSITIVE_INFINITY;
+    point.set(0, 0, 0);
+    normal.set(0, 0, 0);
+    shape = null;
+    shapeIndex = -1;
+    primitiveIndex = -1;
+    u = 0;
+    v = 0;
+    return this;
+  }
+
+  /**
+   * Returns true if a hit has been recorded since the last {@link #clear()}.
+   */
+  public boolean isHit() {
+    return shape != null;
+  }
+
+  /**
+   * Records a hit. The normal is expected to be normalized.
+   *
+   * @return this
+   */
+  public Hit set(Shape3D shape, float lambda, Vector3f point, Vector3f normal) {
+    record(shape, lambda);
+    this.point.set(point);
+    this.normal.set(normal);
+    return this;
+  }
+
+  /**
+   * Records a hit of the shape at the given ray parameter, leaving point and normal to the caller.
+   */
+  void record(Shape3D shape, float lambda) {
+    this.shape = shape;
+    this.lambda = lambda;
+    shapeIndex = -1;
+    primitiveIndex = -1;
+    u = 0;
+    v = 0;
+  }
+
+  /**
+   * Gets the ray parameter of the hit point, which is infinite if there is no hit.
+   */
+  public float getLambda() {
+    return lambda;
+  }
+
+  /**
+   * Gets the hit point. The returned vector is owned by the record.
+   */
+  public Vector3f getPoint() {
+    return point;
+  }
+
+  /**
+   * Gets the normalized surface normal at the hit point. The returned vector is owned by the record.
+   * <p>
+   * Normals of spheres and boxes point outwards, those of planes and triangles are the
+   * normalized plane normal and {@code (b - a) x (c - a)}, regardless of the side hit.
+   */
+  public Vector3f getNormal() {
+    return normal;
+  }
+
+  /**
+   * Gets the shape hit, or {@code null} if there is no hit.
+   */
+  public Shape3D getShape() {
+    return shape;
+  }
+
+  /**
+   * Gets the index of the shape hit within the queried collection, or -1 if not applicable.
+   */
+  public int getShapeIndex() {
+    return shapeIndex;
+  }
+
+  public void setShapeIndex(int shapeIndex) {
+    this.shapeIndex = shapeIndex;
+  }
+
+  /**
+   * Gets the index of the triangle hit within a {@link TriangleMesh}, or -1 if not applicable.
+   */
+  public int getPrimitiveIndex() {
+    return primitiveIndex;
+  }
+
+  /**
+   * Gets the barycentric coordinate {@code u} of the hit point if a triangle was hit, see {@link Triangle}.
+   */
+  public float getU() {
+    return u;
+  }
+
+  /**
+   * Gets the barycentric coordinate {@code v} of the hit point if a triangle was hit, see {@link Triangle}.
+   */
+  public float getV() {
+    return v;
+  }
+
+  void setTriangle(int primitiveIndex, float u, float v) {
+    this.primitiveIndex = primitiveIndex;
+    this.u = u;
+    this.v = v;
+  }
+
+  @Override
+  public String toString() {
+    if (!isHit()) {
+      return "Hit{none}";
+    }
+    return "Hit{lambda=" + lambda + ", point=" + point + ", normal=" + normal + ", shape=" + shape + '}';
+  }
+}
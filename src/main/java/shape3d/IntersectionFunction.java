@@ -0,0 +1,24 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package shape3d;
+
+import java.util.List;
+
+/**
+ * Computes the intersection of two shapes of given types, registered in an {@link IntersectionRegistry}.
+ *
+ * @param <A> the type of the first shape
+ * @param <B> the type of the second shape
+ */
+@FunctionalInterface
+public interface IntersectionFunction<A extends Shape3D, B extends Shape3D> {
+  /**
+   * Intersects the shapes.
+   *
+   * @return the shapes both shapes have in common, an empty list if they do not intersect
+   */
+  List<Shape3D> intersect(A a, B b);
+}
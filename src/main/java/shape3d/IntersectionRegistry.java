@@ -0,0 +1,107 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package shape3d;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A table of intersection functions, keyed by the types of both shapes (double dispatch).
+ * <p>
+ * Lookups are symmetric: a function registered for {@code (A, B)} also intersects shapes of types
+ * {@code (B, A)}, with the arguments swapped, unless a function is registered for {@code (B, A)} itself.
+ * If no function is registered for the exact types, the superclasses of both shapes are tried.
+ * Pairs without any function yield an {@link UnsupportedIntersection}.
+ * <p>
+ * Resolved lookups are cached per pair of types, so dispatch costs two hash lookups.
+ * Registering is thread-safe and replaces the cache, so lookups running concurrently cache their
+ * results in the replaced cache only.
+ */
+public class IntersectionRegistry {
+  /**
+   * The registered functions.
+   */
+  private final Map<Class<?>, Map<Class<?>, IntersectionFunction<Shape3D, Shape3D>>> functions =
+          new ConcurrentHashMap<>();
+
+  /**
+   * The resolved functions per pair of concrete types, including swapped and unsupported pairs,
+   * replaced after the registered functions changed.
+   */
+  private volatile Map<Class<?>, Map<Class<?>, IntersectionFunction<Shape3D, Shape3D>>> resolved =
+          new ConcurrentHashMap<>();
+
+  /**
+   * Registers the function intersecting shapes of types {@code typeA} and {@code typeB},
+   * replacing a function registered for the same types.
+   */
+  @SuppressWarnings("unchecked")
+  public <A extends Shape3D, B extends Shape3D> void register(Class<A> typeA, Class<B> typeB,
+                                                             IntersectionFunction<? super A, ? super B> function) {
+    var f = (IntersectionFunction<Shape3D, Shape3D>) function;
+    functions.computeIfAbsent(typeA, type -> new ConcurrentHashMap<>()).put(typeB, f);
+    resolved = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Returns true if shapes of the given types can be intersected.
+   */
+  public boolean isSupported(Class<? extends Shape3D> typeA, Class<? extends Shape3D> typeB) {
+    return find(typeA, typeB) != null;
+  }
+
+  /**
+   * Intersects the shapes with the function registered for their types.
+   *
+   * @return the result of the function, or an {@link UnsupportedIntersection} if there is none
+   */
+  public List<Shape3D> intersect(Shape3D a, Shape3D b) {
+    return lookup(a.getClass(), b.getClass()).intersect(a, b);
+  }
+
+  private IntersectionFunction<Shape3D, Shape3D> lookup(Class<?> typeA, Class<?> typeB) {
+    // the cache read before the functions, so a result found before a register call cannot outlive it
+    var cache = resolved;
+    var row = cache.get(typeA);
+    var function = row != null ? row.get(typeB) : null;
+    if (function == null) {
+      function = find(typeA, typeB);
+      if (function == null) {
+        var unsupported = new UnsupportedIntersection(typeA, typeB);
+        function = (a, b) -> unsupported;
+      }
+      cache.computeIfAbsent(typeA, type -> new ConcurrentHashMap<>()).put(typeB, function);
+    }
+    return function;
+  }
+
+  /**
+   * Finds the function for the given types, walking up the superclasses of both.
+   *
+   * @return the function, or {@code null} if there is none
+   */
+  private IntersectionFunction<Shape3D, Shape3D> find(Class<?> typeA, Class<?> typeB) {
+    for (Class<?> a = typeA; a != null; a = a.getSuperclass()) {
+      for (Class<?> b = typeB; b != null; b = b.getSuperclass()) {
+        var function = get(a, b);
+        if (function != null) {
+          return function;
+        }
+        var swapped = get(b, a);
+        if (swapped != null) {
+          return (x, y) -> swapped.intersect(y, x);
+        }
+      }
+    }
+    return null;
+  }
+
+  private IntersectionFunction<Shape3D, Shape3D> get(Class<?> typeA, Class<?> typeB) {
+    var row = functions.get(typeA);
+    return row != null ? row.get(typeB) : null;
+  }
+}
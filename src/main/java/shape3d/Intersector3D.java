@@ -7,49 +7,93 @@ package shape3d;
 
 import com.jme3.math.Vector3f;
 import math.MathF;
+import math.MathHelper;
+import misc.AxisAlignedBoundingBox;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Implementions of intersection computations between 3D shapes.
  */
 public class Intersector3D {
+  /**
+   * The intersection functions used by {@link #intersect(Shape3D, Shape3D)}.
+   */
+  private static final IntersectionRegistry REGISTRY = new IntersectionRegistry();
+
+  static {
+    REGISTRY.register(Ray3D.class, Plane.class, Intersector3D::intersectRayPlane);
+    REGISTRY.register(Ray3D.class, Sphere.class, Intersector3D::intersectRaySphere);
+    REGISTRY.register(Ray3D.class, AxisAlignedBoundingBox.class, Intersector3D::intersectRayBox);
+    REGISTRY.register(Ray3D.class, Triangle.class, Intersector3D::intersectRayTriangle);
+    REGISTRY.register(Ray3D.class, TriangleMesh.class, Intersector3D::intersectRayMesh);
+    REGISTRY.register(Plane.class, Plane.class, Intersector3D::intersectPlanePlane);
+    REGISTRY.register(AxisAlignedBoundingBox.class, AxisAlignedBoundingBox.class, Intersector3D::intersectBoxBox);
+    REGISTRY.register(Segment3D.class, Plane.class, Intersector3D::intersectSegmentPlane);
+    REGISTRY.register(Segment3D.class, Sphere.class, Intersector3D::intersectSegmentSphere);
+    REGISTRY.register(Segment3D.class, AxisAlignedBoundingBox.class, Intersector3D::intersectSegmentBox);
+    REGISTRY.register(Segment3D.class, Segment3D.class, Intersector3D::intersectSegmentSegment);
+    REGISTRY.register(Segment3D.class, Triangle.class, Intersector3D::intersectSegmentTriangle);
+    REGISTRY.register(Segment3D.class, TriangleMesh.class, Intersector3D::intersectSegmentMesh);
+  }
+
+  /**
+   * Intersects two shapes with the function registered for their types, in either order.
+   *
+   * @return the shapes both shapes have in common, or an {@link UnsupportedIntersection}
+   * if no function is registered for their types
+   * @see IntersectionRegistry
+   */
+  public static List<Shape3D> intersect(Shape3D a, Shape3D b) {
+    return REGISTRY.intersect(a, b);
+  }
+
+  /**
+   * Registers the function used by {@link #intersect(Shape3D, Shape3D)} for shapes of the given types,
+   * which makes new shapes intersectable without changing this class.
+   */
+  public static <A extends Shape3D, B extends Shape3D> void register(Class<A> typeA, Class<B> typeB,
+                                                                    IntersectionFunction<? super A, ? super B> function) {
+    REGISTRY.register(typeA, typeB, function);
+  }
+
+  /**
+   * Returns true if a function is registered for shapes of the given types, in either order.
+   */
+  public static boolean isSupported(Class<? extends Shape3D> typeA, Class<? extends Shape3D> typeB) {
+    return REGISTRY.isSupported(typeA, typeB);
+  }
 
   public static List<Shape3D> intersectRayWith(Ray3D ray, Shape3D shape) {
-    if (shape instanceof Plane) {
-      return intersectRayPlane(ray, (Plane) shape);
-    } else if (shape instanceof Sphere) {
-      return intersectRaySphere(ray, (Sphere) shape);
-    } else {
-      System.out.println("Intersection not implemented: " + ray + " <-> " + shape);
-      return null;
-    }
+    return intersect(ray, shape);
   }
 
   public static List<Shape3D> intersectPlaneWith(Plane plane, Shape3D shape) {
-    if (shape instanceof Ray3D) {
-      return intersectRayPlane((Ray3D) shape, plane);
-    } else if (shape instanceof Plane) {
-      return intersectPlanePlane(plane, (Plane) shape);
-    } else {
-      System.out.println("Intersection not implemented: " + plane + " <-> " + shape);
-      return null;
-    }
+    return intersect(plane, shape);
   }
 
   public static List<Shape3D> intersectSphereWith(Sphere sphere, Shape3D shape) {
-    if (shape instanceof Ray3D) {
-      return intersectRaySphere((Ray3D) shape, sphere);
-    } else {
-      System.out.println("Intersection not implemented: " + sphere + " <-> " + shape);
-      return null;
-    }
+    return intersect(sphere, shape);
+  }
+
+  public static List<Shape3D> intersectBoxWith(AxisAlignedBoundingBox box, Shape3D shape) {
+    return intersect(box, shape);
+  }
+
+  public static List<Shape3D> intersectTriangleWith(Triangle triangle, Shape3D shape) {
+    return intersect(triangle, shape);
+  }
+
+  public static List<Shape3D> intersectMeshWith(TriangleMesh mesh, Shape3D shape) {
+    return intersect(mesh, shape);
   }
 
   public static List<Shape3D> intersectRayPlane(Ray3D ray, Plane plane) {
     float b = plane.getNormal().dot(ray.getDir());
     if (Math.abs(b) < 1e-5) {
-      return null;
+      return List.of();
     }
     float a = plane.getPoint().dot(plane.getNormal()) - plane.getNormal().dot(ray.getPoint());
     float lambda = a / b;
@@ -76,6 +120,624 @@ public class Intersector3D {
     }
   }
 
+  /**
+   * Intersects a ray with a normalized direction with the sphere, returning the nearest hit
+   * with a non-negative ray parameter only. Does not allocate and takes a single square root.
+   * <p>
+   * The discriminant is computed from the distance of the sphere center to the ray, which,
+   * unlike the textbook form, does not cancel for spheres far from the ray origin, and the
+   * nearer root is derived from the farther one without subtracting nearly equal values.
+   * Rays starting outside the sphere and pointing away from it are rejected before any root is taken.
+   *
+   * @return the ray parameter of the nearest hit in front of the ray origin, where rays starting
+   * inside the sphere hit it where they leave it, or {@link Float#NaN} if the ray misses
+   */
+  public static float intersectRaySphereNormalized(Ray3D ray, Sphere sphere) {
+    var p = ray.getPoint();
+    var d = ray.getDir();
+    var c = sphere.getCenter();
+    var r = sphere.getRadius();
+    var fx = p.x - c.x;
+    var fy = p.y - c.y;
+    var fz = p.z - c.z;
+    var b = fx * d.x + fy * d.y + fz * d.z;
+    var cc = fx * fx + fy * fy + fz * fz - r * r;
+    if (cc > 0 && b > 0) {
+      // outside and pointing away
+      return Float.NaN;
+    }
+
+    // r² minus the squared distance of the center to the closest point on the line
+    var lx = fx - b * d.x;
+    var ly = fy - b * d.y;
+    var lz = fz - b * d.z;
+    var discriminant = r * r - (lx * lx + ly * ly + lz * lz);
+    if (discriminant < 0) {
+      return Float.NaN;
+    }
+
+    var q = -(b + Math.copySign(MathF.sqrt(discriminant), b));
+    var t0 = q;
+    var t1 = q != 0 ? cc / q : 0;
+    var near = Math.min(t0, t1);
+    var far = Math.max(t0, t1);
+    if (near >= 0) {
+      return near;
+    }
+    return far >= 0 ? far : Float.NaN;
+  }
+
+  /**
+   * Intersects the ray with the surface of the box.
+   *
+   * @return the points where the ray enters and leaves the box, only the latter if the ray starts
+   * inside the box, and an empty list if the ray misses
+   */
+  public static List<Shape3D> intersectRayBox(Ray3D ray, AxisAlignedBoundingBox box) {
+    var t = new float[2];
+    if (!testRayBox(ray, ray.getInverseDir(new Vector3f()), box, Float.POSITIVE_INFINITY, t)) {
+      return List.of();
+    }
+    if (t[0] > 0 && t[0] < t[1]) {
+      return List.of(new Point3D(ray.eval(t[0])), new Point3D(ray.eval(t[1])));
+    }
+    return List.of(new Point3D(ray.eval(t[1])));
+  }
+
+  /**
+   * Intersects two boxes.
+   *
+   * @return a list holding the box both boxes overlap in, or an empty list if they are disjoint
+   */
+  public static List<Shape3D> intersectBoxBox(AxisAlignedBoundingBox box1, AxisAlignedBoundingBox box2) {
+    if (!testBoxBox(box1, box2)) {
+      return List.of();
+    }
+    var overlap = new AxisAlignedBoundingBox();
+    overlap.grow(Math.max(box1.getMinX(), box2.getMinX()),
+            Math.max(box1.getMinY(), box2.getMinY()),
+            Math.max(box1.getMinZ(), box2.getMinZ()));
+    overlap.grow(Math.min(box1.getMaxX(), box2.getMaxX()),
+            Math.min(box1.getMaxY(), box2.getMaxY()),
+            Math.min(box1.getMaxZ(), box2.getMaxZ()));
+    return List.of(overlap);
+  }
+
+  /**
+   * Intersects the ray with the triangle.
+   *
+   * @return a list holding the hit point, or an empty list if the ray misses
+   */
+  public static List<Shape3D> intersectRayTriangle(Ray3D ray, Triangle triangle) {
+    var lambda = intersectRayTriangle(ray, triangle, null);
+    return Float.isNaN(lambda) ? List.of() : List.of(new Point3D(ray.eval(lambda)));
+  }
+
+  /**
+   * Intersects the ray with all triangles of the mesh.
+   *
+   * @return a new list of the hit points, in the order of the triangles
+   */
+  public static List<Shape3D> intersectRayMesh(Ray3D ray, TriangleMesh mesh) {
+    var p = ray.getPoint();
+    var d = ray.getDir();
+    var vertices = mesh.getVertices();
+    var indices = mesh.getIndices();
+    List<Shape3D> result = new ArrayList<>();
+    for (int i = 0; i < indices.length; i += 3) {
+      var lambda = intersectRayTriangle(p.x, p.y, p.z, d.x, d.y, d.z,
+              vertices, 3 * indices[i], 3 * indices[i + 1], 3 * indices[i + 2], null);
+      if (!Float.isNaN(lambda)) {
+        result.add(new Point3D(ray.eval(lambda)));
+      }
+    }
+    return result;
+  }
+
+  // sphere kernel
+  // ===========================================================================
+
+  /**
+   * Intersects the ray {@code o + λ * d} with the surface of the sphere of center {@code c} and radius
+   * {@code r}, solving {@code |o + λd - c|² = r²} with the half b form of the quadratic, without allocating.
+   *
+   * @param tMin the smallest ray parameter to consider
+   * @return the smallest ray parameter of at least {@code tMin} where the ray crosses the surface,
+   * or {@link Float#NaN} if there is none
+   */
+  public static float raySphereParameter(float ox, float oy, float oz, float dx, float dy, float dz,
+                                         float cx, float cy, float cz, float r, float tMin) {
+    var fx = ox - cx;
+    var fy = oy - cy;
+    var fz = oz - cz;
+    var a = dx * dx + dy * dy + dz * dz;
+    var b = fx * dx + fy * dy + fz * dz;
+    var c = fx * fx + fy * fy + fz * fz - r * r;
+    var discriminant = b * b - a * c;
+    if (discriminant < 0 || a == 0) {
+      return Float.NaN;
+    }
+    var root = MathF.sqrt(discriminant);
+    var near = (-b - root) / a;
+    if (near >= tMin) {
+      return near;
+    }
+    var far = (-b + root) / a;
+    return far >= tMin ? far : Float.NaN;
+  }
+
+  // triangle kernels
+  // ===========================================================================
+
+  /**
+   * Intersects the ray with the triangle using the Möller–Trumbore algorithm, without allocating.
+   *
+   * @param uvStore receives the barycentric coordinates {@code (u, v)} of the hit point, see {@link Triangle},
+   *                at the indices 0 and 1 if the ray hits, may be {@code null}
+   * @return the non-negative ray parameter of the hit point, or {@link Float#NaN} if the ray misses
+   */
+  public static float intersectRayTriangle(Ray3D ray, Triangle triangle, float[] uvStore) {
+    var p = ray.getPoint();
+    var d = ray.getDir();
+    var a = triangle.getA();
+    var b = triangle.getB();
+    var c = triangle.getC();
+    return intersectRayTriangle(p.x, p.y, p.z, d.x, d.y, d.z,
+            a.x, a.y, a.z, b.x, b.y, b.z, c.x, c.y, c.z, uvStore);
+  }
+
+  /**
+   * Intersects the ray with the triangle whose corners start at the indices {@code a}, {@code b} and
+   * {@code c} of the packed coordinate array {@code vertices}.
+   *
+   * @see #intersectRayTriangle(Ray3D, Triangle, float[])
+   */
+  public static float intersectRayTriangle(float ox, float oy, float oz, float dx, float dy, float dz,
+                                           float[] vertices, int a, int b, int c, float[] uvStore) {
+    return intersectRayTriangle(ox, oy, oz, dx, dy, dz,
+            vertices[a], vertices[a + 1], vertices[a + 2],
+            vertices[b], vertices[b + 1], vertices[b + 2],
+            vertices[c], vertices[c + 1], vertices[c + 2], uvStore);
+  }
+
+  /**
+   * Intersects the ray {@code o + λ * d} with the triangle {@code (a, b, c)} using the Möller–Trumbore
+   * algorithm, which solves {@code o + λ * d = (1 - u - v) * a + u * b + v * c} by Cramer's rule.
+   * Both sides of the triangle are hit, rays in the plane of the triangle miss it.
+   *
+   * @param uvStore receives the barycentric coordinates {@code (u, v)} of the hit point
+   *                at the indices 0 and 1 if the ray hits, may be {@code null}
+   * @return the non-negative ray parameter of the hit point, or {@link Float#NaN} if the ray misses
+   */
+  public static float intersectRayTriangle(float ox, float oy, float oz, float dx, float dy, float dz,
+                                           float ax, float ay, float az,
+                                           float bx, float by, float bz,
+                                           float cx, float cy, float cz, float[] uvStore) {
+    // edges
+    var e1x = bx - ax;
+    var e1y = by - ay;
+    var e1z = bz - az;
+    var e2x = cx - ax;
+    var e2y = cy - ay;
+    var e2z = cz - az;
+
+    // p = d x e2, det = e1 . p
+    var px = dy * e2z - dz * e2y;
+    var py = dz * e2x - dx * e2z;
+    var pz = dx * e2y - dy * e2x;
+    var det = e1x * px + e1y * py + e1z * pz;
+    if (det == 0) {
+      return Float.NaN;
+    }
+    var invDet = 1 / det;
+
+    var tx = ox - ax;
+    var ty = oy - ay;
+    var tz = oz - az;
+    var u = (tx * px + ty * py + tz * pz) * invDet;
+    if (u < 0 || u > 1) {
+      return Float.NaN;
+    }
+
+    // q = t x e1
+    var qx = ty * e1z - tz * e1y;
+    var qy = tz * e1x - tx * e1z;
+    var qz = tx * e1y - ty * e1x;
+    var v = (dx * qx + dy * qy + dz * qz) * invDet;
+    if (v < 0 || u + v > 1) {
+      return Float.NaN;
+    }
+
+    var lambda = (e2x * qx + e2y * qy + e2z * qz) * invDet;
+    if (!(lambda >= 0)) {
+      return Float.NaN;
+    }
+    if (uvStore != null) {
+      uvStore[0] = u;
+      uvStore[1] = v;
+    }
+    return lambda;
+  }
+
+  /**
+   * Finds the triangle of the mesh hit first by the ray, testing all triangles without allocating.
+   *
+   * @param maxLambda the largest ray parameter to consider
+   * @param hitStore  receives the ray parameter and the barycentric coordinates {@code (u, v)}
+   *                  of the hit point at the indices 0, 1 and 2 if a triangle is hit, may be {@code null},
+   *                  left unchanged if no triangle is hit
+   * @return the index of the triangle hit first, or -1 if no triangle is hit
+   */
+  public static int intersectRayMesh(Ray3D ray, TriangleMesh mesh, float maxLambda, float[] hitStore) {
+    int best = -1;
+    var bestLambda = maxLambda;
+    for (int i = 0, n = mesh.getIndices().length / 3; i < n; i++) {
+      var lambda = intersectRayMeshTriangle(ray, mesh, i, null);
+      if (lambda <= bestLambda) {
+        best = i;
+        bestLambda = lambda;
+      }
+    }
+    if (best >= 0 && hitStore != null) {
+      // only the triangle hit first computes its barycentric coordinates
+      intersectRayMeshTriangle(ray, mesh, best, hitStore);
+      hitStore[2] = hitStore[1];
+      hitStore[1] = hitStore[0];
+      hitStore[0] = bestLambda;
+    }
+    return best;
+  }
+
+  /**
+   * Intersects the ray with the triangle of the given index of the mesh.
+   *
+   * @see #intersectRayTriangle(float, float, float, float, float, float, float[], int, int, int, float[])
+   */
+  private static float intersectRayMeshTriangle(Ray3D ray, TriangleMesh mesh, int triangle, float[] uvStore) {
+    var p = ray.getPoint();
+    var d = ray.getDir();
+    var indices = mesh.getIndices();
+    return intersectRayTriangle(p.x, p.y, p.z, d.x, d.y, d.z, mesh.getVertices(),
+            3 * indices[3 * triangle], 3 * indices[3 * triangle + 1], 3 * indices[3 * triangle + 2], uvStore);
+  }
+
+  // overlap tests
+  // ===========================================================================
+
+  /**
+   * Slab test of a ray against a box.
+   *
+   * @param invDir the componentwise inverse of the ray direction, see {@link Ray3D#getInverseDir(Vector3f)}
+   * @param tMax   the largest ray parameter to consider
+   * @param tStore receives the ray parameters where the ray enters and leaves the box at the indices 0 and 1
+   *               if the ray hits, may be {@code null}
+   * @return true if the ray hits the box for a ray parameter in {@code [0, tMax]}
+   */
+  public static boolean testRayBox(Ray3D ray, Vector3f invDir, AxisAlignedBoundingBox box, float tMax,
+                                   float[] tStore) {
+    if (box.isEmpty()) {
+      return false;
+    }
+    var p = ray.getPoint();
+    return testRayBox(p.x, p.y, p.z, invDir.x, invDir.y, invDir.z,
+            box.getMinX(), box.getMinY(), box.getMinZ(), box.getMaxX(), box.getMaxY(), box.getMaxZ(),
+            tMax, tStore);
+  }
+
+  /**
+   * Slab test of the ray {@code o + λ * d} against the box {@code [min, max]}, given the componentwise
+   * inverse {@code 1 / d} of the direction. This is the kernel for traversing hierarchies of boxes,
+   * where the inverse direction is computed once per ray.
+   *
+   * @param tMax   the largest ray parameter to consider
+   * @param tStore receives the ray parameters where the ray enters and leaves the box at the indices 0 and 1
+   *               if the ray hits, may be {@code null}
+   * @return true if the ray hits the box for a ray parameter in {@code [0, tMax]}
+   * @see #rayBoxParameter(float, float, float, float, float, float, float, float, float, float, float, float,
+   * float, boolean)
+   */
+  public static boolean testRayBox(float ox, float oy, float oz, float invX, float invY, float invZ,
+                                   float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+                                   float tMax, float[] tStore) {
+    var tNear = rayBoxParameter(ox, oy, oz, invX, invY, invZ, minX, minY, minZ, maxX, maxY, maxZ, tMax, false);
+    if (Float.isNaN(tNear)) {
+      return false;
+    }
+    if (tStore != null) {
+      tStore[0] = tNear;
+      tStore[1] = rayBoxParameter(ox, oy, oz, invX, invY, invZ, minX, minY, minZ, maxX, maxY, maxZ, tMax, true);
+    }
+    return true;
+  }
+
+  /**
+   * Slab kernel of the ray {@code o + λ * d} against the box {@code [min, max]}, given the componentwise
+   * inverse {@code 1 / d} of the direction, clipping the ray to {@code [0, tMax]}.
+   * <p>
+   * Rays running within one of the bounding planes of a slab produce NaNs,
+   * which are skipped by the comparisons, so such rays count as hitting that slab.
+   *
+   * @param tMax the largest ray parameter to consider
+   * @param exit whether to return the parameter where the clipped ray leaves the box
+   *             instead of where it enters it
+   * @return the ray parameter in {@code [0, tMax]} where the clipped ray enters the box, which is 0
+   * for a ray starting inside, or leaves it, or {@link Float#NaN} if the ray misses
+   */
+  public static float rayBoxParameter(float ox, float oy, float oz, float invX, float invY, float invZ,
+                                      float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+                                      float tMax, boolean exit) {
+    var tx0 = (minX - ox) * invX;
+    var tx1 = (maxX - ox) * invX;
+    var ty0 = (minY - oy) * invY;
+    var ty1 = (maxY - oy) * invY;
+    var tz0 = (minZ - oz) * invZ;
+    var tz1 = (maxZ - oz) * invZ;
+
+    var tNear = 0f;
+    var tFar = tMax;
+    var t = Math.min(tx0, tx1);
+    tNear = t > tNear ? t : tNear;
+    t = Math.max(tx0, tx1);
+    tFar = t < tFar ? t : tFar;
+    t = Math.min(ty0, ty1);
+    tNear = t > tNear ? t : tNear;
+    t = Math.max(ty0, ty1);
+    tFar = t < tFar ? t : tFar;
+    t = Math.min(tz0, tz1);
+    tNear = t > tNear ? t : tNear;
+    t = Math.max(tz0, tz1);
+    tFar = t < tFar ? t : tFar;
+
+    if (tNear > tFar) {
+      return Float.NaN;
+    }
+    return exit ? tFar : tNear;
+  }
+
+  /**
+   * Tests whether two boxes overlap, touching boxes overlap.
+   */
+  public static boolean testBoxBox(AxisAlignedBoundingBox box1, AxisAlignedBoundingBox box2) {
+    if (box1.isEmpty() || box2.isEmpty()) {
+      return false;
+    }
+    return box1.getMinX() <= box2.getMaxX() && box2.getMinX() <= box1.getMaxX()
+            && box1.getMinY() <= box2.getMaxY() && box2.getMinY() <= box1.getMaxY()
+            && box1.getMinZ() <= box2.getMaxZ() && box2.getMinZ() <= box1.getMaxZ();
+  }
+
+  /**
+   * Tests whether a box and a solid sphere overlap,
+   * by comparing the distance of the center to its closest point in the box to the radius.
+   */
+  public static boolean testBoxSphere(AxisAlignedBoundingBox box, Sphere sphere) {
+    if (box.isEmpty()) {
+      return false;
+    }
+    var c = sphere.getCenter();
+    var dx = c.x - MathHelper.minmax(c.x, box.getMinX(), box.getMaxX());
+    var dy = c.y - MathHelper.minmax(c.y, box.getMinY(), box.getMaxY());
+    var dz = c.z - MathHelper.minmax(c.z, box.getMinZ(), box.getMaxZ());
+    var r = sphere.getRadius();
+    return dx * dx + dy * dy + dz * dz <= r * r;
+  }
+
+  /**
+   * Tests whether a plane cuts or touches a box, by comparing the distance of the box center
+   * to the plane to the projection of the box extent onto the plane normal.
+   */
+  public static boolean testBoxPlane(AxisAlignedBoundingBox box, Plane plane) {
+    if (box.isEmpty()) {
+      return false;
+    }
+    var n = plane.getNormal();
+    var q = plane.getPoint();
+    var cx = 0.5f * (box.getMinX() + box.getMaxX());
+    var cy = 0.5f * (box.getMinY() + box.getMaxY());
+    var cz = 0.5f * (box.getMinZ() + box.getMaxZ());
+    var radius = 0.5f * ((box.getMaxX() - box.getMinX()) * Math.abs(n.x)
+            + (box.getMaxY() - box.getMinY()) * Math.abs(n.y)
+            + (box.getMaxZ() - box.getMinZ()) * Math.abs(n.z));
+    var distance = n.x * (cx - q.x) + n.y * (cy - q.y) + n.z * (cz - q.z);
+    return Math.abs(distance) <= radius;
+  }
+
+  // hit records
+  // ===========================================================================
+
+  /**
+   * Intersects the ray with the shape and records the nearest hit with a non-negative ray parameter
+   * in {@code hitStore}, if it is nearer than the hit already recorded there. Does not allocate.
+   * <p>
+   * Supports the {@link Traceable} shapes, see {@link Traceable#intersect(Ray3D, Hit)}.
+   * For triangle meshes, the index and barycentric coordinates of the hit triangle are recorded.
+   *
+   * @return true if a hit was recorded
+   */
+  public static boolean intersect(Ray3D ray, Shape3D shape, Hit hitStore) {
+    return shape instanceof Traceable && ((Traceable) shape).intersect(ray, hitStore);
+  }
+
+  /**
+   * Records the hit of the ray with the sphere, see {@link #intersect(Ray3D, Shape3D, Hit)}.
+   */
+  public static boolean intersect(Ray3D ray, Sphere sphere, Hit hitStore) {
+    var lambda = intersectRayParameter(ray, sphere);
+    if (!(lambda <= hitStore.getLambda())) {
+      return false;
+    }
+    hitStore.record(sphere, lambda);
+    var point = ray.eval(lambda, hitStore.getPoint());
+    hitStore.getNormal().set(point).subtractLocal(sphere.getCenter()).normalizeLocal();
+    return true;
+  }
+
+  /**
+   * Records the hit of the ray with the plane, see {@link #intersect(Ray3D, Shape3D, Hit)}.
+   */
+  public static boolean intersect(Ray3D ray, Plane plane, Hit hitStore) {
+    var lambda = intersectRayParameter(ray, plane);
+    if (!(lambda <= hitStore.getLambda())) {
+      return false;
+    }
+    hitStore.record(plane, lambda);
+    ray.eval(lambda, hitStore.getPoint());
+    hitStore.getNormal().set(plane.getNormal()).normalizeLocal();
+    return true;
+  }
+
+  /**
+   * Records the hit of the ray with the box, see {@link #intersect(Ray3D, Shape3D, Hit)}.
+   */
+  public static boolean intersect(Ray3D ray, AxisAlignedBoundingBox box, Hit hitStore) {
+    var lambda = intersectRayParameter(ray, box);
+    if (!(lambda <= hitStore.getLambda())) {
+      return false;
+    }
+    hitStore.record(box, lambda);
+    var point = ray.eval(lambda, hitStore.getPoint());
+    boxNormal(box, point, hitStore.getNormal());
+    return true;
+  }
+
+  /**
+   * Records the hit of the ray with the triangle, see {@link #intersect(Ray3D, Shape3D, Hit)}.
+   */
+  public static boolean intersect(Ray3D ray, Triangle triangle, Hit hitStore) {
+    var scratch = hitStore.scratch;
+    var lambda = intersectRayTriangle(ray, triangle, scratch);
+    if (!(lambda <= hitStore.getLambda())) {
+      return false;
+    }
+    hitStore.record(triangle, lambda);
+    hitStore.setTriangle(-1, scratch[0], scratch[1]);
+    ray.eval(lambda, hitStore.getPoint());
+    triangle.getNormal(hitStore.getNormal());
+    return true;
+  }
+
+  /**
+   * Records the hit of the ray with the mesh, see {@link #intersect(Ray3D, Shape3D, Hit)}.
+   */
+  public static boolean intersect(Ray3D ray, TriangleMesh mesh, Hit hitStore) {
+    var scratch = hitStore.scratch;
+    int triangle = intersectRayMesh(ray, mesh, hitStore.getLambda(), scratch);
+    if (triangle < 0) {
+      return false;
+    }
+    hitStore.record(mesh, scratch[0]);
+    hitStore.setTriangle(triangle, scratch[1], scratch[2]);
+    ray.eval(scratch[0], hitStore.getPoint());
+    var vertices = mesh.getVertices();
+    var indices = mesh.getIndices();
+    int a = 3 * indices[3 * triangle];
+    int b = 3 * indices[3 * triangle + 1];
+    int c = 3 * indices[3 * triangle + 2];
+    var ex = vertices[b] - vertices[a];
+    var ey = vertices[b + 1] - vertices[a + 1];
+    var ez = vertices[b + 2] - vertices[a + 2];
+    var fx = vertices[c] - vertices[a];
+    var fy = vertices[c + 1] - vertices[a + 1];
+    var fz = vertices[c + 2] - vertices[a + 2];
+    hitStore.getNormal().set(ey * fz - ez * fy, ez * fx - ex * fz, ex * fy - ey * fx).normalizeLocal();
+    return true;
+  }
+
+  /**
+   * Computes the outward normal of the box face nearest to a point on its surface.
+   */
+  private static void boxNormal(AxisAlignedBoundingBox box, Vector3f point, Vector3f store) {
+    // offsets from the center relative to the half extents, the face has the largest one
+    var rx = relativeOffset(point.x, box.getMinX(), box.getMaxX());
+    var ry = relativeOffset(point.y, box.getMinY(), box.getMaxY());
+    var rz = relativeOffset(point.z, box.getMinZ(), box.getMaxZ());
+    var ax = Math.abs(rx);
+    var ay = Math.abs(ry);
+    var az = Math.abs(rz);
+    if (ax >= ay && ax >= az) {
+      store.set(Math.signum(rx), 0, 0);
+    } else if (ay >= az) {
+      store.set(0, Math.signum(ry), 0);
+    } else {
+      store.set(0, 0, Math.signum(rz));
+    }
+  }
+
+  private static float relativeOffset(float x, float min, float max) {
+    var halfExtent = 0.5f * (max - min);
+    var offset = x - 0.5f * (min + max);
+    return halfExtent > 0 ? offset / halfExtent : Math.signum(offset);
+  }
+
+  /**
+   * Computes the smallest non-negative ray parameter {@code λ} at which the ray hits the shape.
+   * The hit point is {@code ray.eval(λ)}.
+   * <p>
+   * Supports the {@link Traceable} shapes, all of them intersected without allocating.
+   * A ray starting inside a sphere or box hits it where it leaves it.
+   *
+   * @return the ray parameter, or {@link Float#NaN} if the ray misses or the shape is not supported
+   */
+  public static float intersectRayParameter(Ray3D ray, Shape3D shape) {
+    return shape instanceof Traceable ? ((Traceable) shape).intersectRayParameter(ray) : Float.NaN;
+  }
+
+  /**
+   * Computes the ray parameter of the hit with the sphere, see {@link #intersectRayParameter(Ray3D, Shape3D)}.
+   */
+  public static float intersectRayParameter(Ray3D ray, Sphere sphere) {
+    var p = ray.getPoint();
+    var d = ray.getDir();
+    var c = sphere.getCenter();
+    return raySphereParameter(p.x, p.y, p.z, d.x, d.y, d.z, c.x, c.y, c.z, sphere.getRadius(), 0);
+  }
+
+  /**
+   * Computes the ray parameter of the hit with the plane, see {@link #intersectRayParameter(Ray3D, Shape3D)}.
+   */
+  public static float intersectRayParameter(Ray3D ray, Plane plane) {
+    var p = ray.getPoint();
+    var d = ray.getDir();
+    var n = plane.getNormal();
+    var q = plane.getPoint();
+    var b = n.x * d.x + n.y * d.y + n.z * d.z;
+    if (Math.abs(b) < 1e-5) {
+      return Float.NaN;
+    }
+    var lambda = (n.x * (q.x - p.x) + n.y * (q.y - p.y) + n.z * (q.z - p.z)) / b;
+    return lambda >= 0 ? lambda : Float.NaN;
+  }
+
+  /**
+   * Computes the ray parameter of the hit with the box, see {@link #intersectRayParameter(Ray3D, Shape3D)}.
+   */
+  public static float intersectRayParameter(Ray3D ray, AxisAlignedBoundingBox box) {
+    if (box.isEmpty()) {
+      return Float.NaN;
+    }
+    var p = ray.getPoint();
+    var d = ray.getDir();
+    var invX = 1 / d.x;
+    var invY = 1 / d.y;
+    var invZ = 1 / d.z;
+    var entry = rayBoxParameter(p.x, p.y, p.z, invX, invY, invZ, box.getMinX(), box.getMinY(), box.getMinZ(),
+            box.getMaxX(), box.getMaxY(), box.getMaxZ(), Float.POSITIVE_INFINITY, false);
+    if (entry > 0 || Float.isNaN(entry)) {
+      return entry;
+    }
+    // starting inside, the ray hits where it leaves the box
+    return rayBoxParameter(p.x, p.y, p.z, invX, invY, invZ, box.getMinX(), box.getMinY(), box.getMinZ(),
+            box.getMaxX(), box.getMaxY(), box.getMaxZ(), Float.POSITIVE_INFINITY, true);
+  }
+
+  /**
+   * Computes the ray parameter of the hit with the mesh, see {@link #intersectRayParameter(Ray3D, Shape3D)}.
+   */
+  public static float intersectRayParameter(Ray3D ray, TriangleMesh mesh) {
+    int triangle = intersectRayMesh(ray, mesh, Float.POSITIVE_INFINITY, null);
+    return triangle >= 0 ? intersectRayMeshTriangle(ray, mesh, triangle, null) : Float.NaN;
+  }
+
   public static List<Shape3D> intersectPlanePlane(Plane p1, Plane p2) {
     if (p1.getNormal().normalize().dot(p2.getNormal().normalize()) > 0.98f) {
       // Planes parallel
@@ -89,7 +751,344 @@ public class Intersector3D {
   }
 
   public static List<Shape3D> intersectSegmentWith(Segment3D segment3D, Shape3D shape) {
-    System.out.println("Intersection not implemented: " + segment3D + " <-> " + shape);
-    return null;
+    return intersect(segment3D, shape);
+  }
+
+  // segments
+  // ===========================================================================
+
+  /**
+   * Intersects the segment with the plane.
+   *
+   * @return a list holding the point where the segment crosses the plane, or an empty list if it does not
+   * reach the plane or runs parallel to it
+   */
+  public static List<Shape3D> intersectSegmentPlane(Segment3D segment, Plane plane) {
+    var a = segment.getStart();
+    var b = segment.getEnd();
+    var n = plane.getNormal();
+    var q = plane.getPoint();
+    var lambda = segmentPlaneParameter(a.x, a.y, a.z, b.x - a.x, b.y - a.y, b.z - a.z,
+            n.x, n.y, n.z, n.x * q.x + n.y * q.y + n.z * q.z);
+    if (Float.isNaN(lambda)) {
+      return List.of();
+    }
+    return List.of(new Point3D(segment.eval(lambda, new Vector3f())));
+  }
+
+  /**
+   * Intersects the segment with the surface of the sphere.
+   *
+   * @return the points where the segment crosses the surface, ordered from start to end,
+   * which is an empty list if the segment lies completely inside or outside the sphere
+   */
+  public static List<Shape3D> intersectSegmentSphere(Segment3D segment, Sphere sphere) {
+    var a = segment.getStart();
+    var b = segment.getEnd();
+    var c = sphere.getCenter();
+    var r = sphere.getRadius();
+    List<Shape3D> result = new ArrayList<>(2);
+    var lambda = raySphereParameter(a.x, a.y, a.z, b.x - a.x, b.y - a.y, b.z - a.z, c.x, c.y, c.z, r, 0);
+    while (lambda <= 1) {
+      result.add(new Point3D(segment.eval(lambda, new Vector3f())));
+      lambda = raySphereParameter(a.x, a.y, a.z, b.x - a.x, b.y - a.y, b.z - a.z, c.x, c.y, c.z, r,
+              Math.nextUp(lambda));
+    }
+    return result;
+  }
+
+  /**
+   * Intersects the segment with the surface of the box.
+   *
+   * @return the points where the segment crosses the surface, ordered from start to end,
+   * which is an empty list if the segment lies completely inside or outside the box
+   */
+  public static List<Shape3D> intersectSegmentBox(Segment3D segment, AxisAlignedBoundingBox box) {
+    var a = segment.getStart();
+    var b = segment.getEnd();
+    var t = new float[2];
+    int crossings = segmentBoxCrossings(a.x, a.y, a.z, b.x, b.y, b.z, box, t);
+    List<Shape3D> result = new ArrayList<>(crossings);
+    for (int i = 0; i < crossings; i++) {
+      result.add(new Point3D(segment.eval(t[i], new Vector3f())));
+    }
+    return result;
+  }
+
+  /**
+   * Finds the parameters where the segment from {@code a} to {@code b} crosses the surface of the box.
+   *
+   * @param tStore receives the parameters of the crossings in ascending order, may be {@code null}
+   * @return the number of crossings, up to 2
+   */
+  private static int segmentBoxCrossings(float ax, float ay, float az, float bx, float by, float bz,
+                                         AxisAlignedBoundingBox box, float[] tStore) {
+    if (box.isEmpty()) {
+      return 0;
+    }
+    var invX = 1 / (bx - ax);
+    var invY = 1 / (by - ay);
+    var invZ = 1 / (bz - az);
+    var entry = rayBoxParameter(ax, ay, az, invX, invY, invZ,
+            box.getMinX(), box.getMinY(), box.getMinZ(), box.getMaxX(), box.getMaxY(), box.getMaxZ(), 1, false);
+    if (Float.isNaN(entry)) {
+      return 0;
+    }
+    var exit = rayBoxParameter(ax, ay, az, invX, invY, invZ,
+            box.getMinX(), box.getMinY(), box.getMinZ(), box.getMaxX(), box.getMaxY(), box.getMaxZ(), 1, true);
+    // the slab test clips to [0, 1], so parameters at the ends may be the segment's end points
+    int crossings = 0;
+    if (entry > 0 || isOnBoxSurface(ax, ay, az, box)) {
+      if (tStore != null) {
+        tStore[crossings] = entry;
+      }
+      crossings++;
+    }
+    if (exit > entry && (exit < 1 || isOnBoxSurface(bx, by, bz, box))) {
+      if (tStore != null) {
+        tStore[crossings] = exit;
+      }
+      crossings++;
+    }
+    return crossings;
+  }
+
+  /**
+   * Intersects the segment with the triangle, using the Möller–Trumbore ray kernel clipped to the segment.
+   *
+   * @return a list holding the point where the segment crosses the triangle, or an empty list if it misses
+   * @see #intersectRayTriangle(float, float, float, float, float, float, float, float, float, float, float,
+   * float, float, float, float, float[])
+   */
+  public static List<Shape3D> intersectSegmentTriangle(Segment3D segment, Triangle triangle) {
+    var a = segment.getStart();
+    var b = segment.getEnd();
+    var ta = triangle.getA();
+    var tb = triangle.getB();
+    var tc = triangle.getC();
+    var lambda = intersectRayTriangle(a.x, a.y, a.z, b.x - a.x, b.y - a.y, b.z - a.z,
+            ta.x, ta.y, ta.z, tb.x, tb.y, tb.z, tc.x, tc.y, tc.z, null);
+    return lambda <= 1 ? List.of(new Point3D(segment.eval(lambda, new Vector3f()))) : List.of();
+  }
+
+  /**
+   * Intersects the segment with all triangles of the mesh.
+   *
+   * @return a new list of the points where the segment crosses a triangle, in the order of the triangles
+   */
+  public static List<Shape3D> intersectSegmentMesh(Segment3D segment, TriangleMesh mesh) {
+    var a = segment.getStart();
+    var b = segment.getEnd();
+    var vertices = mesh.getVertices();
+    var indices = mesh.getIndices();
+    List<Shape3D> result = new ArrayList<>();
+    for (int i = 0; i < indices.length; i += 3) {
+      var lambda = intersectRayTriangle(a.x, a.y, a.z, b.x - a.x, b.y - a.y, b.z - a.z,
+              vertices, 3 * indices[i], 3 * indices[i + 1], 3 * indices[i + 2], null);
+      if (lambda <= 1) {
+        result.add(new Point3D(segment.eval(lambda, new Vector3f())));
+      }
+    }
+    return result;
+  }
+
+  private static boolean isOnBoxSurface(float x, float y, float z, AxisAlignedBoundingBox box) {
+    return x == box.getMinX() || x == box.getMaxX()
+            || y == box.getMinY() || y == box.getMaxY()
+            || z == box.getMinZ() || z == box.getMaxZ();
+  }
+
+  /**
+   * Intersects two segments, which intersect if their closest points are less than
+   * {@link MathHelper#TOLERANCE} apart.
+   *
+   * @return a list holding the intersection point, which is the midpoint of the closest points,
+   * or an empty list if the segments do not intersect
+   */
+  public static List<Shape3D> intersectSegmentSegment(Segment3D segment1, Segment3D segment2) {
+    var st = new float[2];
+    var distanceSq = closestPointsSegmentSegment(segment1, segment2, st);
+    if (distanceSq > MathHelper.TOLERANCE * MathHelper.TOLERANCE) {
+      return List.of();
+    }
+    var p1 = segment1.eval(st[0], new Vector3f());
+    var p2 = segment2.eval(st[1], new Vector3f());
+    return List.of(new Point3D(p1.addLocal(p2).multLocal(0.5f)));
+  }
+
+  /**
+   * Computes the closest points of two segments, following Ericson, Real-Time Collision Detection, 5.1.9.
+   * For parallel segments, one of the closest point pairs is chosen.
+   *
+   * @param stStore receives the segment parameters in {@code [0, 1]} of the closest points
+   *                on the first and the second segment at the indices 0 and 1, may be {@code null}
+   * @return the squared distance of the closest points
+   */
+  public static float closestPointsSegmentSegment(Segment3D segment1, Segment3D segment2, float[] stStore) {
+    var p1 = segment1.getStart();
+    var q1 = segment1.getEnd();
+    var p2 = segment2.getStart();
+    var q2 = segment2.getEnd();
+    var d1x = q1.x - p1.x;
+    var d1y = q1.y - p1.y;
+    var d1z = q1.z - p1.z;
+    var d2x = q2.x - p2.x;
+    var d2y = q2.y - p2.y;
+    var d2z = q2.z - p2.z;
+    var rx = p1.x - p2.x;
+    var ry = p1.y - p2.y;
+    var rz = p1.z - p2.z;
+    var a = d1x * d1x + d1y * d1y + d1z * d1z;
+    var e = d2x * d2x + d2y * d2y + d2z * d2z;
+    var f = d2x * rx + d2y * ry + d2z * rz;
+
+    float s;
+    float t;
+    if (a == 0 && e == 0) {
+      // both segments degenerate to points
+      s = 0;
+      t = 0;
+    } else if (a == 0) {
+      s = 0;
+      t = MathHelper.minmax(f / e, 0, 1);
+    } else {
+      var c = d1x * rx + d1y * ry + d1z * rz;
+      if (e == 0) {
+        t = 0;
+        s = MathHelper.minmax(-c / a, 0, 1);
+      } else {
+        var b = d1x * d2x + d1y * d2y + d1z * d2z;
+        var denom = a * e - b * b;
+        // closest point on the first line to the second line, clamped, unless parallel
+        s = denom != 0 ? MathHelper.minmax((b * f - c * e) / denom, 0, 1) : 0;
+        t = (b * s + f) / e;
+        if (t < 0) {
+          t = 0;
+          s = MathHelper.minmax(-c / a, 0, 1);
+        } else if (t > 1) {
+          t = 1;
+          s = MathHelper.minmax((b - c) / a, 0, 1);
+        }
+      }
+    }
+
+    var dx = (p1.x + s * d1x) - (p2.x + t * d2x);
+    var dy = (p1.y + s * d1y) - (p2.y + t * d2y);
+    var dz = (p1.z + s * d1z) - (p2.z + t * d2z);
+    if (stStore != null) {
+      stStore[0] = s;
+      stStore[1] = t;
+    }
+    return dx * dx + dy * dy + dz * dz;
+  }
+
+  /**
+   * Tests many segments against one shape, as needed for line-of-sight checks, without allocating.
+   * <p>
+   * Segment {@code i} is stored as {@code ax, ay, az, bx, by, bz} at index {@code offset + 6i}
+   * of {@code segments}. It hits the shape if {@link #intersect(Shape3D, Shape3D)} of the segment and
+   * the shape returns a point: if it crosses the surface of a sphere or box, so segments lying completely
+   * inside do not hit, if it crosses a plane, so segments lying in the plane do not hit, and if it crosses
+   * a triangle or a triangle of a mesh. The result for segment {@code i} is written to {@code hit[i]}.
+   *
+   * @return the number of segments hitting the shape
+   * @throws IllegalArgumentException  if the shape is not {@link Traceable}
+   * @throws IndexOutOfBoundsException if the arrays are too short
+   */
+  public static int testSegments(float[] segments, int offset, int count, Shape3D shape, boolean[] hit) {
+    Objects.checkFromIndexSize(offset, 6 * count, segments.length);
+    Objects.checkFromIndexSize(0, count, hit.length);
+    if (!(shape instanceof Traceable)) {
+      throw new IllegalArgumentException("Segment test not implemented: " + shape);
+    }
+    var traceable = (Traceable) shape;
+    int hits = 0;
+    for (int i = 0; i < count; i++) {
+      int o = offset + 6 * i;
+      hit[i] = traceable.testSegment(segments[o], segments[o + 1], segments[o + 2],
+              segments[o + 3], segments[o + 4], segments[o + 5]);
+      hits += hit[i] ? 1 : 0;
+    }
+    return hits;
+  }
+
+  /**
+   * Tests whether the segment from {@code a} to {@code b} crosses the surface of the sphere, see
+   * {@link #testSegments(float[], int, int, Shape3D, boolean[])}.
+   */
+  public static boolean testSegment(float ax, float ay, float az, float bx, float by, float bz, Sphere sphere) {
+    var c = sphere.getCenter();
+    return raySphereParameter(ax, ay, az, bx - ax, by - ay, bz - az, c.x, c.y, c.z, sphere.getRadius(), 0) <= 1;
+  }
+
+  /**
+   * Tests whether the segment from {@code a} to {@code b} crosses the plane, see
+   * {@link #testSegments(float[], int, int, Shape3D, boolean[])}.
+   */
+  public static boolean testSegment(float ax, float ay, float az, float bx, float by, float bz, Plane plane) {
+    var n = plane.getNormal();
+    var q = plane.getPoint();
+    return !Float.isNaN(segmentPlaneParameter(ax, ay, az, bx - ax, by - ay, bz - az,
+            n.x, n.y, n.z, n.x * q.x + n.y * q.y + n.z * q.z));
+  }
+
+  /**
+   * Tests whether the segment from {@code a} to {@code b} crosses the surface of the box, see
+   * {@link #testSegments(float[], int, int, Shape3D, boolean[])}.
+   */
+  public static boolean testSegment(float ax, float ay, float az, float bx, float by, float bz,
+                                    AxisAlignedBoundingBox box) {
+    return segmentBoxCrossings(ax, ay, az, bx, by, bz, box, null) > 0;
+  }
+
+  /**
+   * Tests whether the segment from {@code a} to {@code b} crosses the triangle, see
+   * {@link #testSegments(float[], int, int, Shape3D, boolean[])}.
+   */
+  public static boolean testSegment(float ax, float ay, float az, float bx, float by, float bz, Triangle triangle) {
+    var ta = triangle.getA();
+    var tb = triangle.getB();
+    var tc = triangle.getC();
+    return intersectRayTriangle(ax, ay, az, bx - ax, by - ay, bz - az,
+            ta.x, ta.y, ta.z, tb.x, tb.y, tb.z, tc.x, tc.y, tc.z, null) <= 1;
+  }
+
+  /**
+   * Tests whether the segment from {@code a} to {@code b} crosses a triangle of the mesh, see
+   * {@link #testSegments(float[], int, int, Shape3D, boolean[])}.
+   */
+  public static boolean testSegment(float ax, float ay, float az, float bx, float by, float bz, TriangleMesh mesh) {
+    var dx = bx - ax;
+    var dy = by - ay;
+    var dz = bz - az;
+    var vertices = mesh.getVertices();
+    var indices = mesh.getIndices();
+    for (int i = 0; i < indices.length; i += 3) {
+      if (intersectRayTriangle(ax, ay, az, dx, dy, dz,
+              vertices, 3 * indices[i], 3 * indices[i + 1], 3 * indices[i + 2], null) <= 1) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Computes the parameter at which the segment {@code a + λ * d} crosses the plane {@code n . x = nq}.
+   *
+   * The segment counts as parallel like a ray in {@link #intersectRayParameter(Ray3D, Shape3D)},
+   * if the cosine of the angle between its direction and the normal is below {@code 1e-5}.
+   *
+   * @return the parameter in {@code [0, 1]}, or {@link Float#NaN} if the segment does not reach
+   * the plane or runs parallel to it
+   */
+  private static float segmentPlaneParameter(float ax, float ay, float az, float dx, float dy, float dz,
+                                             float nx, float ny, float nz, float nq) {
+    var b = nx * dx + ny * dy + nz * dz;
+    var scale = MathF.sqrt((dx * dx + dy * dy + dz * dz) * (nx * nx + ny * ny + nz * nz));
+    if (scale == 0 || Math.abs(b) < 1e-5f * scale) {
+      return Float.NaN;
+    }
+    var lambda = (nq - (nx * ax + ny * ay + nz * az)) / b;
+    return lambda >= 0 && lambda <= 1 ? lambda : Float.NaN;
   }
 }
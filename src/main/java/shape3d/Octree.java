@@ -0,0 +1,549 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package shape3d;
+
+import com.jme3.math.Vector3f;
+import misc.AxisAlignedBoundingBox;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * An octree over a fixed box, holding 3D shapes and points, for feeding only the visible content of a
+ * large scene to a renderer, at a level of detail decreasing with the distance.
+ * <p>
+ * A node is split into eight octants once it holds more than a given number of items, unless it has
+ * reached the maximum depth. Points always move into an octant, shapes only if their bounds fit into one,
+ * so large shapes stay in the upper nodes. Shapes without finite bounds or reaching out of the box of the
+ * tree, like planes, are kept aside and always reported as visible.
+ * <p>
+ * Each node aggregates its subtree: the number of shapes and points, the bounds of the content and its
+ * centroid, taking the centers of the bounds of the shapes. Queries report the content inside a frustum,
+ * given as planes whose positive half spaces bound it, see {@link Plane#isInPositiveHalfSpace(Vector3f)}.
+ * Nodes far from the eye in relation to their size are reported as a whole by their aggregate instead of
+ * their content.
+ */
+public class Octree {
+  /**
+   * Number of items of a node above which it is split, if not given.
+   */
+  public static final int DEFAULT_MAX_ITEMS = 8;
+
+  /**
+   * Depth of the deepest nodes, if not given.
+   */
+  public static final int DEFAULT_MAX_DEPTH = 10;
+
+  /**
+   * Receives the content found by a query.
+   */
+  public interface Visitor {
+    /**
+     * Called for each shape found.
+     */
+    void visitShape(Shape3D shape);
+
+    /**
+     * Called for each point found.
+     *
+     * @param index the index of the point, as returned by {@link #insert(float, float, float)}
+     */
+    void visitPoint(int index, float x, float y, float z);
+
+    /**
+     * Called for each node reported by its aggregate instead of its content.
+     */
+    void visitAggregate(Node node);
+  }
+
+  /**
+   * A node of the tree, covering an octant of its parent.
+   */
+  public static final class Node {
+    private final float minX, minY, minZ;
+    private final float maxX, maxY, maxZ;
+    private final int depth;
+
+    /**
+     * The eight octants, indexed by {@code x + 2y + 4z} for the upper halves, or {@code null} for a leaf.
+     */
+    private Node[] children;
+
+    private final List<Shape3D> shapes = new ArrayList<>();
+
+    /**
+     * Bounds of {@link #shapes}, packed as {@code minX, minY, minZ, maxX, maxY, maxZ} per shape.
+     */
+    private float[] shapeBounds = new float[0];
+
+    private int[] points = new int[0];
+    private int pointCount;
+
+    // aggregate of the subtree
+    private int totalShapes;
+    private int totalPoints;
+    private float sumX, sumY, sumZ;
+    private final AxisAlignedBoundingBox contentBounds = new AxisAlignedBoundingBox();
+
+    private Node(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int depth) {
+      this.minX = minX;
+      this.minY = minY;
+      this.minZ = minZ;
+      this.maxX = maxX;
+      this.maxY = maxY;
+      this.maxZ = maxZ;
+      this.depth = depth;
+    }
+
+    /**
+     * Gets the box covered by the node.
+     *
+     * @return the parameter {@code store}
+     */
+    public AxisAlignedBoundingBox getBounds(AxisAlignedBoundingBox store) {
+      store.clear();
+      store.grow(minX, minY, minZ);
+      store.grow(maxX, maxY, maxZ);
+      return store;
+    }
+
+    /**
+     * Gets the bounds of the shapes and points in the subtree, which are empty if there are none.
+     *
+     * @return the parameter {@code store}
+     */
+    public AxisAlignedBoundingBox getContentBounds(AxisAlignedBoundingBox store) {
+      store.clear();
+      store.add(contentBounds);
+      return store;
+    }
+
+    /**
+     * Gets the centroid of the points and shape centers in the subtree, the origin if it is empty.
+     *
+     * @return the parameter {@code store}
+     */
+    public Vector3f getCentroid(Vector3f store) {
+      int count = totalShapes + totalPoints;
+      if (count == 0) {
+        return store.set(0, 0, 0);
+      }
+      return store.set(sumX / count, sumY / count, sumZ / count);
+    }
+
+    /**
+     * Gets the depth of the node, 0 for the root.
+     */
+    public int getDepth() {
+      return depth;
+    }
+
+    public boolean isLeaf() {
+      return children == null;
+    }
+
+    /**
+     * Gets the number of shapes in the subtree.
+     */
+    public int getShapeCount() {
+      return totalShapes;
+    }
+
+    /**
+     * Gets the number of points in the subtree.
+     */
+    public int getPointCount() {
+      return totalPoints;
+    }
+
+    /**
+     * Gets the length of the longest edge of the box covered by the node.
+     */
+    public float getSize() {
+      return Math.max(maxX - minX, Math.max(maxY - minY, maxZ - minZ));
+    }
+
+    private void aggregate(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+      sumX += 0.5f * (minX + maxX);
+      sumY += 0.5f * (minY + maxY);
+      sumZ += 0.5f * (minZ + maxZ);
+      contentBounds.grow(minX, minY, minZ);
+      contentBounds.grow(maxX, maxY, maxZ);
+    }
+
+    /**
+     * Gets the octant fully containing the given bounds, or -1 if they straddle a center plane.
+     */
+    private int octant(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+      var cx = 0.5f * (this.minX + this.maxX);
+      var cy = 0.5f * (this.minY + this.maxY);
+      var cz = 0.5f * (this.minZ + this.maxZ);
+      int x = maxX <= cx ? 0 : minX >= cx ? 1 : -1;
+      int y = maxY <= cy ? 0 : minY >= cy ? 1 : -1;
+      int z = maxZ <= cz ? 0 : minZ >= cz ? 1 : -1;
+      return x < 0 || y < 0 || z < 0 ? -1 : x + 2 * y + 4 * z;
+    }
+
+    private int octant(float x, float y, float z) {
+      int octant = 0;
+      if (x >= 0.5f * (minX + maxX)) octant |= 1;
+      if (y >= 0.5f * (minY + maxY)) octant |= 2;
+      if (z >= 0.5f * (minZ + maxZ)) octant |= 4;
+      return octant;
+    }
+
+    @Override
+    public String toString() {
+      return "Node{depth=" + depth + ", shapes=" + totalShapes + ", points=" + totalPoints + '}';
+    }
+  }
+
+  private final Node root;
+  private final int maxItems;
+  private final int maxDepth;
+
+  /**
+   * Shapes without finite bounds inside the box of the tree.
+   */
+  private final List<Shape3D> unbounded = new ArrayList<>();
+
+  /**
+   * The points, packed as {@code x0, y0, z0, x1, ...}.
+   */
+  private float[] pointCoordinates = new float[0];
+  private int pointCount;
+
+  /**
+   * Creates an empty tree over the given box, with at most {@value #DEFAULT_MAX_ITEMS} items
+   * per node up to a depth of {@value #DEFAULT_MAX_DEPTH}.
+   */
+  public Octree(AxisAlignedBoundingBox bounds) {
+    this(bounds, DEFAULT_MAX_ITEMS, DEFAULT_MAX_DEPTH);
+  }
+
+  /**
+   * Creates an empty tree over the given box.
+   *
+   * @param maxItems the number of items of a node above which it is split
+   * @param maxDepth the depth of the deepest nodes
+   */
+  public Octree(AxisAlignedBoundingBox bounds, int maxItems, int maxDepth) {
+    checkArgument(!bounds.isEmpty(), "bounds must not be empty");
+    checkArgument(maxItems > 0, "maxItems must be positive");
+    checkArgument(maxDepth >= 0, "maxDepth must not be negative");
+    this.maxItems = maxItems;
+    this.maxDepth = maxDepth;
+    root = new Node(bounds.getMinX(), bounds.getMinY(), bounds.getMinZ(),
+            bounds.getMaxX(), bounds.getMaxY(), bounds.getMaxZ(), 0);
+  }
+
+  public Node getRoot() {
+    return root;
+  }
+
+  /**
+   * Gets the number of shapes in the tree.
+   */
+  public int getShapeCount() {
+    return root.totalShapes + unbounded.size();
+  }
+
+  /**
+   * Gets the number of points in the tree.
+   */
+  public int getPointCount() {
+    return pointCount;
+  }
+
+  /**
+   * Gets the point with the given index.
+   *
+   * @return the parameter {@code store}
+   */
+  public Vector3f getPoint(int index, Vector3f store) {
+    Objects.checkIndex(index, pointCount);
+    return store.set(pointCoordinates[3 * index], pointCoordinates[3 * index + 1], pointCoordinates[3 * index + 2]);
+  }
+
+  // insertion
+  // ===========================================================================
+
+  /**
+   * Inserts a shape. Shapes without finite bounds inside the box of the tree are always reported as visible.
+   */
+  public void insert(Shape3D shape) {
+    var b = new float[6];
+    if (!shape.computeBounds(b, 0)
+            || b[0] < root.minX || b[1] < root.minY || b[2] < root.minZ
+            || b[3] > root.maxX || b[4] > root.maxY || b[5] > root.maxZ) {
+      unbounded.add(shape);
+      return;
+    }
+    insertShape(root, shape, b, 0);
+  }
+
+  /**
+   * Inserts a point.
+   *
+   * @return the index of the point
+   * @throws IllegalArgumentException if the point is outside the box of the tree
+   */
+  public int insert(float x, float y, float z) {
+    checkArgument(x >= root.minX && y >= root.minY && z >= root.minZ
+            && x <= root.maxX && y <= root.maxY && z <= root.maxZ, "point outside of the octree");
+    if (3 * pointCount == pointCoordinates.length) {
+      pointCoordinates = Arrays.copyOf(pointCoordinates, Math.max(48, 2 * pointCoordinates.length));
+    }
+    int index = pointCount++;
+    pointCoordinates[3 * index] = x;
+    pointCoordinates[3 * index + 1] = y;
+    pointCoordinates[3 * index + 2] = z;
+    insertPoint(root, index);
+    return index;
+  }
+
+  public int insert(Vector3f point) {
+    return insert(point.x, point.y, point.z);
+  }
+
+  private void insertShape(Node node, Shape3D shape, float[] b, int o) {
+    while (true) {
+      node.totalShapes++;
+      node.aggregate(b[o], b[o + 1], b[o + 2], b[o + 3], b[o + 4], b[o + 5]);
+      if (node.children == null) {
+        break;
+      }
+      int octant = node.octant(b[o], b[o + 1], b[o + 2], b[o + 3], b[o + 4], b[o + 5]);
+      if (octant < 0) {
+        break;
+      }
+      node = node.children[octant];
+    }
+    int n = node.shapes.size();
+    if (node.shapeBounds.length < 6 * (n + 1)) {
+      node.shapeBounds = Arrays.copyOf(node.shapeBounds, Math.max(24, 2 * node.shapeBounds.length));
+    }
+    System.arraycopy(b, o, node.shapeBounds, 6 * n, 6);
+    node.shapes.add(shape);
+    splitIfFull(node);
+  }
+
+  private void insertPoint(Node node, int index) {
+    var x = pointCoordinates[3 * index];
+    var y = pointCoordinates[3 * index + 1];
+    var z = pointCoordinates[3 * index + 2];
+    while (true) {
+      node.totalPoints++;
+      node.aggregate(x, y, z, x, y, z);
+      if (node.children == null) {
+        break;
+      }
+      node = node.children[node.octant(x, y, z)];
+    }
+    if (node.pointCount == node.points.length) {
+      node.points = Arrays.copyOf(node.points, Math.max(8, 2 * node.points.length));
+    }
+    node.points[node.pointCount++] = index;
+    splitIfFull(node);
+  }
+
+  /**
+   * Splits a leaf holding more than {@link #maxItems} items, moving its points and the shapes fitting
+   * into an octant down.
+   */
+  private void splitIfFull(Node node) {
+    if (node.children != null || node.depth >= maxDepth || node.shapes.size() + node.pointCount <= maxItems) {
+      return;
+    }
+    var cx = 0.5f * (node.minX + node.maxX);
+    var cy = 0.5f * (node.minY + node.maxY);
+    var cz = 0.5f * (node.minZ + node.maxZ);
+    node.children = new Node[8];
+    for (int octant = 0; octant < 8; octant++) {
+      boolean upperX = (octant & 1) != 0;
+      boolean upperY = (octant & 2) != 0;
+      boolean upperZ = (octant & 4) != 0;
+      node.children[octant] = new Node(upperX ? cx : node.minX, upperY ? cy : node.minY, upperZ ? cz : node.minZ,
+              upperX ? node.maxX : cx, upperY ? node.maxY : cy, upperZ ? node.maxZ : cz, node.depth + 1);
+    }
+
+    // the items already count towards the aggregate of this node, only the octants gain them
+    var shapes = new ArrayList<>(node.shapes);
+    var shapeBounds = node.shapeBounds;
+    node.shapes.clear();
+    node.shapeBounds = new float[0];
+    for (int i = 0; i < shapes.size(); i++) {
+      int o = 6 * i;
+      int octant = node.octant(shapeBounds[o], shapeBounds[o + 1], shapeBounds[o + 2],
+              shapeBounds[o + 3], shapeBounds[o + 4], shapeBounds[o + 5]);
+      if (octant < 0) {
+        int n = node.shapes.size();
+        if (node.shapeBounds.length < 6 * (n + 1)) {
+          node.shapeBounds = Arrays.copyOf(node.shapeBounds, Math.max(24, 2 * node.shapeBounds.length));
+        }
+        System.arraycopy(shapeBounds, o, node.shapeBounds, 6 * n, 6);
+        node.shapes.add(shapes.get(i));
+      } else {
+        insertShape(node.children[octant], shapes.get(i), shapeBounds, o);
+      }
+    }
+    var points = node.points;
+    int pointCount = node.pointCount;
+    node.points = new int[0];
+    node.pointCount = 0;
+    for (int i = 0; i < pointCount; i++) {
+      int index = points[i];
+      insertPoint(node.children[node.octant(pointCoordinates[3 * index], pointCoordinates[3 * index + 1],
+              pointCoordinates[3 * index + 2])], index);
+    }
+  }
+
+  // queries
+  // ===========================================================================
+
+  /**
+   * Reports the shapes and points inside the frustum to the visitor, in full detail.
+   *
+   * @param frustum the planes bounding the frustum by their positive half spaces, at most 31
+   */
+  public void query(Plane[] frustum, Visitor visitor) {
+    query(frustum, null, Float.POSITIVE_INFINITY, visitor);
+  }
+
+  /**
+   * Reports the shapes and points inside the frustum to the visitor, reporting nodes whose distance to
+   * {@code eye} exceeds {@code detailDistance} times their size (see {@link Node#getSize()})
+   * by their aggregate instead. The content of an aggregated node is not tested against the frustum.
+   * <p>
+   * Shapes are reported if their bounds are not fully outside a plane of the frustum,
+   * so some shapes outside the frustum near its corners may be reported too.
+   *
+   * @param frustum        the planes bounding the frustum by their positive half spaces, at most 31
+   * @param eye            the position of the viewer, or {@code null} for full detail
+   * @param detailDistance the distance in multiples of the node size beyond which nodes are aggregated
+   */
+  public void query(Plane[] frustum, Vector3f eye, float detailDistance, Visitor visitor) {
+    checkArgument(frustum.length < 32, "too many planes");
+    for (Shape3D shape : unbounded) {
+      visitor.visitShape(shape);
+    }
+    var corner = new Vector3f();
+    query(root, frustum, (1 << frustum.length) - 1, eye, detailDistance, visitor, corner);
+  }
+
+  /**
+   * Finds the shapes inside the frustum.
+   *
+   * @return a new list of the shapes, in no particular order
+   */
+  public List<Shape3D> getVisibleShapes(Plane[] frustum) {
+    List<Shape3D> result = new ArrayList<>();
+    query(frustum, new Visitor() {
+      @Override
+      public void visitShape(Shape3D shape) {
+        result.add(shape);
+      }
+
+      @Override
+      public void visitPoint(int index, float x, float y, float z) {
+      }
+
+      @Override
+      public void visitAggregate(Node node) {
+      }
+    });
+    return result;
+  }
+
+  /**
+   * @param mask the planes of the frustum the node is not known to be fully inside of
+   */
+  private void query(Node node, Plane[] frustum, int mask, Vector3f eye, float detailDistance,
+                     Visitor visitor, Vector3f corner) {
+    if (node.totalShapes + node.totalPoints == 0) {
+      return;
+    }
+    var content = node.contentBounds;
+    mask = classify(frustum, mask, content.getMinX(), content.getMinY(), content.getMinZ(),
+            content.getMaxX(), content.getMaxY(), content.getMaxZ(), corner);
+    if (mask < 0) {
+      return;
+    }
+    if (eye != null && distanceSq(eye, node) > sqr(detailDistance * node.getSize())) {
+      visitor.visitAggregate(node);
+      return;
+    }
+
+    var bounds = node.shapeBounds;
+    for (int i = 0, n = node.shapes.size(); i < n; i++) {
+      int o = 6 * i;
+      if (mask == 0 || classify(frustum, mask, bounds[o], bounds[o + 1], bounds[o + 2],
+              bounds[o + 3], bounds[o + 4], bounds[o + 5], corner) >= 0) {
+        visitor.visitShape(node.shapes.get(i));
+      }
+    }
+    for (int i = 0; i < node.pointCount; i++) {
+      int index = node.points[i];
+      var x = pointCoordinates[3 * index];
+      var y = pointCoordinates[3 * index + 1];
+      var z = pointCoordinates[3 * index + 2];
+      if (mask == 0 || classify(frustum, mask, x, y, z, x, y, z, corner) >= 0) {
+        visitor.visitPoint(index, x, y, z);
+      }
+    }
+    if (node.children != null) {
+      for (Node child : node.children) {
+        query(child, frustum, mask, eye, detailDistance, visitor, corner);
+      }
+    }
+  }
+
+  /**
+   * Classifies a box against the planes of the frustum selected by {@code mask}, testing the corner
+   * furthest along the normal of each plane to find if the box is fully outside and the opposite corner
+   * to find if it is fully inside.
+   *
+   * @return -1 if the box is fully outside a plane, otherwise {@code mask} without the planes
+   * the box is fully inside of
+   */
+  private static int classify(Plane[] frustum, int mask, float minX, float minY, float minZ,
+                              float maxX, float maxY, float maxZ, Vector3f corner) {
+    for (int i = 0; i < frustum.length; i++) {
+      if ((mask & (1 << i)) == 0) {
+        continue;
+      }
+      var plane = frustum[i];
+      var n = plane.getNormal();
+      corner.set(n.x >= 0 ? maxX : minX, n.y >= 0 ? maxY : minY, n.z >= 0 ? maxZ : minZ);
+      if (!plane.isInPositiveHalfSpace(corner)) {
+        return -1;
+      }
+      corner.set(n.x >= 0 ? minX : maxX, n.y >= 0 ? minY : maxY, n.z >= 0 ? minZ : maxZ);
+      if (plane.isInPositiveHalfSpace(corner)) {
+        mask &= ~(1 << i);
+      }
+    }
+    return mask;
+  }
+
+  /**
+   * Computes the squared distance of a point to the box covered by a node, 0 if it is inside.
+   */
+  private static float distanceSq(Vector3f p, Node node) {
+    var dx = Math.max(0, Math.max(node.minX - p.x, p.x - node.maxX));
+    var dy = Math.max(0, Math.max(node.minY - p.y, p.y - node.maxY));
+    var dz = Math.max(0, Math.max(node.minZ - p.z, p.z - node.maxZ));
+    return dx * dx + dy * dy + dz * dz;
+  }
+
+  private static float sqr(float x) {
+    return x * x;
+  }
+}
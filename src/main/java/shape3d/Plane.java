@@ -12,7 +12,7 @@ import java.util.List;
 /**
  * A plane in 3D space, represented in normal form.
  */
-public class Plane implements Shape3D {
+public class Plane implements Traceable {
 
   /**
    * Point on plane
@@ -70,6 +70,21 @@ public class Plane implements Shape3D {
     return Intersector3D.intersectPlaneWith(this, other);
   }
 
+  @Override
+  public float intersectRayParameter(Ray3D ray) {
+    return Intersector3D.intersectRayParameter(ray, this);
+  }
+
+  @Override
+  public boolean intersect(Ray3D ray, Hit hitStore) {
+    return Intersector3D.intersect(ray, this, hitStore);
+  }
+
+  @Override
+  public boolean testSegment(float ax, float ay, float az, float bx, float by, float bz) {
+    return Intersector3D.testSegment(ax, ay, az, bx, by, bz, this);
+  }
+
   public boolean isInPositiveHalfSpace(Vector3f point) {
     return signedDistanceTo(point) >= 0;
   }
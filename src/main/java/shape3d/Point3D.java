@@ -25,7 +25,18 @@ public class Point3D implements Shape3D {
 
   @Override
   public List<Shape3D> intersect(Shape3D other) {
-    return null;
+    return Intersector3D.intersect(this, other);
+  }
+
+  @Override
+  public boolean computeBounds(float[] store, int offset) {
+    store[offset] = p.x;
+    store[offset + 1] = p.y;
+    store[offset + 2] = p.z;
+    store[offset + 3] = p.x;
+    store[offset + 4] = p.y;
+    store[offset + 5] = p.z;
+    return true;
   }
 
   @Override
@@ -42,6 +42,15 @@ public class Ray3D implements Shape3D {
     return p.add(dir.mult(lambda));
   }
 
+  /**
+   * Evaluate the ray without allocating.
+   *
+   * @return the parameter {@code store}
+   */
+  public Vector3f eval(float lambda, Vector3f store) {
+    return store.set(p.x + lambda * dir.x, p.y + lambda * dir.y, p.z + lambda * dir.z);
+  }
+
   /**
    * Return distance between ray and point
    */
@@ -52,6 +61,16 @@ public class Ray3D implements Shape3D {
     return distance;
   }
 
+  /**
+   * Computes the componentwise inverse of the direction, as used by slab tests against boxes.
+   * Zero components map to infinity.
+   *
+   * @return the parameter {@code store}
+   */
+  public Vector3f getInverseDir(Vector3f store) {
+    return store.set(1 / dir.x, 1 / dir.y, 1 / dir.z);
+  }
+
   public Vector3f getPoint() {
     return p;
   }
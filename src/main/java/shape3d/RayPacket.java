@@ -0,0 +1,256 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package shape3d;
+
+import misc.AxisAlignedBoundingBox;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A bundle of rays stored as structure of arrays, intersected with shapes in lockstep.
+ * <p>
+ * Coherent rays, like primary rays through neighbouring pixels, are traced together: each kernel
+ * processes all rays of the packet in one branch-free loop over primitive arrays, which keeps the
+ * shape's data in registers and lets the JIT unroll the loop. Packets of 4 or 8 rays match the
+ * width of SSE and AVX2 registers.
+ * <p>
+ * Like {@link Hit}, a packet records for every ray the nearest hit so far, as ray parameter
+ * and a caller-chosen shape id, and the kernels only replace nearer hits. So the nearest hits
+ * among many shapes are found by {@link #clear() clearing} the packet once and intersecting it
+ * with all shapes, without allocating.
+ */
+public class RayPacket {
+  private final int size;
+
+  // ray origins and directions
+  private final float[] ox, oy, oz;
+  private final float[] dx, dy, dz;
+
+  // inverse directions for the slab test
+  private final float[] invX, invY, invZ;
+
+  /**
+   * Ray parameter of the nearest hit per ray, infinite if there is none.
+   */
+  private final float[] lambdas;
+
+  /**
+   * Shape id of the nearest hit per ray, -1 if there is none.
+   */
+  private final int[] ids;
+
+  /**
+   * Creates a packet of {@code size} rays, all starting at the origin without direction.
+   *
+   * @throws IllegalArgumentException if {@code size} is not positive
+   */
+  public RayPacket(int size) {
+    checkArgument(size > 0, "size must be positive");
+    this.size = size;
+    ox = new float[size];
+    oy = new float[size];
+    oz = new float[size];
+    dx = new float[size];
+    dy = new float[size];
+    dz = new float[size];
+    invX = new float[size];
+    invY = new float[size];
+    invZ = new float[size];
+    lambdas = new float[size];
+    ids = new int[size];
+    clear();
+  }
+
+  /**
+   * Gets the number of rays in the packet.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Sets the ray with the given index.
+   */
+  public void set(int index, Ray3D ray) {
+    var p = ray.getPoint();
+    var d = ray.getDir();
+    set(index, p.x, p.y, p.z, d.x, d.y, d.z);
+  }
+
+  /**
+   * Sets the ray with the given index to start at {@code (x, y, z)} in direction {@code (dirX, dirY, dirZ)}.
+   */
+  public void set(int index, float x, float y, float z, float dirX, float dirY, float dirZ) {
+    Objects.checkIndex(index, size);
+    ox[index] = x;
+    oy[index] = y;
+    oz[index] = z;
+    dx[index] = dirX;
+    dy[index] = dirY;
+    dz[index] = dirZ;
+    invX[index] = 1 / dirX;
+    invY[index] = 1 / dirY;
+    invZ[index] = 1 / dirZ;
+  }
+
+  /**
+   * Forgets the hits of all rays.
+   */
+  public void clear() {
+    Arrays.fill(lambdas, Float.POSITIVE_INFINITY);
+    Arrays.fill(ids, -1);
+  }
+
+  /**
+   * Gets the ray parameter of the nearest hit of the ray with the given index, infinite if there is none.
+   */
+  public float getLambda(int index) {
+    return lambdas[index];
+  }
+
+  /**
+   * Gets the shape id of the nearest hit of the ray with the given index, -1 if there is none.
+   */
+  public int getId(int index) {
+    return ids[index];
+  }
+
+  // kernels
+  // ===========================================================================
+
+  /**
+   * Intersects all rays with the sphere, recording hits nearer than the current ones with the given id.
+   * A ray starting inside the sphere hits it where it leaves it.
+   *
+   * @return the number of rays whose hit was replaced
+   */
+  public int intersect(Sphere sphere, int id) {
+    var c = sphere.getCenter();
+    var cx = c.x;
+    var cy = c.y;
+    var cz = c.z;
+    var rr = sphere.getRadius() * sphere.getRadius();
+    int hits = 0;
+    for (int i = 0; i < size; i++) {
+      // |o + λd - c|² = r², with the half b form of the quadratic
+      var px = ox[i] - cx;
+      var py = oy[i] - cy;
+      var pz = oz[i] - cz;
+      var a = dx[i] * dx[i] + dy[i] * dy[i] + dz[i] * dz[i];
+      var b = px * dx[i] + py * dy[i] + pz * dz[i];
+      var cc = px * px + py * py + pz * pz - rr;
+      var discriminant = b * b - a * cc;
+      var root = (float) Math.sqrt(Math.max(discriminant, 0));
+      var near = (-b - root) / a;
+      var far = (-b + root) / a;
+      var lambda = near >= 0 ? near : far;
+      var hit = discriminant >= 0 && lambda >= 0 && lambda <= lambdas[i];
+      lambdas[i] = hit ? lambda : lambdas[i];
+      ids[i] = hit ? id : ids[i];
+      hits += hit ? 1 : 0;
+    }
+    return hits;
+  }
+
+  /**
+   * Intersects all rays with the plane, recording hits nearer than the current ones with the given id.
+   * Rays parallel to the plane miss it, as in {@link Intersector3D#intersectRayPlane(Ray3D, Plane)}.
+   *
+   * @return the number of rays whose hit was replaced
+   */
+  public int intersect(Plane plane, int id) {
+    var n = plane.getNormal();
+    var q = plane.getPoint();
+    var nx = n.x;
+    var ny = n.y;
+    var nz = n.z;
+    var nq = nx * q.x + ny * q.y + nz * q.z;
+    int hits = 0;
+    for (int i = 0; i < size; i++) {
+      var b = nx * dx[i] + ny * dy[i] + nz * dz[i];
+      var lambda = (nq - (nx * ox[i] + ny * oy[i] + nz * oz[i])) / b;
+      var hit = Math.abs(b) >= 1e-5f && lambda >= 0 && lambda <= lambdas[i];
+      lambdas[i] = hit ? lambda : lambdas[i];
+      ids[i] = hit ? id : ids[i];
+      hits += hit ? 1 : 0;
+    }
+    return hits;
+  }
+
+  /**
+   * Intersects all rays with the box, recording hits nearer than the current ones with the given id.
+   * A ray starting inside the box hits it where it leaves it.
+   *
+   * @return the number of rays whose hit was replaced
+   */
+  public int intersect(AxisAlignedBoundingBox box, int id) {
+    if (box.isEmpty()) {
+      return 0;
+    }
+    var minX = box.getMinX();
+    var minY = box.getMinY();
+    var minZ = box.getMinZ();
+    var maxX = box.getMaxX();
+    var maxY = box.getMaxY();
+    var maxZ = box.getMaxZ();
+    int hits = 0;
+    for (int i = 0; i < size; i++) {
+      var tx0 = (minX - ox[i]) * invX[i];
+      var tx1 = (maxX - ox[i]) * invX[i];
+      var ty0 = (minY - oy[i]) * invY[i];
+      var ty1 = (maxY - oy[i]) * invY[i];
+      var tz0 = (minZ - oz[i]) * invZ[i];
+      var tz1 = (maxZ - oz[i]) * invZ[i];
+      // comparisons skip the NaNs of rays within a slab plane, as in Intersector3D.testRayBox
+      var tNear = 0f;
+      var tFar = Float.POSITIVE_INFINITY;
+      var t = Math.min(tx0, tx1);
+      tNear = t > tNear ? t : tNear;
+      t = Math.max(tx0, tx1);
+      tFar = t < tFar ? t : tFar;
+      t = Math.min(ty0, ty1);
+      tNear = t > tNear ? t : tNear;
+      t = Math.max(ty0, ty1);
+      tFar = t < tFar ? t : tFar;
+      t = Math.min(tz0, tz1);
+      tNear = t > tNear ? t : tNear;
+      t = Math.max(tz0, tz1);
+      tFar = t < tFar ? t : tFar;
+
+      var lambda = tNear > 0 ? tNear : tFar;
+      var hit = tNear <= tFar && lambda <= lambdas[i];
+      lambdas[i] = hit ? lambda : lambdas[i];
+      ids[i] = hit ? id : ids[i];
+      hits += hit ? 1 : 0;
+    }
+    return hits;
+  }
+
+  /**
+   * Tests whether any ray of the packet hits the box before its current nearest hit,
+   * without recording hits. This culls whole packets against the bounds of a group of shapes.
+   */
+  public boolean testAny(AxisAlignedBoundingBox box) {
+    if (box.isEmpty()) {
+      return false;
+    }
+    var minX = box.getMinX();
+    var minY = box.getMinY();
+    var minZ = box.getMinZ();
+    var maxX = box.getMaxX();
+    var maxY = box.getMaxY();
+    var maxZ = box.getMaxZ();
+    var any = false;
+    for (int i = 0; i < size; i++) {
+      any |= Intersector3D.testRayBox(ox[i], oy[i], oz[i], invX[i], invY[i], invZ[i],
+              minX, minY, minZ, maxX, maxY, maxZ, lambdas[i], null);
+    }
+    return any;
+  }
+}
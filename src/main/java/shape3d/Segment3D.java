@@ -28,4 +28,33 @@ public class Segment3D implements Shape3D {
   public Vector3f getEnd() {
     return points[1];
   }
+
+  /**
+   * Evaluates the segment at {@code λ}, which yields the start for 0 and the end for 1.
+   *
+   * @return the parameter {@code store}
+   */
+  public Vector3f eval(float lambda, Vector3f store) {
+    var a = points[0];
+    var b = points[1];
+    return store.set(a.x + lambda * (b.x - a.x), a.y + lambda * (b.y - a.y), a.z + lambda * (b.z - a.z));
+  }
+
+  @Override
+  public boolean computeBounds(float[] store, int offset) {
+    var a = points[0];
+    var b = points[1];
+    store[offset] = Math.min(a.x, b.x);
+    store[offset + 1] = Math.min(a.y, b.y);
+    store[offset + 2] = Math.min(a.z, b.z);
+    store[offset + 3] = Math.max(a.x, b.x);
+    store[offset + 4] = Math.max(a.y, b.y);
+    store[offset + 5] = Math.max(a.z, b.z);
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return "Segment{" + points[0] + " -> " + points[1] + '}';
+  }
 }
@@ -12,4 +12,14 @@ import java.util.List;
  */
 public interface Shape3D {
   List<Shape3D> intersect(Shape3D other);
+
+  /**
+   * Writes the bounds of the shape as {@code minX, minY, minZ, maxX, maxY, maxZ} into {@code store},
+   * as needed by the spatial structures. Does not allocate.
+   *
+   * @return false if the shape has no finite bounds
+   */
+  default boolean computeBounds(float[] store, int offset) {
+    return false;
+  }
 }
@@ -12,7 +12,7 @@ import java.util.List;
 /**
  * A sphere 3D shape.
  */
-public class Sphere implements Shape3D {
+public class Sphere implements Traceable {
     private Vector3f center;
     private float radius;
 
@@ -41,6 +41,33 @@ public class Sphere implements Shape3D {
         return Intersector3D.intersectSphereWith(this, other);
     }
 
+    @Override
+    public float intersectRayParameter(Ray3D ray) {
+        return Intersector3D.intersectRayParameter(ray, this);
+    }
+
+    @Override
+    public boolean intersect(Ray3D ray, Hit hitStore) {
+        return Intersector3D.intersect(ray, this, hitStore);
+    }
+
+    @Override
+    public boolean testSegment(float ax, float ay, float az, float bx, float by, float bz) {
+        return Intersector3D.testSegment(ax, ay, az, bx, by, bz, this);
+    }
+
+    @Override
+    public boolean computeBounds(float[] store, int offset) {
+        var r = Math.abs(radius);
+        store[offset] = center.x - r;
+        store[offset + 1] = center.y - r;
+        store[offset + 2] = center.z - r;
+        store[offset + 3] = center.x + r;
+        store[offset + 4] = center.y + r;
+        store[offset + 5] = center.z + r;
+        return true;
+    }
+
     @Override
     public String toString() {
         return "center: " + center.toString() + ", radius: " + radius;
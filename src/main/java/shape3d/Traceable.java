@@ -0,0 +1,35 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package shape3d;
+
+/**
+ * A shape rays and segments are intersected with without allocating, as done by the spatial structures,
+ * ray tracing and line-of-sight checks in {@link Intersector3D}.
+ */
+public interface Traceable extends Shape3D {
+  /**
+   * Computes the smallest non-negative ray parameter at which the ray hits the shape.
+   *
+   * @return the ray parameter, or {@link Float#NaN} if the ray misses
+   * @see Intersector3D#intersectRayParameter(Ray3D, Shape3D)
+   */
+  float intersectRayParameter(Ray3D ray);
+
+  /**
+   * Records the nearest hit of the ray in {@code hitStore}, if it is nearer than the hit already recorded there.
+   *
+   * @return true if a hit was recorded
+   * @see Intersector3D#intersect(Ray3D, Shape3D, Hit)
+   */
+  boolean intersect(Ray3D ray, Hit hitStore);
+
+  /**
+   * Tests whether the segment from {@code a} to {@code b} hits the shape.
+   *
+   * @see Intersector3D#testSegments(float[], int, int, Shape3D, boolean[])
+   */
+  boolean testSegment(float ax, float ay, float az, float bx, float by, float bz);
+}
@@ -0,0 +1,101 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package shape3d;
+
+import com.jme3.math.Vector3f;
+
+import java.util.List;
+
+/**
+ * A triangle 3D shape, given by its three corners.
+ * <p>
+ * Points on the triangle are described by barycentric coordinates {@code (u, v)} as
+ * {@code (1 - u - v) * a + u * b + v * c}.
+ */
+public class Triangle implements Traceable {
+  private final Vector3f a;
+  private final Vector3f b;
+  private final Vector3f c;
+
+  public Triangle(Vector3f a, Vector3f b, Vector3f c) {
+    this.a = new Vector3f(a);
+    this.b = new Vector3f(b);
+    this.c = new Vector3f(c);
+  }
+
+  public Vector3f getA() {
+    return a;
+  }
+
+  public Vector3f getB() {
+    return b;
+  }
+
+  public Vector3f getC() {
+    return c;
+  }
+
+  /**
+   * Computes the normalized normal {@code (b - a) x (c - a)}, which is zero for degenerate triangles.
+   *
+   * @return the parameter {@code store}
+   */
+  public Vector3f getNormal(Vector3f store) {
+    var ex = b.x - a.x;
+    var ey = b.y - a.y;
+    var ez = b.z - a.z;
+    var fx = c.x - a.x;
+    var fy = c.y - a.y;
+    var fz = c.z - a.z;
+    return store.set(ey * fz - ez * fy, ez * fx - ex * fz, ex * fy - ey * fx).normalizeLocal();
+  }
+
+  /**
+   * Evaluates the barycentric coordinates {@code (u, v)}.
+   *
+   * @return the parameter {@code store}
+   */
+  public Vector3f eval(float u, float v, Vector3f store) {
+    var w = 1 - u - v;
+    return store.set(w * a.x + u * b.x + v * c.x, w * a.y + u * b.y + v * c.y, w * a.z + u * b.z + v * c.z);
+  }
+
+  @Override
+  public List<Shape3D> intersect(Shape3D other) {
+    return Intersector3D.intersectTriangleWith(this, other);
+  }
+
+  @Override
+  public float intersectRayParameter(Ray3D ray) {
+    return Intersector3D.intersectRayTriangle(ray, this, null);
+  }
+
+  @Override
+  public boolean intersect(Ray3D ray, Hit hitStore) {
+    return Intersector3D.intersect(ray, this, hitStore);
+  }
+
+  @Override
+  public boolean testSegment(float ax, float ay, float az, float bx, float by, float bz) {
+    return Intersector3D.testSegment(ax, ay, az, bx, by, bz, this);
+  }
+
+  @Override
+  public boolean computeBounds(float[] store, int offset) {
+    store[offset] = Math.min(a.x, Math.min(b.x, c.x));
+    store[offset + 1] = Math.min(a.y, Math.min(b.y, c.y));
+    store[offset + 2] = Math.min(a.z, Math.min(b.z, c.z));
+    store[offset + 3] = Math.max(a.x, Math.max(b.x, c.x));
+    store[offset + 4] = Math.max(a.y, Math.max(b.y, c.y));
+    store[offset + 5] = Math.max(a.z, Math.max(b.z, c.z));
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return "Triangle{" + a + ", " + b + ", " + c + '}';
+  }
+}
@@ -0,0 +1,162 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package shape3d;
+
+import com.jme3.math.Vector3f;
+import misc.AxisAlignedBoundingBox;
+import misc.VertexWelder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * An indexed triangle mesh 3D shape, backed by packed arrays.
+ * <p>
+ * The vertices are stored interleaved as {@code x0, y0, z0, x1, ...}, the triangles as
+ * three vertex indices each. The arrays are not copied, so changes to them are visible
+ * to the mesh, but the mesh itself never modifies them.
+ */
+public class TriangleMesh implements Traceable {
+  private final float[] vertices;
+  private final int[] indices;
+
+  /**
+   * Creates a mesh from packed vertex coordinates and triangle vertex indices.
+   *
+   * @throws IllegalArgumentException  if an array length is not a multiple of three
+   * @throws IndexOutOfBoundsException if an index does not refer to a vertex
+   */
+  public TriangleMesh(float[] vertices, int[] indices) {
+    checkArgument(vertices.length % 3 == 0, "vertex coordinates must come in triples");
+    checkArgument(indices.length % 3 == 0, "triangle indices must come in triples");
+    int vertexCount = vertices.length / 3;
+    for (int index : indices) {
+      Objects.checkIndex(index, vertexCount);
+    }
+    this.vertices = vertices;
+    this.indices = indices;
+  }
+
+  /**
+   * Gets the packed vertex coordinates backing the mesh.
+   */
+  public float[] getVertices() {
+    return vertices;
+  }
+
+  /**
+   * Gets the triangle vertex indices backing the mesh.
+   */
+  public int[] getIndices() {
+    return indices;
+  }
+
+  public int getVertexCount() {
+    return vertices.length / 3;
+  }
+
+  public int getTriangleCount() {
+    return indices.length / 3;
+  }
+
+  /**
+   * Gets the vertex with the given index.
+   *
+   * @return the parameter {@code store}
+   */
+  public Vector3f getVertex(int index, Vector3f store) {
+    Objects.checkIndex(index, getVertexCount());
+    return store.set(vertices[3 * index], vertices[3 * index + 1], vertices[3 * index + 2]);
+  }
+
+  /**
+   * Gets a new triangle holding the corners of the triangle with the given index.
+   */
+  public Triangle getTriangle(int index) {
+    Objects.checkIndex(index, getTriangleCount());
+    return new Triangle(getVertex(indices[3 * index], new Vector3f()),
+            getVertex(indices[3 * index + 1], new Vector3f()),
+            getVertex(indices[3 * index + 2], new Vector3f()));
+  }
+
+  /**
+   * Computes a new box bounding all vertices.
+   */
+  public AxisAlignedBoundingBox getBounds() {
+    var box = new AxisAlignedBoundingBox();
+    box.addAll(vertices, 0, getVertexCount());
+    return box;
+  }
+
+  /**
+   * Creates a new mesh with the vertices of this mesh that are equal within {@link math.MathHelper#TOLERANCE}
+   * merged, dropping the triangles that collapse as a result.
+   *
+   * @see VertexWelder
+   */
+  public TriangleMesh weld() {
+    var remap = VertexWelder.weld(vertices, 0, getVertexCount());
+    var welded = new int[indices.length];
+    int count = 0;
+    for (int t = 0; t < indices.length; t += 3) {
+      int a = remap[indices[t]];
+      int b = remap[indices[t + 1]];
+      int c = remap[indices[t + 2]];
+      if (a != b && b != c && c != a) {
+        welded[count++] = a;
+        welded[count++] = b;
+        welded[count++] = c;
+      }
+    }
+    return new TriangleMesh(VertexWelder.compact(vertices, 0, remap), Arrays.copyOf(welded, count));
+  }
+
+  @Override
+  public List<Shape3D> intersect(Shape3D other) {
+    return Intersector3D.intersectMeshWith(this, other);
+  }
+
+  @Override
+  public float intersectRayParameter(Ray3D ray) {
+    return Intersector3D.intersectRayParameter(ray, this);
+  }
+
+  @Override
+  public boolean intersect(Ray3D ray, Hit hitStore) {
+    return Intersector3D.intersect(ray, this, hitStore);
+  }
+
+  @Override
+  public boolean testSegment(float ax, float ay, float az, float bx, float by, float bz) {
+    return Intersector3D.testSegment(ax, ay, az, bx, by, bz, this);
+  }
+
+  @Override
+  public boolean computeBounds(float[] store, int offset) {
+    if (vertices.length == 0) {
+      return false;
+    }
+    for (int i = 0; i < 3; i++) {
+      store[offset + i] = Float.POSITIVE_INFINITY;
+      store[offset + 3 + i] = Float.NEGATIVE_INFINITY;
+    }
+    for (int v = 0; v < vertices.length; v += 3) {
+      for (int i = 0; i < 3; i++) {
+        store[offset + i] = Math.min(store[offset + i], vertices[v + i]);
+        store[offset + 3 + i] = Math.max(store[offset + 3 + i], vertices[v + i]);
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return "TriangleMesh{vertices=" + getVertexCount() + ", triangles=" + getTriangleCount() + '}';
+  }
+}
@@ -0,0 +1,54 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package shape3d;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * The result of intersecting two shapes for whose types no {@link IntersectionFunction} is registered.
+ * <p>
+ * It is an empty list, so callers iterating over the result need no special treatment,
+ * while callers that care can tell it from "no intersection" with {@code instanceof}.
+ */
+public final class UnsupportedIntersection extends AbstractList<Shape3D> implements RandomAccess {
+  private final Class<?> typeA;
+  private final Class<?> typeB;
+
+  UnsupportedIntersection(Class<?> typeA, Class<?> typeB) {
+    this.typeA = typeA;
+    this.typeB = typeB;
+  }
+
+  /**
+   * Gets the type of the first shape.
+   */
+  public Class<?> getTypeA() {
+    return typeA;
+  }
+
+  /**
+   * Gets the type of the second shape.
+   */
+  public Class<?> getTypeB() {
+    return typeB;
+  }
+
+  @Override
+  public Shape3D get(int index) {
+    throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length 0");
+  }
+
+  @Override
+  public int size() {
+    return 0;
+  }
+
+  @Override
+  public String toString() {
+    return "Intersection not implemented: " + typeA.getSimpleName() + " <-> " + typeB.getSimpleName();
+  }
+}
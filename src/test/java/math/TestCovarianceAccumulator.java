@@ -0,0 +1,97 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package math;
+
+import com.jme3.math.Matrix3f;
+import com.jme3.math.Vector3f;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static base.JmeAssertions.assertVecEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestCovarianceAccumulator {
+  @Test
+  public void testMatchesTwoPass() {
+    var random = new Random(3);
+    var points = new Vector3f[500];
+    var accumulator = new CovarianceAccumulator();
+    for (int i = 0; i < points.length; i++) {
+      points[i] = new Vector3f(random.nextFloat() * 4, random.nextFloat() - 2, random.nextFloat() * 3 + 5);
+      accumulator.add(points[i]);
+    }
+
+    double[] mean = new double[3];
+    for (Vector3f p : points) {
+      for (int i = 0; i < 3; i++) {
+        mean[i] += p.get(i) / (double) points.length;
+      }
+    }
+    double[][] scatter = new double[3][3];
+    for (Vector3f p : points) {
+      for (int i = 0; i < 3; i++) {
+        for (int j = 0; j < 3; j++) {
+          scatter[i][j] += (p.get(i) - mean[i]) * (p.get(j) - mean[j]);
+        }
+      }
+    }
+
+    assertEquals(points.length, accumulator.getCount());
+    assertVecEquals(new Vector3f((float) mean[0], (float) mean[1], (float) mean[2]),
+            accumulator.getMean(new Vector3f()), MathHelper.TOLERANCE);
+    var covariance = accumulator.getCovariance(new Matrix3f());
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 3; j++) {
+        assertEquals(scatter[i][j], accumulator.getScatter(i, j), 1e-6 * points.length);
+        assertEquals(scatter[i][j] / points.length, covariance.get(i, j), 1e-4);
+      }
+    }
+  }
+
+  @Test
+  public void testClear() {
+    var accumulator = new CovarianceAccumulator();
+    accumulator.add(1, 2, 3);
+    accumulator.add(3, 2, 1);
+    accumulator.clear();
+    assertEquals(0, accumulator.getCount());
+    assertEquals(new Matrix3f().zero(), accumulator.getCovariance(new Matrix3f()));
+  }
+
+  @Test
+  public void testCombineMatchesSequential() {
+    var random = new Random(5);
+    var n = 100_000;
+    var xyz = new float[3 * n];
+    for (int i = 0; i < xyz.length; i++) {
+      // drifting, so that the parts merged have different means
+      xyz[i] = 100 + random.nextFloat() * (1 + i % 3) + (i / 3) * 1e-4f;
+    }
+    var sequential = new CovarianceAccumulator();
+    sequential.addAll(xyz, 0, n);
+
+    var parallel = CovarianceAccumulator.ofParallel(xyz, 0, n);
+    var collected = IntStream.range(0, n).parallel()
+            .mapToObj(i -> new Vector3f(xyz[3 * i], xyz[3 * i + 1], xyz[3 * i + 2]))
+            .collect(CovarianceAccumulator.collector());
+    var left = new CovarianceAccumulator();
+    left.addAll(xyz, 0, 10);
+    var right = new CovarianceAccumulator();
+    right.addAll(xyz, 3 * 10, n - 10);
+
+    for (CovarianceAccumulator merged : new CovarianceAccumulator[]{parallel, collected, left.combine(right)}) {
+      assertEquals(sequential.getCount(), merged.getCount());
+      assertVecEquals(sequential.getMean(new Vector3f()), merged.getMean(new Vector3f()), MathHelper.TOLERANCE);
+      for (int i = 0; i < 3; i++) {
+        for (int j = 0; j < 3; j++) {
+          assertEquals(sequential.getScatter(i, j), merged.getScatter(i, j), 1e-6 * Math.abs(sequential.getScatter(i, i)));
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,60 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package math;
+
+import com.jme3.math.Vector2f;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestIntersector2D {
+  @Test
+  public void testMatchesLineAndRay() {
+    var random = new Random(4);
+    var n = 200;
+    var qx = new float[n];
+    var qy = new float[n];
+    var ex = new float[n];
+    var ey = new float[n];
+    for (int j = 0; j < n; j++) {
+      var dir = Vectors.fromPolar(1, random.nextFloat() * MathF.TWO_PI);
+      qx[j] = random.nextFloat() * 10;
+      qy[j] = random.nextFloat() * 10;
+      ex[j] = dir.x;
+      ey[j] = dir.y;
+    }
+    // a parallel copy of the first element
+    ex[n - 1] = ex[0];
+    ey[n - 1] = ey[0];
+
+    var lambda1 = new float[n];
+    var lambda2 = new float[n];
+    var hit = new boolean[n];
+    var p = new Vector2f(qx[0], qy[0]);
+    var d = new Vector2f(ex[0], ey[0]);
+
+    var lineHits = Intersector2D.intersectLines(p.x, p.y, d.x, d.y, qx, qy, ex, ey, 1, n - 1, lambda1, lambda2, hit);
+    assertEquals(n - 2, lineHits);
+    assertFalse(hit[n - 1]);
+    for (int j = 1; j < n - 1; j++) {
+      var expected = new Line(p, d).intersect(new Line(new Vector2f(qx[j], qy[j]), new Vector2f(ex[j], ey[j])));
+      assertTrue(hit[j]);
+      assertEquals(expected.getLambda1(), lambda1[j], 1e-3f);
+      assertEquals(expected.getLambda2(), lambda2[j], 1e-3f);
+    }
+
+    var rayHits = Intersector2D.intersectRays(p.x, p.y, d.x, d.y, qx, qy, ex, ey, 1, n - 1, lambda1, lambda2, hit);
+    var expectedRayHits = 0;
+    for (int j = 1; j < n; j++) {
+      var expected = new Ray(p, d).intersect(new Ray(new Vector2f(qx[j], qy[j]), new Vector2f(ex[j], ey[j])));
+      assertEquals(expected != null, hit[j]);
+      expectedRayHits += expected != null ? 1 : 0;
+    }
+    assertEquals(expectedRayHits, rayHits);
+  }
+}
@@ -5,11 +5,20 @@
 
 package math;
 
+import com.jme3.math.Matrix3f;
 import com.jme3.math.Matrix4f;
+import com.jme3.math.Quaternion;
+import com.jme3.math.Vector2f;
 import com.jme3.math.Vector3f;
 import org.junit.jupiter.api.Test;
 
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+import static base.JmeAssertions.assertVecEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public class TestMatrices {
   @Test
@@ -32,4 +41,169 @@ public class TestMatrices {
     assertEquals(0, T.m32);
     assertEquals(1, T.m33);
   }
+
+  @Test
+  public void testCreateRotation2DAroundPoint() {
+    var p = new Vector2f(2, 3);
+    var th = 0.7f;
+    var expected = Matrices.createTranslation(p)
+            .mult(Matrices.createRotation(th))
+            .mult(Matrices.createTranslation(p.negate()));
+    var store = new Matrix3f();
+    var actual = Matrices.createRotation(th, p, store);
+    assertSame(store, actual);
+    assertMatEquals(expected, actual);
+    assertVecEquals(p, Matrices.transform(actual, p), MathHelper.TOLERANCE);
+  }
+
+  @Test
+  public void testCreateRotation3DAroundPoint() {
+    var a = new Vector3f(1, 2, -1);
+    var p = new Vector3f(2, 3, 4);
+    var th = 1.1f;
+    var r = new Quaternion().fromAngleAxis(th, a).toRotationMatrix(new Matrix4f());
+    var expected = Matrices.createTranslation(p)
+            .mult(r)
+            .mult(Matrices.createTranslation(p.negate()));
+    var store = new Matrix4f();
+    var actual = Matrices.createRotation(a, th, p, store);
+    assertSame(store, actual);
+    for (int row = 0; row < 4; row++) {
+      for (int col = 0; col < 4; col++) {
+        assertEquals(expected.get(row, col), actual.get(row, col), MathHelper.TOLERANCE);
+      }
+    }
+    assertVecEquals(p, actual.mult(p), MathHelper.TOLERANCE);
+  }
+
+  @Test
+  public void testTransformInPlace() {
+    var m = Matrices.createCoordinateSystem(new Vector2f(0, 1), new Vector2f(-1, 0), new Vector2f(5, 6));
+    var v = new Vector2f(1, 2);
+    var actual = Matrices.transform(m, v, v);
+    assertSame(v, actual);
+    assertVecEquals(new Vector2f(3, 7), actual, MathHelper.TOLERANCE);
+  }
+
+  @Test
+  public void testMultAliased() {
+    var a = new Matrix3f(1, 2, 3, 4, 5, 6, 7, 8, 9);
+    var b = new Matrix3f(9, 8, 7, 6, 5, 4, 3, 2, 1);
+    var expected = a.mult(b);
+    assertSame(a, Matrices.mult(a, b, a));
+    assertMatEquals(expected, a);
+  }
+
+  @Test
+  public void testTransformPoints2DInPlace() {
+    var m = Matrices.createRotation(0.4f, new Vector2f(1, -2));
+    float[] xy = {0, 0, 1, 2, -3, 4};
+    var expected = new float[xy.length];
+    for (int i = 0; i < 3; i++) {
+      var v = Matrices.transform(m, new Vector2f(xy[2 * i], xy[2 * i + 1]));
+      expected[2 * i] = v.x;
+      expected[2 * i + 1] = v.y;
+    }
+    var buffer = FloatBuffer.allocate(xy.length + 2);
+    buffer.position(2);
+    buffer.put(xy).position(2);
+    Matrices.transformPoints(m, buffer, buffer, 3);
+    assertEquals(2, buffer.position());
+    var transformed = new float[xy.length];
+    buffer.get(transformed);
+    assertArrayEquals(expected, transformed, MathHelper.TOLERANCE);
+
+    Matrices.transformPoints(m, xy, 0, xy, 0, 3);
+    assertArrayEquals(expected, xy, MathHelper.TOLERANCE);
+  }
+
+  @Test
+  public void testTransformPoints2DProjectiveBuffer() {
+    var m = new Matrix3f(1, 2, 3, 4, 5, 6, 0.5f, 0, 1);
+    float[] xy = {1, 2, -1, 0.5f};
+    var expected = new float[xy.length];
+    Matrices.transformPoints(m, xy, 0, expected, 0, 2);
+    var dst = FloatBuffer.allocate(xy.length);
+    Matrices.transformPoints(m, FloatBuffer.wrap(xy), dst, 2);
+    assertArrayEquals(expected, dst.array(), MathHelper.TOLERANCE);
+    assertEquals(8 / 1.5f, expected[0], MathHelper.TOLERANCE);
+    assertEquals(20 / 1.5f, expected[1], MathHelper.TOLERANCE);
+  }
+
+  @Test
+  public void testTransformPoints3DProjective() {
+    var m = Matrices.createRotation(new Vector3f(0, 1, 1), 0.3f, new Vector3f(1, 2, 3));
+    m.m30 = 0.5f;
+    float[] xyz = {1, 2, 3, -1, 0, 2};
+    var xs = new float[]{xyz[0], xyz[3]};
+    var ys = new float[]{xyz[1], xyz[4]};
+    var zs = new float[]{xyz[2], xyz[5]};
+    var expected = new float[xyz.length];
+    for (int i = 0; i < 2; i++) {
+      var x = xyz[3 * i];
+      var v = m.mult(new Vector3f(x, xyz[3 * i + 1], xyz[3 * i + 2]));
+      var w = 0.5f * x + 1;
+      expected[3 * i] = v.x / w;
+      expected[3 * i + 1] = v.y / w;
+      expected[3 * i + 2] = v.z / w;
+    }
+
+    var dst = new float[xyz.length + 1];
+    Matrices.transformPoints(m, xyz, 0, dst, 1, 2);
+    assertArrayEquals(expected, Arrays.copyOfRange(dst, 1, dst.length), MathHelper.TOLERANCE);
+
+    Matrices.transformPoints(m, xs, ys, zs, xs, ys, zs, 0, 2);
+    assertArrayEquals(new float[]{expected[0], expected[3]}, xs, MathHelper.TOLERANCE);
+    assertArrayEquals(new float[]{expected[1], expected[4]}, ys, MathHelper.TOLERANCE);
+    assertArrayEquals(new float[]{expected[2], expected[5]}, zs, MathHelper.TOLERANCE);
+
+    var buffer = FloatBuffer.wrap(xyz);
+    Matrices.transformPoints(m, buffer, buffer, 2);
+    assertEquals(0, buffer.position());
+    assertArrayEquals(expected, xyz, MathHelper.TOLERANCE);
+  }
+
+  @Test
+  public void testCoordinateSystemWhereXAndYIs() {
+    for (var v : new Vector3f[]{new Vector3f(1, 2, 3), new Vector3f(0.1f, 5, 0), new Vector3f(-2, 0, 0.5f)}) {
+      // reference from the cross products of the unit axes
+      var x = v.normalize();
+      var z = v.cross(Math.abs(x.y) > 0.95f ? Vector3f.UNIT_X : Vector3f.UNIT_Y);
+      var y = z.cross(v);
+      var expected = columns(x, y.normalize(), z.normalize());
+      var store = new Matrix3f();
+      var input = v.clone();
+      assertSame(store, Matrices.makeCoordinateSystemWhereXIs(input, store));
+      assertMatEquals(expected, store);
+      assertVecEquals(x, input, MathHelper.TOLERANCE);
+
+      var yAxis = v.normalize();
+      z = (Math.abs(yAxis.x) > 0.95f ? Vector3f.UNIT_Y : Vector3f.UNIT_X).cross(v);
+      var xAxis = v.cross(z);
+      assertMatEquals(columns(xAxis.normalize(), yAxis, z.normalize()), Matrices.makeCoordinateSystemWhereYIs(v.clone()));
+    }
+  }
+
+  @Test
+  public void testHomogeniousTranslationStore() {
+    var store3 = new Matrix3f(9, 9, 9, 9, 9, 9, 9, 9, 9);
+    assertSame(store3, Matrices.makeHomogeniousTranslationMatrix(new Vector2f(2, 3), store3));
+    assertMatEquals(new Matrix3f(1, 0, 2, 0, 1, 3, 0, 0, 1), store3);
+    var store4 = new Matrix4f();
+    store4.m30 = 5;
+    assertSame(store4, Matrices.makeHomogeniousTranslationMatrix(new Vector3f(1, 2, 3), store4));
+    assertEquals(new Matrix4f(1, 0, 0, 1, 0, 1, 0, 2, 0, 0, 1, 3, 0, 0, 0, 1), store4);
+  }
+
+  private static Matrix3f columns(Vector3f x, Vector3f y, Vector3f z) {
+    return new Matrix3f(x.x, y.x, z.x, x.y, y.y, z.y, x.z, y.z, z.z);
+  }
+
+  private static void assertMatEquals(Matrix3f expected, Matrix3f actual) {
+    for (int row = 0; row < 3; row++) {
+      for (int col = 0; col < 3; col++) {
+        assertEquals(expected.get(row, col), actual.get(row, col), MathHelper.TOLERANCE);
+      }
+    }
+  }
 }
@@ -82,6 +82,42 @@ class TestMatrix2f {
     assertSame(mat, self);
   }
 
+  @Test
+  void multMatStore() {
+    var rhs = new Matrix2f(3, -2, -4, 5);
+    var expected = new Matrix2f(2, 1, 2, 8);
+
+    var store = new Matrix2f();
+    assertSame(store, mat.mult(rhs, store));
+    assertEquals(expected, store);
+    assertSame(rhs, mat.mult(rhs, rhs));
+    assertEquals(expected, rhs);
+  }
+
+  @Test
+  void solve() {
+    var b = new Vector2f(9, 32);
+    var expected = new Vector2f(2, 5);
+
+    var store = new Vector2f();
+    assertSame(store, mat.solve(b, store));
+    assertEquals(expected, store);
+    assertSame(b, mat.solve(b, b));
+    assertEquals(expected, b);
+  }
+
+  @Test
+  void solveSingular() {
+    var singular = new Matrix2f(1, 2, 2, 4);
+    assertThrows(IllegalStateException.class, () -> singular.solve(new Vector2f(1, 1), new Vector2f()));
+  }
+
+  @Test
+  void getOutOfBounds() {
+    assertThrows(IndexOutOfBoundsException.class, () -> mat.get(2, 0));
+    assertThrows(IndexOutOfBoundsException.class, () -> mat.set(0, -1, 0));
+  }
+
   @Test
   void get() {
     assertEquals(2, mat.get(0, 0));
@@ -0,0 +1,59 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package math;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestNormalEstimator {
+  @Test
+  public void testSphere() {
+    var random = new Random(2);
+    var n = 5000;
+    var xyz = new float[3 * n];
+    for (int i = 0; i < n; i++) {
+      // uniform points on the unit sphere
+      var z = random.nextFloat() * 2 - 1;
+      var phi = random.nextFloat() * MathF.TWO_PI;
+      var r = MathF.sqrt(1 - z * z);
+      xyz[3 * i] = r * MathF.cos(phi);
+      xyz[3 * i + 1] = r * MathF.sin(phi);
+      xyz[3 * i + 2] = z;
+    }
+    var normals = new float[3 * n];
+    var curvatures = new float[n];
+    new NormalEstimator(12).estimate(xyz, n, normals, curvatures);
+
+    for (int i = 0; i < n; i++) {
+      // on the unit sphere, the normal is parallel to the position
+      var dot = normals[3 * i] * xyz[3 * i] + normals[3 * i + 1] * xyz[3 * i + 1] + normals[3 * i + 2] * xyz[3 * i + 2];
+      assertEquals(1, Math.abs(dot), 0.02f);
+      assertTrue(curvatures[i] >= 0 && curvatures[i] < 0.05f);
+    }
+  }
+
+  @Test
+  public void testPlaneHasZeroCurvature() {
+    var n = 100;
+    var xyz = new float[3 * n];
+    for (int i = 0; i < n; i++) {
+      xyz[3 * i] = i % 10;
+      xyz[3 * i + 1] = 2;
+      xyz[3 * i + 2] = i / 10;
+    }
+    var normals = new float[3 * n];
+    var curvatures = new float[n];
+    new NormalEstimator(8).estimate(xyz, n, normals, curvatures);
+    for (int i = 0; i < n; i++) {
+      assertEquals(1, Math.abs(normals[3 * i + 1]), MathHelper.TOLERANCE);
+      assertEquals(0, curvatures[i], MathHelper.TOLERANCE);
+    }
+  }
+}
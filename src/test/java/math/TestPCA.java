@@ -3,6 +3,10 @@ package math;
 import com.jme3.math.Vector3f;
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 public class TestPCA {
     @Test
     public void test() {
@@ -21,4 +25,22 @@ public class TestPCA {
         }
         pca.applyPCA();
     }
+
+    @Test
+    public void testPlaneNormal() {
+        // points on the plane through (1000, 1000, 1000) with normal (0, 0, 1), far from the origin
+        Random random = new Random(7);
+        PCA pca = new PCA();
+        for (int i = 0; i < 1000; i++) {
+            pca.add(1000 + random.nextFloat(), 1000 + 2 * random.nextFloat(), 1000);
+        }
+        pca.applyPCA();
+
+        assertEquals(1000, pca.getPointCount());
+        assertEquals(1000.5f, pca.getCentroid().x, 0.1f);
+        assertEquals(1001f, pca.getCentroid().y, 0.1f);
+        assertEquals(1000f, pca.getCentroid().z, MathHelper.TOLERANCE);
+        assertEquals(0, pca.getEigenValue(0), 1e-3);
+        assertEquals(1, Math.abs(pca.getEigenVector(0).z), MathHelper.TOLERANCE);
+    }
 }
@@ -0,0 +1,183 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package math;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSegmentIntersector {
+  @Test
+  public void testCross() {
+    var segments = new float[]{
+            0, 0, 2, 2,
+            0, 2, 2, 0,
+            3, 0, 3, 1, // disjoint
+            2, 2, 4, 2, // touches the first at its end
+    };
+    var results = SegmentIntersector.intersectAll(segments, 4);
+    assertEquals(2, results.size());
+    for (var result : results) {
+      var intersection = result.getIntersection();
+      if (result.getSecond() == 1) {
+        assertEquals(0, result.getFirst());
+        assertEquals(0.5f, intersection.getLambda1(), MathHelper.TOLERANCE);
+        assertEquals(0.5f, intersection.getLambda2(), MathHelper.TOLERANCE);
+      } else {
+        assertEquals(0, result.getFirst());
+        assertEquals(3, result.getSecond());
+        assertEquals(1, intersection.getLambda1(), MathHelper.TOLERANCE);
+        assertEquals(0, intersection.getLambda2(), MathHelper.TOLERANCE);
+      }
+    }
+  }
+
+  @Test
+  public void testCollinearAndEmpty() {
+    assertTrue(SegmentIntersector.intersectAll(new float[]{0, 0, 2, 0, 1, 0, 3, 0}, 2).isEmpty());
+    assertTrue(SegmentIntersector.intersectAll(new float[0], 0).isEmpty());
+    assertThrows(IndexOutOfBoundsException.class, () -> SegmentIntersector.intersectAll(new float[7], 2));
+  }
+
+  @Test
+  public void testMatchesBruteForce() {
+    var random = new Random(10);
+    var n = 500;
+    var segments = new float[4 * n];
+    for (int i = 0; i < n; i++) {
+      var x = random.nextFloat() * 100;
+      var y = random.nextFloat() * 100;
+      var dir = Vectors.fromPolar(1 + random.nextFloat() * 10, random.nextFloat() * MathF.TWO_PI);
+      segments[4 * i] = x;
+      segments[4 * i + 1] = y;
+      segments[4 * i + 2] = x + dir.x;
+      segments[4 * i + 3] = y + dir.y;
+    }
+
+    assertIntersectsAll(segments, n);
+  }
+
+  @Test
+  public void testStreetGrid() {
+    // streets on a grid meet in T junctions, cross at shared points and end on each other
+    var n = 0;
+    var segments = new float[4 * 200];
+    for (int i = 0; i <= 10; i++) {
+      n = add(segments, n, i * 10, 0, i * 10, 100);
+      n = add(segments, n, 0, i * 10, 100, i * 10);
+    }
+    for (int i = 0; i < 10; i++) {
+      // branches ending on a street, and dead ends starting on it
+      n = add(segments, n, i * 10 + 5, 0, i * 10 + 5, 10);
+      n = add(segments, n, 20, i * 10 + 5, 25, i * 10 + 5);
+    }
+    // diagonals through the grid points, with many streets through one point
+    n = add(segments, n, 0, 0, 100, 100);
+    n = add(segments, n, 0, 100, 100, 0);
+    n = add(segments, n, 0, 50, 50, 0);
+    n = add(segments, n, 50, 50, 100, 0);
+    n = add(segments, n, 50, 50, 50, 80);
+    n = add(segments, n, 30, 50, 50, 50);
+    assertIntersectsAll(segments, n);
+  }
+
+  @Test
+  public void testParallelSegments() {
+    // long parallel diagonals overlap in x and y, but never intersect
+    var n = 50_000;
+    var segments = new float[4 * n];
+    for (int i = 0; i < n; i++) {
+      add(segments, i, i, 0, i + 1000, 1000);
+    }
+    assertTrue(SegmentIntersector.intersectAll(segments, n).isEmpty());
+  }
+
+  private static int add(float[] segments, int n, float x0, float y0, float x1, float y1) {
+    segments[4 * n] = x0;
+    segments[4 * n + 1] = y0;
+    segments[4 * n + 2] = x1;
+    segments[4 * n + 3] = y1;
+    return n + 1;
+  }
+
+  /**
+   * Asserts that the intersections found equal those of testing all pairs.
+   */
+  private static void assertIntersectsAll(float[] segments, int n) {
+    var expected = new HashSet<Long>();
+    for (int i = 0; i < n; i++) {
+      for (int j = i + 1; j < n; j++) {
+        var p = segments[4 * i];
+        var q = segments[4 * j];
+        var dx = segments[4 * i + 2] - p;
+        var dy = segments[4 * i + 3] - segments[4 * i + 1];
+        var ex = segments[4 * j + 2] - q;
+        var ey = segments[4 * j + 3] - segments[4 * j + 1];
+        var bx = q - p;
+        var by = segments[4 * j + 1] - segments[4 * i + 1];
+        var det = ey * -dx + ex * dy;
+        var l1 = (ex * by - ey * bx) / det;
+        var l2 = (dx * by - dy * bx) / det;
+        if (det != 0 && l1 >= 0 && l1 <= 1 && l2 >= 0 && l2 <= 1) {
+          expected.add((long) i * n + j);
+        }
+      }
+    }
+    assertFalse(expected.isEmpty());
+
+    var actual = new HashSet<Long>();
+    SegmentIntersector.intersectAll(segments, n, (first, second, intersection) -> {
+      assertTrue(first < second);
+      assertTrue(actual.add((long) first * n + second));
+
+      // both parameters denote the same point
+      var x1 = segments[4 * first] + intersection.getLambda1() * (segments[4 * first + 2] - segments[4 * first]);
+      var y1 = segments[4 * first + 1] + intersection.getLambda1() * (segments[4 * first + 3] - segments[4 * first + 1]);
+      var x2 = segments[4 * second] + intersection.getLambda2() * (segments[4 * second + 2] - segments[4 * second]);
+      var y2 = segments[4 * second + 1] + intersection.getLambda2() * (segments[4 * second + 3] - segments[4 * second + 1]);
+      assertEquals(x1, x2, 1e-3f);
+      assertEquals(y1, y2, 1e-3f);
+    });
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  public void testLongHorizontalSegments() {
+    // all horizontal segments overlap in x, but only the vertical ones crossing them overlap in y
+    var horizontal = 20_000;
+    var vertical = 100;
+    var n = horizontal + vertical;
+    var segments = new float[4 * n];
+    for (int i = 0; i < horizontal; i++) {
+      segments[4 * i] = 0;
+      segments[4 * i + 1] = i;
+      segments[4 * i + 2] = 1000;
+      segments[4 * i + 3] = i;
+    }
+    var expected = 0;
+    for (int i = horizontal; i < n; i++) {
+      var x = (i - horizontal) * 10 + 0.5f;
+      var y = (i - horizontal) * 100 + 0.5f;
+      segments[4 * i] = x;
+      segments[4 * i + 1] = y + 3;
+      segments[4 * i + 2] = x;
+      segments[4 * i + 3] = y;
+      expected += 3;
+    }
+
+    var found = new int[1];
+    SegmentIntersector.intersectAll(segments, n, (first, second, intersection) -> {
+      assertTrue(first < horizontal && second >= horizontal);
+      var y = segments[4 * second + 1] + intersection.getLambda2() * (segments[4 * second + 3] - segments[4 * second + 1]);
+      assertEquals(first, y, 1e-3f);
+      found[0]++;
+    });
+    assertEquals(expected, found[0]);
+  }
+}
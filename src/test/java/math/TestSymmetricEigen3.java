@@ -0,0 +1,76 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package math;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestSymmetricEigen3 {
+  @Test
+  public void testDiagonal() {
+    var values = new double[3];
+    var vectors = new double[9];
+    SymmetricEigen3.decompose(3, 0, 0, 1, 0, 2, values, vectors);
+    assertArrayEquals(new double[]{1, 2, 3}, values);
+    assertArrayEquals(new double[]{0, 1, 0, 0, 0, 1, 1, 0, 0}, vectors);
+  }
+
+  @Test
+  public void testRepeatedEigenvalues() {
+    // eigenvalues 0, 3, 3
+    var values = new double[3];
+    var vectors = new double[9];
+    SymmetricEigen3.decompose(2, 1, 1, 2, -1, 2, values, vectors);
+    assertDecomposition(new double[][]{{2, 1, 1}, {1, 2, -1}, {1, -1, 2}}, values, vectors);
+    assertEquals(0, values[0], 1e-12);
+    assertEquals(3, values[1], 1e-12);
+    assertEquals(3, values[2], 1e-12);
+  }
+
+  @Test
+  public void testRandom() {
+    var random = new Random(11);
+    var values = new double[3];
+    var vectors = new double[9];
+    for (int i = 0; i < 1000; i++) {
+      double[][] a = new double[3][3];
+      for (int row = 0; row < 3; row++) {
+        for (int col = row; col < 3; col++) {
+          a[row][col] = a[col][row] = random.nextGaussian() * 10;
+        }
+      }
+      SymmetricEigen3.decompose(a[0][0], a[0][1], a[0][2], a[1][1], a[1][2], a[2][2], values, vectors);
+      assertDecomposition(a, values, vectors);
+    }
+  }
+
+  private static void assertDecomposition(double[][] a, double[] values, double[] vectors) {
+    assertTrue(values[0] <= values[1] && values[1] <= values[2]);
+    for (int k = 0; k < 3; k++) {
+      for (int row = 0; row < 3; row++) {
+        // A v = λ v
+        double av = 0;
+        for (int col = 0; col < 3; col++) {
+          av += a[row][col] * vectors[3 * k + col];
+        }
+        assertEquals(values[k] * vectors[3 * k + row], av, 1e-9);
+      }
+      for (int l = 0; l < 3; l++) {
+        // orthonormal
+        double dot = 0;
+        for (int i = 0; i < 3; i++) {
+          dot += vectors[3 * k + i] * vectors[3 * l + i];
+        }
+        assertEquals(k == l ? 1 : 0, dot, 1e-12);
+      }
+    }
+  }
+}
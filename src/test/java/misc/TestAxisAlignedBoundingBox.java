@@ -9,7 +9,12 @@ import com.jme3.math.Vector3f;
 import math.MathHelper;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.Random;
+
 import static base.JmeAssertions.assertVecEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class TestAxisAlignedBoundingBox {
   @Test
@@ -19,4 +24,68 @@ public class TestAxisAlignedBoundingBox {
     aabb.add(new Vector3f(1, 1, 1));
     assertVecEquals(new Vector3f(0.5f, 0.5f, 0.5f), aabb.getCenter(), MathHelper.TOLERANCE);
   }
+
+  @Test
+  public void testEmpty() {
+    var aabb = new AxisAlignedBoundingBox();
+    assertTrue(aabb.isEmpty());
+    assertNull(aabb.getLL());
+    assertEquals(0, aabb.getSurfaceArea());
+    assertVecEquals(new Vector3f(0, 0, 0), aabb.getExtent(new Vector3f()), 0);
+
+    // merging with an empty box
+    var other = new AxisAlignedBoundingBox();
+    other.grow(1, 2, 3);
+    aabb.add(other);
+    assertFalse(aabb.isEmpty());
+    assertVecEquals(new Vector3f(1, 2, 3), aabb.getLL(), 0);
+    assertVecEquals(new Vector3f(1, 2, 3), aabb.getUR(), 0);
+    aabb.add(new AxisAlignedBoundingBox());
+    assertVecEquals(new Vector3f(0, 0, 0), aabb.getExtent(), 0);
+
+    aabb.clear();
+    assertTrue(aabb.isEmpty());
+  }
+
+  @Test
+  public void testAddAll() {
+    var xyz = new float[]{9, 9, 9, 1, 5, -2, -1, 0, 4, 3, 2, 1};
+    var aabb = new AxisAlignedBoundingBox();
+    aabb.addAll(xyz, 3, 3);
+    assertVecEquals(new Vector3f(-1, 0, -2), aabb.getLL(new Vector3f()), 0);
+    assertVecEquals(new Vector3f(3, 5, 4), aabb.getUR(new Vector3f()), 0);
+    assertVecEquals(new Vector3f(4, 5, 6), aabb.getExtent(new Vector3f()), 0);
+    assertVecEquals(new Vector3f(1, 2.5f, 1), aabb.getCenter(new Vector3f()), 0);
+    assertEquals(2 * (4 * 5 + 5 * 6 + 6 * 4), aabb.getSurfaceArea(), MathHelper.TOLERANCE);
+    assertThrows(IndexOutOfBoundsException.class, () -> aabb.addAll(xyz, 6, 3));
+  }
+
+  @Test
+  public void testOfParallel() {
+    var random = new Random(14);
+    var n = 200_000;
+    var xyz = new float[3 * n + 3];
+    var points = new ArrayList<Vector3f>(n);
+    var expected = new AxisAlignedBoundingBox();
+    for (int i = 0; i < n; i++) {
+      var point = new Vector3f(random.nextFloat(), random.nextFloat(), random.nextFloat()).multLocal(100);
+      xyz[3 + 3 * i] = point.x;
+      xyz[3 + 3 * i + 1] = point.y;
+      xyz[3 + 3 * i + 2] = point.z;
+      points.add(point);
+      expected.add(point);
+    }
+    xyz[0] = -1000;
+
+    var fromArray = AxisAlignedBoundingBox.ofParallel(xyz, 3, n);
+    assertVecEquals(expected.getLL(), fromArray.getLL(), 0);
+    assertVecEquals(expected.getUR(), fromArray.getUR(), 0);
+    var fromList = AxisAlignedBoundingBox.ofParallel(points);
+    assertVecEquals(expected.getLL(), fromList.getLL(), 0);
+    assertVecEquals(expected.getUR(), fromList.getUR(), 0);
+    var fromLinkedList = AxisAlignedBoundingBox.ofParallel(new LinkedList<>(points.subList(0, 10)));
+    assertFalse(fromLinkedList.isEmpty());
+
+    assertTrue(AxisAlignedBoundingBox.ofParallel(xyz, 0, 0).isEmpty());
+  }
 }
@@ -0,0 +1,164 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package misc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestKdTree {
+  @Test
+  public void testNearestMatchesBruteForce() {
+    var random = new Random(1);
+    var n = 2000;
+    var xyz = new float[3 * n];
+    for (int i = 0; i < xyz.length; i++) {
+      // quantized to provoke duplicate coordinates
+      xyz[i] = random.nextInt(50) * 0.1f;
+    }
+    var tree = new KdTree(xyz, 0, n);
+    assertEquals(n, tree.size());
+
+    var k = 7;
+    var result = new int[k];
+    var distancesSq = new float[k];
+    for (int q = 0; q < 200; q++) {
+      var x = random.nextFloat() * 5;
+      var y = random.nextFloat() * 5;
+      var z = random.nextFloat() * 5;
+      var expected = IntStream.range(0, n)
+              .mapToObj(i -> new float[]{i, distSq(xyz, i, x, y, z)})
+              .sorted(Comparator.comparingDouble(e -> e[1]))
+              .limit(k)
+              .toArray(float[][]::new);
+
+      assertEquals(k, tree.nearest(x, y, z, k, result, distancesSq));
+      for (int i = 0; i < k; i++) {
+        assertEquals(expected[i][1], distancesSq[i]);
+        assertEquals(distancesSq[i], distSq(xyz, result[i], x, y, z));
+      }
+    }
+  }
+
+  @Test
+  public void testNearestFewerPointsThanK() {
+    var tree = new KdTree(new float[]{-1, 0, 0, 0, 0, 3, 0, 0, 1, 0}, 1, 3);
+    var result = new int[5];
+    var distancesSq = new float[5];
+    assertEquals(3, tree.nearest(0, 0, 0, 5, result, distancesSq));
+    assertArrayEquals(new int[]{0, 2, 1}, Arrays.copyOf(result, 3));
+    assertArrayEquals(new float[]{0, 1, 9}, Arrays.copyOf(distancesSq, 3));
+  }
+
+  @Test
+  public void testNearestWithinDistance() {
+    var random = new Random(2);
+    var n = 3000;
+    var xyz = randomPoints(random, n, 10);
+    var tree = new KdTree(xyz, 0, n);
+    var k = 10;
+    var result = new int[k];
+    var distancesSq = new float[k];
+    for (int q = 0; q < 200; q++) {
+      var x = random.nextFloat() * 10;
+      var y = random.nextFloat() * 10;
+      var z = random.nextFloat() * 10;
+      var maxDistance = random.nextFloat() * 0.8f;
+      var expected = IntStream.range(0, n)
+              .mapToObj(i -> new float[]{i, distSq(xyz, i, x, y, z)})
+              .filter(e -> e[1] <= maxDistance * maxDistance)
+              .sorted(Comparator.comparingDouble(e -> e[1]))
+              .limit(k)
+              .toArray(float[][]::new);
+
+      assertEquals(expected.length, tree.nearest(x, y, z, k, maxDistance, result, distancesSq));
+      for (int i = 0; i < expected.length; i++) {
+        assertEquals(expected[i][1], distancesSq[i]);
+      }
+    }
+    assertEquals(0, tree.nearest(0, 0, 0, k, -1, result, distancesSq));
+  }
+
+  @Test
+  public void testWithinRadiusMatchesBruteForce() {
+    var random = new Random(3);
+    var n = 3000;
+    var xyz = randomPoints(random, n, 10);
+    var tree = new KdTree(xyz, 0, n);
+    var result = new int[n];
+    var distancesSq = new float[n];
+    for (int q = 0; q < 200; q++) {
+      var x = random.nextFloat() * 10;
+      var y = random.nextFloat() * 10;
+      var z = random.nextFloat() * 10;
+      var radius = random.nextFloat() * 2;
+      var expected = IntStream.range(0, n).filter(i -> distSq(xyz, i, x, y, z) <= radius * radius).toArray();
+
+      int found = tree.withinRadius(x, y, z, radius, result, distancesSq);
+      assertEquals(expected.length, found);
+      for (int i = 0; i < found; i++) {
+        assertEquals(distSq(xyz, result[i], x, y, z), distancesSq[i]);
+      }
+      var sorted = Arrays.copyOf(result, found);
+      Arrays.sort(sorted);
+      assertArrayEquals(expected, sorted);
+    }
+  }
+
+  @Test
+  public void testWithinRadiusSmallBuffer() {
+    var tree = new KdTree(new float[]{0, 0, 0, 1, 0, 0, 2, 0, 0, 3, 0, 0}, 0, 4);
+    var result = new int[]{-1, -1};
+    assertEquals(3, tree.withinRadius(0, 0, 0, 2, result, null));
+    assertTrue(result[0] >= 0 && result[0] < 3 && result[1] >= 0 && result[1] < 3);
+    assertEquals(0, tree.withinRadius(10, 0, 0, 1, result, null));
+    assertEquals(1, tree.withinRadius(3, 0, 0, 0, result, null));
+    assertThrows(IllegalArgumentException.class, () -> tree.withinRadius(0, 0, 0, 1, new int[2], new float[1]));
+  }
+
+  @Test
+  public void testParallelBuild() {
+    var random = new Random(4);
+    var n = KdTree.PARALLEL_THRESHOLD + 1000;
+    var xyz = randomPoints(random, n, 100);
+    var tree = new KdTree(xyz, 0, n);
+    var k = 5;
+    var result = new int[k];
+    var distancesSq = new float[k];
+    for (int q = 0; q < 5; q++) {
+      var x = random.nextFloat() * 100;
+      var y = random.nextFloat() * 100;
+      var z = random.nextFloat() * 100;
+      var expected = new float[n];
+      for (int i = 0; i < n; i++) {
+        expected[i] = distSq(xyz, i, x, y, z);
+      }
+      Arrays.sort(expected);
+      assertEquals(k, tree.nearest(x, y, z, k, result, distancesSq));
+      assertArrayEquals(Arrays.copyOf(expected, k), distancesSq);
+    }
+  }
+
+  private static float[] randomPoints(Random random, int n, float extent) {
+    var xyz = new float[3 * n];
+    for (int i = 0; i < xyz.length; i++) {
+      xyz[i] = random.nextFloat() * extent;
+    }
+    return xyz;
+  }
+
+  private static float distSq(float[] xyz, int i, float x, float y, float z) {
+    var dx = xyz[3 * i] - x;
+    var dy = xyz[3 * i + 1] - y;
+    var dz = xyz[3 * i + 2] - z;
+    return dx * dx + dy * dy + dz * dz;
+  }
+}
@@ -0,0 +1,165 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package misc;
+
+import math.MathHelper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSpatialHashGrid {
+  @Test
+  public void testNeighboursMatchBruteForce3D() {
+    var random = new Random(30);
+    var grid = new SpatialHashGrid(3, 0.5f);
+    // rebuild with different sizes to exercise the reuse of the arrays
+    for (int n : new int[]{2000, 500, 3000}) {
+      var xyz = new float[3 * n + 3];
+      for (int i = 3; i < xyz.length; i++) {
+        xyz[i] = random.nextFloat() * 10 - 5;
+      }
+      grid.rebuild(xyz, 3, n);
+      assertEquals(n, grid.size());
+
+      for (int q = 0; q < 100; q++) {
+        var x = random.nextFloat() * 10 - 5;
+        var y = random.nextFloat() * 10 - 5;
+        var z = random.nextFloat() * 10 - 5;
+        var radius = random.nextFloat() * 1.5f;
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < n; i++) {
+          if (distSq(xyz, 3 + 3 * i, x, y, z) <= radius * radius) {
+            expected.add(i);
+          }
+        }
+        Set<Integer> found = new HashSet<>();
+        int count = grid.forEachNeighbour(x, y, z, radius, (index, distanceSq) -> {
+          assertTrue(found.add(index), "reported twice");
+          assertEquals(distSq(xyz, 3 + 3 * index, x, y, z), distanceSq);
+        });
+        assertEquals(expected, found);
+        assertEquals(expected.size(), count);
+      }
+    }
+  }
+
+  @Test
+  public void testPairs2D() {
+    var random = new Random(31);
+    var n = 1500;
+    var xy = new float[2 * n];
+    for (int i = 0; i < xy.length; i++) {
+      xy[i] = random.nextFloat() * 20;
+    }
+    var grid = new SpatialHashGrid(2, 0.3f);
+    grid.rebuild(xy, 0, n);
+    var radius = 0.3f;
+
+    Set<Long> expected = new HashSet<>();
+    for (int i = 0; i < n; i++) {
+      for (int j = i + 1; j < n; j++) {
+        var dx = xy[2 * i] - xy[2 * j];
+        var dy = xy[2 * i + 1] - xy[2 * j + 1];
+        if (dx * dx + dy * dy <= radius * radius) {
+          expected.add(((long) i << 32) | j);
+        }
+      }
+    }
+    Set<Long> found = new HashSet<>();
+    int count = grid.forEachPair(radius, (first, second, distanceSq) -> {
+      assertTrue(first < second);
+      assertTrue(found.add(((long) first << 32) | second), "reported twice");
+    });
+    assertEquals(expected, found);
+    assertEquals(expected.size(), count);
+
+    var neighbours = new int[1];
+    grid.forEachNeighbour(xy[0], xy[1], 0, (index, distanceSq) -> neighbours[0]++);
+    assertTrue(neighbours[0] >= 1);
+    assertThrows(IllegalArgumentException.class, () -> grid.forEachNeighbour(0, 0, 0, 1, (index, distanceSq) -> {
+    }));
+  }
+
+  @Test
+  public void testEqual() {
+    var t = MathHelper.TOLERANCE;
+    // points around a cell border at 1
+    var xyz = new float[]{
+            1, 1, 1,
+            1 - 0.5f * t, 1, 1 + 0.5f * t,
+            1 + 0.9f * t, 1, 1,
+            1 + 2 * t, 1, 1,
+            1, 1, 1 - 2 * t,
+    };
+    var grid = new SpatialHashGrid(3, 1);
+    grid.rebuild(xyz, 0, 5);
+    var found = new int[5];
+    int count = grid.forEachEqual(1, 1, 1, (index, distanceSq) -> found[index]++);
+    assertEquals(3, count);
+    assertArrayEquals(new int[]{1, 1, 1, 0, 0}, found);
+
+    var empty = new SpatialHashGrid(3, 1);
+    assertEquals(0, empty.forEachEqual(0, 0, 0, (index, distanceSq) -> fail("unexpected point")));
+    empty.rebuild(new float[0], 0, 0);
+    assertEquals(0, empty.forEachNeighbour(0, 0, 0, 1, (index, distanceSq) -> fail("unexpected point")));
+  }
+
+  @Test
+  public void testHugeRadius() {
+    var grid = new SpatialHashGrid(3, 0.5f);
+    grid.rebuild(new float[]{0, 0, 0, 1e15f, -1e15f, 3}, 0, 2);
+    var found = new int[2];
+    assertEquals(2, grid.forEachNeighbour(0, 0, 0, Float.POSITIVE_INFINITY, (index, distanceSq) -> found[index]++));
+    assertArrayEquals(new int[]{1, 1}, found);
+    assertEquals(1, grid.forEachNeighbour(0, 0, 0, 1e10f, (index, distanceSq) -> assertEquals(0, index)));
+    assertEquals(1, grid.forEachPair(Float.MAX_VALUE, (first, second, distanceSq) -> assertEquals(1, second)));
+
+    var grid2D = new SpatialHashGrid(2, 1e-3f);
+    grid2D.rebuild(new float[]{0, 0, 5, 5}, 0, 2);
+    assertEquals(2, grid2D.forEachNeighbour(0, 0, 1e6f, (index, distanceSq) -> { }));
+  }
+
+  @Test
+  public void testLargeCoordinates() {
+    var t = MathHelper.TOLERANCE;
+    // cell indices beyond the int range, and beyond the clamped long range
+    var xyz = new float[]{
+            50000, 0, 0,
+            50000, 0, 0,
+            -3e9f, 7e9f, 1e9f,
+            Float.MAX_VALUE, 0, 0,
+            Float.MAX_VALUE, 0, 1,
+    };
+    var grid = new SpatialHashGrid(3, 2 * t);
+    grid.rebuild(xyz, 0, 5);
+    var found = new int[5];
+    assertEquals(2, grid.forEachEqual(50000, 0, 0, (index, distanceSq) -> found[index]++));
+    assertEquals(1, grid.forEachEqual(-3e9f, 7e9f, 1e9f, (index, distanceSq) -> found[index]++));
+    assertEquals(1, grid.forEachNeighbour(Float.MAX_VALUE, 0, 1, 0.5f, (index, distanceSq) -> found[index]++));
+    assertArrayEquals(new int[]{1, 1, 1, 0, 1}, found);
+    assertEquals(2, grid.forEachNeighbour(50000, 0, 0, 1, (index, distanceSq) -> assertTrue(index < 2)));
+    assertEquals(2, grid.forEachPair(1, (first, second, distanceSq) -> { }));
+  }
+
+  @Test
+  public void testInvalid() {
+    assertThrows(IllegalArgumentException.class, () -> new SpatialHashGrid(4, 1));
+    assertThrows(IllegalArgumentException.class, () -> new SpatialHashGrid(3, 0));
+    assertThrows(IndexOutOfBoundsException.class, () -> new SpatialHashGrid(3, 1).rebuild(new float[5], 0, 2));
+  }
+
+  private static float distSq(float[] xyz, int o, float x, float y, float z) {
+    var dx = xyz[o] - x;
+    var dy = xyz[o + 1] - y;
+    var dz = xyz[o + 2] - z;
+    return dx * dx + dy * dy + dz * dz;
+  }
+}
@@ -0,0 +1,104 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package misc;
+
+import math.MathHelper;
+import math.Vectors;
+import org.junit.jupiter.api.Test;
+import shape3d.TriangleMesh;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestVertexWelder {
+  @Test
+  public void testMatchesQuadraticReference() {
+    var random = new Random(40);
+    var t = MathHelper.TOLERANCE;
+    var n = 5000;
+    var xyz = new float[3 * n];
+    for (int i = 0; i < n; i++) {
+      if (i > 0 && random.nextInt(3) > 0) {
+        // a jittered copy of an earlier vertex
+        int j = random.nextInt(i);
+        for (int k = 0; k < 3; k++) {
+          xyz[3 * i + k] = xyz[3 * j + k] + (random.nextFloat() - 0.5f) * 3 * t;
+        }
+      } else {
+        for (int k = 0; k < 3; k++) {
+          xyz[3 * i + k] = random.nextInt(100) * 0.01f;
+        }
+      }
+    }
+
+    // greedy merge into the first equal kept vertex
+    var expected = new int[n];
+    var kept = new int[n];
+    int keptCount = 0;
+    for (int i = 0; i < n; i++) {
+      expected[i] = -1;
+      for (int k = 0; k < keptCount && expected[i] < 0; k++) {
+        int j = kept[k];
+        if (Vectors.equals(xyz[3 * i], xyz[3 * i + 1], xyz[3 * i + 2], xyz[3 * j], xyz[3 * j + 1], xyz[3 * j + 2])) {
+          expected[i] = k;
+        }
+      }
+      if (expected[i] < 0) {
+        expected[i] = keptCount;
+        kept[keptCount++] = i;
+      }
+    }
+
+    var remap = VertexWelder.weld(xyz, 0, n);
+    assertArrayEquals(expected, remap);
+    assertEquals(keptCount, VertexWelder.getWeldedCount(remap));
+    var welded = VertexWelder.compact(xyz, 0, remap);
+    assertEquals(3 * keptCount, welded.length);
+    for (int k = 0; k < keptCount; k++) {
+      assertArrayEquals(Arrays.copyOfRange(xyz, 3 * kept[k], 3 * kept[k] + 3), Arrays.copyOfRange(welded, 3 * k, 3 * k + 3));
+    }
+  }
+
+  @Test
+  public void testNotTransitive() {
+    var t = MathHelper.TOLERANCE;
+    // b is equal to both a and c, but a and c are not equal
+    var xyz = new float[]{-1, 0, 0, 0, 0, 0, 0.6f * t, 0, 0, 1.2f * t, 0, 0};
+    var remap = VertexWelder.weld(xyz, 3, 3);
+    assertArrayEquals(new int[]{0, 0, 1}, remap);
+    assertArrayEquals(new float[]{0, 0, 0, 1.2f * t, 0, 0}, VertexWelder.compact(xyz, 3, remap));
+  }
+
+  @Test
+  public void testLargeCoordinates() {
+    assertArrayEquals(new int[]{0, 0}, VertexWelder.weld(new float[]{50000, 0, 0, 50000, 0, 0}, 0, 2));
+    // beyond the int range of cells and beyond the clamped cell indices
+    var xyz = new float[]{
+            -3e9f, 7e9f, 1e9f,
+            1e20f, 0, -1e20f,
+            -3e9f, 7e9f, 1e9f,
+            1e20f, 0, -1e20f,
+            Float.MAX_VALUE, 1, 0,
+    };
+    assertArrayEquals(new int[]{0, 1, 0, 1, 2}, VertexWelder.weld(xyz, 0, 5));
+  }
+
+  @Test
+  public void testWeldMesh() {
+    // two triangles of a quad with separate vertices and a triangle collapsing to an edge
+    var t = MathHelper.TOLERANCE;
+    var mesh = new TriangleMesh(new float[]{
+            0, 0, 0, 1, 0, 0, 1, 1, 0,
+            0, 0, 0.1f * t, 1, 1, 0, 0, 1, 0,
+            0, 0, 0, 0.5f * t, 0, 0, 1, 0, 0
+    }, new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8});
+    var welded = mesh.weld();
+    assertEquals(4, welded.getVertexCount());
+    assertArrayEquals(new int[]{0, 1, 2, 0, 2, 3}, welded.getIndices());
+  }
+}
@@ -0,0 +1,172 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package shape3d;
+
+import com.jme3.math.Vector3f;
+import math.MathHelper;
+import misc.AxisAlignedBoundingBox;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestBoundingVolumeHierarchy {
+  @Test
+  public void testMatchesBruteForce() {
+    var random = new Random(11);
+    List<Shape3D> shapes = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      var center = new Vector3f(random.nextFloat() * 100, random.nextFloat() * 100, random.nextFloat() * 100);
+      shapes.add(new Sphere(center, 0.2f + random.nextFloat()));
+    }
+    shapes.add(new Plane(new Vector3f(0, 0, -10), new Vector3f(0, 0, 1)));
+    var bvh = new BoundingVolumeHierarchy(shapes);
+    assertEquals(shapes.size(), bvh.size());
+    assertTrue(bvh.getNodeCount() > 1);
+
+    var lambda = new float[1];
+    for (int r = 0; r < 500; r++) {
+      var origin = new Vector3f(random.nextFloat() * 100, random.nextFloat() * 100, random.nextFloat() * 100);
+      var dir = new Vector3f(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, random.nextFloat() - 0.5f)
+              .normalizeLocal();
+      if (r % 10 == 0) {
+        // axis parallel rays
+        dir.set(0, 0, r % 20 == 0 ? 1 : -1);
+      }
+      var ray = new Ray3D(origin, dir);
+
+      int expectedNearest = -1;
+      var expectedLambda = Float.POSITIVE_INFINITY;
+      Set<Integer> expectedAll = new HashSet<>();
+      for (int i = 0; i < shapes.size(); i++) {
+        var l = Intersector3D.intersectRayParameter(ray, shapes.get(i));
+        if (!Float.isNaN(l)) {
+          expectedAll.add(i);
+          if (l < expectedLambda) {
+            expectedLambda = l;
+            expectedNearest = i;
+          }
+        }
+      }
+
+      int nearest = bvh.intersectNearest(ray, Float.POSITIVE_INFINITY, lambda);
+      assertEquals(expectedNearest, nearest);
+      if (nearest >= 0) {
+        assertEquals(expectedLambda, lambda[0], MathHelper.TOLERANCE);
+        assertTrue(bvh.intersectAny(ray, Float.POSITIVE_INFINITY) >= 0);
+        assertEquals(-1, bvh.intersectAny(ray, expectedLambda * 0.99f));
+      } else {
+        assertEquals(-1, bvh.intersectAny(ray, Float.POSITIVE_INFINITY));
+      }
+
+      Set<Integer> all = new HashSet<>();
+      int count = bvh.intersectAll(ray, Float.POSITIVE_INFINITY, (index, l) -> assertTrue(all.add(index)));
+      assertEquals(expectedAll.size(), count);
+      assertEquals(expectedAll, all);
+    }
+  }
+
+  @Test
+  public void testCoincidentAndEmpty() {
+    List<Shape3D> shapes = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      shapes.add(new Sphere(new Vector3f(0, 0, 0), 1 + i));
+    }
+    var bvh = new BoundingVolumeHierarchy(shapes);
+    var ray = new Ray3D(new Vector3f(0, 0, -100), new Vector3f(0, 0, 1));
+    assertEquals(19, bvh.intersectNearest(ray));
+    assertEquals(20, bvh.intersectAll(ray).size());
+    assertEquals(new Vector3f(20, 20, 20), bvh.getBounds().getUR());
+
+    var empty = new BoundingVolumeHierarchy(List.of());
+    assertEquals(-1, empty.intersectNearest(ray));
+    assertTrue(empty.intersectAll(ray).isEmpty());
+  }
+
+  @Test
+  public void testNestedQueries() {
+    var random = new Random(5);
+    List<Shape3D> shapes = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      shapes.add(new Sphere(new Vector3f(random.nextFloat() * 10, random.nextFloat() * 10, i), 0.8f));
+    }
+    var bvh = new BoundingVolumeHierarchy(shapes);
+    var ray = new Ray3D(new Vector3f(5, 5, -1), new Vector3f(0, 0, 1));
+    var expected = bvh.intersectAll(ray).size();
+    assertTrue(expected > 1);
+
+    // queries started from a listener must not share the traversal stack of the running query
+    var inner = new Ray3D(new Vector3f(0, 0, 0), new Vector3f(0, 0, 1));
+    var innerHit = bvh.intersectNearest(inner);
+    int count = bvh.intersectAll(ray, Float.POSITIVE_INFINITY, (index, lambda) -> {
+      assertEquals(innerHit, bvh.intersectNearest(inner));
+      assertEquals(expected, bvh.intersectAll(ray).size());
+    });
+    assertEquals(expected, count);
+  }
+
+  @Test
+  public void testCustomShape() {
+    // a shape outside the library only implements its own bounds and kernels
+    var cube = new Cube(new Vector3f(0, 0, 5));
+    List<Shape3D> shapes = List.of(new Sphere(new Vector3f(0, 0, 10), 1), cube);
+    var bvh = new BoundingVolumeHierarchy(shapes);
+    var ray = new Ray3D(new Vector3f(0, 0, 0), new Vector3f(0, 0, 1));
+    assertEquals(1, bvh.intersectNearest(ray));
+
+    var hit = new Hit();
+    assertTrue(Intersector3D.intersect(ray, cube, hit));
+    assertEquals(4, hit.getLambda(), MathHelper.TOLERANCE);
+    assertSame(cube.box, hit.getShape());
+
+    var hits = new boolean[2];
+    assertEquals(1, Intersector3D.testSegments(new float[]{0, 0, 0, 0, 0, 10, 3, 0, 0, 3, 0, 10}, 0, 2, cube, hits));
+    assertTrue(hits[0]);
+    assertFalse(hits[1]);
+  }
+
+  /**
+   * A unit cube around a center, delegating to a box.
+   */
+  private static class Cube implements Traceable {
+    private final AxisAlignedBoundingBox box = new AxisAlignedBoundingBox();
+
+    Cube(Vector3f center) {
+      box.grow(center.x - 1, center.y - 1, center.z - 1);
+      box.grow(center.x + 1, center.y + 1, center.z + 1);
+    }
+
+    @Override
+    public List<Shape3D> intersect(Shape3D other) {
+      return box.intersect(other);
+    }
+
+    @Override
+    public boolean computeBounds(float[] store, int offset) {
+      return box.computeBounds(store, offset);
+    }
+
+    @Override
+    public float intersectRayParameter(Ray3D ray) {
+      return box.intersectRayParameter(ray);
+    }
+
+    @Override
+    public boolean intersect(Ray3D ray, Hit hitStore) {
+      return box.intersect(ray, hitStore);
+    }
+
+    @Override
+    public boolean testSegment(float ax, float ay, float az, float bx, float by, float bz) {
+      return box.testSegment(ax, ay, az, bx, by, bz);
+    }
+  }
+}
@@ -0,0 +1,159 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package shape3d;
+
+import com.jme3.math.Vector3f;
+import misc.AxisAlignedBoundingBox;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestDynamicBoundingVolumeTree {
+  private static AxisAlignedBoundingBox box(Vector3f center, float radius) {
+    var box = new AxisAlignedBoundingBox();
+    box.grow(center.x - radius, center.y - radius, center.z - radius);
+    box.grow(center.x + radius, center.y + radius, center.z + radius);
+    return box;
+  }
+
+  private static Set<Long> pairs(DynamicBoundingVolumeTree<?> tree) {
+    Set<Long> pairs = new HashSet<>();
+    tree.findOverlappingPairs((first, second) -> {
+      assertTrue(first < second);
+      assertTrue(pairs.add(((long) first << 32) | second), "pair reported twice");
+    });
+    return pairs;
+  }
+
+  private static Set<Long> bruteForcePairs(DynamicBoundingVolumeTree<?> tree, List<Integer> proxies) {
+    Set<Long> pairs = new HashSet<>();
+    var b1 = new AxisAlignedBoundingBox();
+    var b2 = new AxisAlignedBoundingBox();
+    for (int p : proxies) {
+      for (int q : proxies) {
+        if (p < q && Intersector3D.testBoxBox(tree.getFatBounds(p, b1), tree.getFatBounds(q, b2))) {
+          pairs.add(((long) p << 32) | q);
+        }
+      }
+    }
+    return pairs;
+  }
+
+  @Test
+  public void testPairsMatchBruteForce() {
+    var random = new Random(21);
+    var tree = new DynamicBoundingVolumeTree<Sphere>(0.05f);
+    List<Sphere> spheres = new ArrayList<>();
+    List<Integer> proxies = new ArrayList<>();
+    for (int i = 0; i < 400; i++) {
+      var sphere = new Sphere(new Vector3f(random.nextFloat() * 20, random.nextFloat() * 20, random.nextFloat() * 20),
+              0.2f + random.nextFloat() * 0.5f);
+      spheres.add(sphere);
+      proxies.add(tree.insert(box(sphere.getCenter(), sphere.getRadius()), sphere));
+    }
+    assertEquals(400, tree.size());
+    assertEquals(bruteForcePairs(tree, proxies), pairs(tree));
+
+    // move everything a bit, then a lot
+    for (float step : new float[]{0.01f, 2}) {
+      int reinserted = 0;
+      for (int i = 0; i < proxies.size(); i++) {
+        var sphere = spheres.get(i);
+        var center = sphere.getCenter().add((random.nextFloat() - 0.5f) * step, (random.nextFloat() - 0.5f) * step,
+                (random.nextFloat() - 0.5f) * step);
+        reinserted += tree.update(proxies.get(i), box(center, sphere.getRadius())) ? 1 : 0;
+      }
+      if (step < 0.05f) {
+        assertEquals(0, reinserted);
+      } else {
+        assertTrue(reinserted > 0);
+      }
+      assertEquals(bruteForcePairs(tree, proxies), pairs(tree));
+    }
+
+    // remove every other proxy
+    for (int i = proxies.size() - 1; i >= 0; i -= 2) {
+      tree.remove(proxies.remove(i));
+    }
+    assertEquals(200, tree.size());
+    assertEquals(bruteForcePairs(tree, proxies), pairs(tree));
+    assertThrows(IllegalArgumentException.class, () -> tree.remove(freeIndex(proxies)));
+  }
+
+  private static int freeIndex(List<Integer> proxies) {
+    int i = 0;
+    while (proxies.contains(i)) {
+      i++;
+    }
+    return i;
+  }
+
+  @Test
+  public void testBalanced() {
+    // inserting in sorted order degenerates an unbalanced tree into a list
+    var tree = new DynamicBoundingVolumeTree<Integer>();
+    for (int i = 0; i < 1024; i++) {
+      tree.insert(box(new Vector3f(i, 0, 0), 0.25f), i);
+    }
+    assertTrue(tree.getHeight() <= 20, "height " + tree.getHeight());
+    assertEquals(-0.35f, tree.getBounds().getMinX(), 1e-4f);
+    assertEquals(1023.35f, tree.getBounds().getMaxX(), 1e-3f);
+
+    List<Integer> found = new ArrayList<>();
+    tree.query(box(new Vector3f(10, 0, 0), 1), proxy -> found.add(tree.getObject(proxy)));
+    found.sort(null);
+    assertEquals(List.of(9, 10, 11), found);
+  }
+
+  @Test
+  public void testRay() {
+    var random = new Random(22);
+    var tree = new DynamicBoundingVolumeTree<Shape3D>();
+    List<Shape3D> shapes = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      var sphere = new Sphere(new Vector3f(random.nextFloat() * 50, random.nextFloat() * 50, random.nextFloat() * 50),
+              0.5f + random.nextFloat());
+      shapes.add(sphere);
+      tree.insert(box(sphere.getCenter(), sphere.getRadius()), sphere);
+    }
+    for (int r = 0; r < 200; r++) {
+      var origin = new Vector3f(random.nextFloat() * 50, random.nextFloat() * 50, random.nextFloat() * 50);
+      var ray = new Ray3D(origin, new Vector3f(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f,
+              random.nextFloat() - 0.5f).normalizeLocal());
+
+      var expected = Float.POSITIVE_INFINITY;
+      for (Shape3D shape : shapes) {
+        var lambda = Intersector3D.intersectRayParameter(ray, shape);
+        if (lambda < expected) {
+          expected = lambda;
+        }
+      }
+
+      var nearest = new float[]{Float.POSITIVE_INFINITY};
+      tree.intersect(ray, Float.POSITIVE_INFINITY, (proxy, lambda) -> {
+        var l = Intersector3D.intersectRayParameter(ray, tree.getObject(proxy));
+        if (l < nearest[0]) {
+          nearest[0] = l;
+        }
+        return nearest[0];
+      });
+      assertEquals(expected, nearest[0]);
+
+      var candidates = tree.intersect(ray);
+      for (Shape3D shape : shapes) {
+        if (!Float.isNaN(Intersector3D.intersectRayParameter(ray, shape))) {
+          assertTrue(candidates.contains(shape));
+        }
+      }
+    }
+  }
+}
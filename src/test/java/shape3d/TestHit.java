@@ -0,0 +1,84 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package shape3d;
+
+import com.jme3.math.Vector3f;
+import math.MathHelper;
+import misc.AxisAlignedBoundingBox;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static base.JmeAssertions.assertVecEquals;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestHit {
+  @Test
+  public void testNearestOfSeveralShapes() {
+    var box = new AxisAlignedBoundingBox();
+    box.grow(-1, -1, 2);
+    box.grow(1, 1, 3);
+    var triangle = new Triangle(new Vector3f(-1, -1, 6), new Vector3f(1, -1, 6), new Vector3f(0, 1, 6));
+    List<Shape3D> shapes = List.of(
+            new Plane(new Vector3f(0, 0, 10), new Vector3f(0, 0, 2)),
+            triangle,
+            new Sphere(new Vector3f(0, 0, 5), 0.5f),
+            box);
+    var ray = new Ray3D(new Vector3f(0, 0, 0), new Vector3f(0, 0, 1));
+
+    var hit = new Hit();
+    assertFalse(hit.isHit());
+    assertEquals(Float.POSITIVE_INFINITY, hit.getLambda());
+
+    // plane at 10, triangle at 6, sphere at 4.5, box at 2
+    assertTrue(Intersector3D.intersect(ray, shapes.get(0), hit));
+    assertEquals(10, hit.getLambda(), MathHelper.TOLERANCE);
+    assertVecEquals(new Vector3f(0, 0, 1), hit.getNormal(), MathHelper.TOLERANCE);
+    assertTrue(Intersector3D.intersect(ray, shapes.get(1), hit));
+    assertEquals(6, hit.getLambda(), MathHelper.TOLERANCE);
+    assertVecEquals(triangle.eval(hit.getU(), hit.getV(), new Vector3f()), hit.getPoint(), MathHelper.TOLERANCE);
+    assertTrue(Intersector3D.intersect(ray, shapes.get(2), hit));
+    assertEquals(4.5f, hit.getLambda(), MathHelper.TOLERANCE);
+    assertVecEquals(new Vector3f(0, 0, -1), hit.getNormal(), MathHelper.TOLERANCE);
+    assertTrue(Intersector3D.intersect(ray, shapes.get(3), hit));
+    assertEquals(2, hit.getLambda(), MathHelper.TOLERANCE);
+    assertVecEquals(new Vector3f(0, 0, 2), hit.getPoint(), MathHelper.TOLERANCE);
+    assertVecEquals(new Vector3f(0, 0, -1), hit.getNormal(), MathHelper.TOLERANCE);
+    assertSame(box, hit.getShape());
+
+    // farther shapes do not replace the nearer hit
+    assertFalse(Intersector3D.intersect(ray, shapes.get(0), hit));
+    assertSame(box, hit.getShape());
+
+    var bvhHit = new Hit();
+    assertTrue(new BoundingVolumeHierarchy(shapes).intersectNearest(ray, bvhHit));
+    assertEquals(3, bvhHit.getShapeIndex());
+    assertEquals(2, bvhHit.getLambda(), MathHelper.TOLERANCE);
+
+    hit.clear();
+    assertFalse(hit.isHit());
+    assertEquals(-1, hit.getShapeIndex());
+  }
+
+  @Test
+  public void testMeshAndInside() {
+    var mesh = new TriangleMesh(new float[]{0, 0, 0, 1, 0, 0, 1, 1, 0, 0, 1, 0}, new int[]{0, 1, 2, 0, 2, 3});
+    var hit = new Hit();
+    var ray = new Ray3D(new Vector3f(0.2f, 0.6f, 1), new Vector3f(0, 0, -1));
+    assertTrue(Intersector3D.intersect(ray, mesh, hit));
+    assertEquals(1, hit.getPrimitiveIndex());
+    assertEquals(1, hit.getLambda(), MathHelper.TOLERANCE);
+    assertVecEquals(new Vector3f(0, 0, 1), hit.getNormal(), MathHelper.TOLERANCE);
+
+    // leaving a sphere from its center
+    hit.clear();
+    var inside = new Ray3D(new Vector3f(0, 0, 0), new Vector3f(1, 0, 0));
+    assertTrue(Intersector3D.intersect(inside, new Sphere(new Vector3f(0, 0, 0), 2), hit));
+    assertEquals(2, hit.getLambda(), MathHelper.TOLERANCE);
+    assertVecEquals(new Vector3f(1, 0, 0), hit.getNormal(), MathHelper.TOLERANCE);
+    assertFalse(Intersector3D.intersect(inside, new Point3D(new Vector3f(1, 0, 0)), hit));
+  }
+}
@@ -0,0 +1,73 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package shape3d;
+
+import com.jme3.math.Vector3f;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestIntersectionRegistry {
+  /**
+   * A sphere subtype without functions of its own.
+   */
+  private static class UnitSphere extends Sphere {
+    UnitSphere() {
+      super(new Vector3f(0, 0, 0), 1);
+    }
+  }
+
+  @Test
+  public void testSymmetricLookup() {
+    var registry = new IntersectionRegistry();
+    registry.register(Ray3D.class, Sphere.class, (ray, sphere) -> List.of(ray));
+
+    var ray = new Ray3D(new Vector3f(0, 0, 5), new Vector3f(0, 0, -1));
+    var sphere = new Sphere(new Vector3f(0, 0, 0), 1);
+    assertSame(ray, registry.intersect(ray, sphere).get(0));
+    // swapped arguments and subtypes
+    assertSame(ray, registry.intersect(sphere, ray).get(0));
+    assertSame(ray, registry.intersect(new UnitSphere(), ray).get(0));
+    assertTrue(registry.isSupported(Sphere.class, Ray3D.class));
+
+    // explicit registrations win over swapped ones
+    registry.register(Sphere.class, Ray3D.class, (s, r) -> List.of(s));
+    assertSame(sphere, registry.intersect(sphere, ray).get(0));
+    assertSame(ray, registry.intersect(ray, sphere).get(0));
+  }
+
+  @Test
+  public void testUnsupported() {
+    var registry = new IntersectionRegistry();
+    var plane = new Plane(new Vector3f(0, 0, 0), new Vector3f(0, 0, 1));
+    var sphere = new Sphere(new Vector3f(0, 0, 0), 1);
+    var result = registry.intersect(plane, sphere);
+    assertTrue(result instanceof UnsupportedIntersection);
+    assertTrue(result.isEmpty());
+    assertEquals(Plane.class, ((UnsupportedIntersection) result).getTypeA());
+    assertFalse(registry.isSupported(Plane.class, Sphere.class));
+
+    // registering clears cached unsupported pairs
+    registry.register(Sphere.class, Plane.class, (s, p) -> List.of());
+    assertFalse(registry.intersect(plane, sphere) instanceof UnsupportedIntersection);
+  }
+
+  @Test
+  public void testIntersectorDefaults() {
+    var ray = new Ray3D(new Vector3f(0, 5, 0), new Vector3f(0, -1, 0));
+    var sphere = new Sphere(new Vector3f(0, 0, 0), 1);
+    assertEquals(2, sphere.intersect(ray).size());
+    assertEquals(2, ray.intersect(sphere).size());
+    assertTrue(Intersector3D.isSupported(Plane.class, Ray3D.class));
+
+    var parallel = new Plane(new Vector3f(0, 0, 0), new Vector3f(1, 0, 0));
+    assertTrue(ray.intersect(parallel).isEmpty());
+    assertTrue(sphere.intersect(parallel) instanceof UnsupportedIntersection);
+    assertTrue(new Point3D(new Vector3f()).intersect(sphere) instanceof UnsupportedIntersection);
+  }
+}
@@ -7,10 +7,12 @@ package shape3d;
 
 import com.jme3.math.Vector3f;
 import math.MathHelper;
+import misc.AxisAlignedBoundingBox;
 import org.junit.jupiter.api.Test;
 
 import static base.JmeAssertions.assertVecEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestIntersector3D {
@@ -49,4 +51,107 @@ public class TestIntersector3D {
     assertTrue(p1Found);
     assertTrue(p2Found);
   }
+
+  @Test
+  public void testRayBox() {
+    var box = box(new Vector3f(-1, -1, -1), new Vector3f(1, 1, 1));
+    var t = new float[2];
+    var ray = new Ray3D(new Vector3f(0, 0, -5), new Vector3f(0, 0, 1));
+    var invDir = ray.getInverseDir(new Vector3f());
+    assertTrue(Intersector3D.testRayBox(ray, invDir, box, Float.POSITIVE_INFINITY, t));
+    assertEquals(4, t[0], MathHelper.TOLERANCE);
+    assertEquals(6, t[1], MathHelper.TOLERANCE);
+    assertFalse(Intersector3D.testRayBox(ray, invDir, box, 3.5f, null));
+
+    // pointing away, parallel outside and within a face plane
+    var away = new Ray3D(new Vector3f(0, 0, -5), new Vector3f(0, 0, -1));
+    assertFalse(Intersector3D.testRayBox(away, away.getInverseDir(new Vector3f()), box, Float.POSITIVE_INFINITY, null));
+    var outside = new Ray3D(new Vector3f(2, 0, -5), new Vector3f(0, 0, 1));
+    assertFalse(Intersector3D.testRayBox(outside, outside.getInverseDir(new Vector3f()), box, Float.POSITIVE_INFINITY, null));
+    var onFace = new Ray3D(new Vector3f(1, 0, -5), new Vector3f(0, 0, 1));
+    assertTrue(Intersector3D.testRayBox(onFace, onFace.getInverseDir(new Vector3f()), box, Float.POSITIVE_INFINITY, null));
+
+    // the kernel, clipping to [0, tMax]
+    assertEquals(4, Intersector3D.rayBoxParameter(0, 0, -5, invDir.x, invDir.y, invDir.z, -1, -1, -1, 1, 1, 1,
+            5, false), MathHelper.TOLERANCE);
+    assertEquals(5, Intersector3D.rayBoxParameter(0, 0, -5, invDir.x, invDir.y, invDir.z, -1, -1, -1, 1, 1, 1,
+            5, true), MathHelper.TOLERANCE);
+    assertEquals(0, Intersector3D.rayBoxParameter(0, 0, 0, invDir.x, invDir.y, invDir.z, -1, -1, -1, 1, 1, 1,
+            Float.POSITIVE_INFINITY, false));
+    assertTrue(Float.isNaN(Intersector3D.rayBoxParameter(0, 0, -5, invDir.x, invDir.y, invDir.z, -1, -1, -1, 1, 1, 1,
+            3.5f, false)));
+    assertEquals(1, Intersector3D.intersectRayParameter(new Ray3D(new Vector3f(), new Vector3f(0, 0, 1)), box),
+            MathHelper.TOLERANCE);
+
+    var res = ray.intersect(box);
+    assertEquals(2, res.size());
+    assertVecEquals(new Vector3f(0, 0, -1), ((Point3D) res.get(0)).getPoint(), MathHelper.TOLERANCE);
+    assertVecEquals(new Vector3f(0, 0, 1), ((Point3D) res.get(1)).getPoint(), MathHelper.TOLERANCE);
+
+    var inside = new Ray3D(new Vector3f(0, 0, 0), new Vector3f(1, 0, 0));
+    assertEquals(1, Intersector3D.intersectRayBox(inside, box).size());
+    assertEquals(1, Intersector3D.intersectRayParameter(inside, box), MathHelper.TOLERANCE);
+    assertEquals(4, Intersector3D.intersectRayParameter(ray, box), MathHelper.TOLERANCE);
+  }
+
+  @Test
+  public void testBoxBox() {
+    var box1 = box(new Vector3f(0, 0, 0), new Vector3f(2, 2, 2));
+    var box2 = box(new Vector3f(1, 1, 1), new Vector3f(3, 3, 3));
+    var box3 = box(new Vector3f(2.5f, 0, 0), new Vector3f(3, 1, 1));
+    assertTrue(Intersector3D.testBoxBox(box1, box2));
+    assertFalse(Intersector3D.testBoxBox(box1, box3));
+    assertFalse(Intersector3D.testBoxBox(box1, new AxisAlignedBoundingBox()));
+
+    var res = box1.intersect(box2);
+    assertEquals(1, res.size());
+    var overlap = (AxisAlignedBoundingBox) res.get(0);
+    assertVecEquals(new Vector3f(1, 1, 1), overlap.getLL(), MathHelper.TOLERANCE);
+    assertVecEquals(new Vector3f(2, 2, 2), overlap.getUR(), MathHelper.TOLERANCE);
+    assertTrue(box1.intersect(box3).isEmpty());
+  }
+
+  @Test
+  public void testBoxSphereAndPlane() {
+    var box = box(new Vector3f(0, 0, 0), new Vector3f(1, 1, 1));
+    assertTrue(Intersector3D.testBoxSphere(box, new Sphere(new Vector3f(0.5f, 0.5f, 0.5f), 0.1f)));
+    assertTrue(Intersector3D.testBoxSphere(box, new Sphere(new Vector3f(2, 0.5f, 0.5f), 1.1f)));
+    // near the corner, but outside
+    assertFalse(Intersector3D.testBoxSphere(box, new Sphere(new Vector3f(2, 2, 2), 1.5f)));
+
+    assertTrue(Intersector3D.testBoxPlane(box, new Plane(new Vector3f(0.5f, 0.5f, 0.5f), new Vector3f(1, 1, 1))));
+    assertTrue(Intersector3D.testBoxPlane(box, new Plane(new Vector3f(1, 1, 1), new Vector3f(1, 1, 1))));
+    assertFalse(Intersector3D.testBoxPlane(box, new Plane(new Vector3f(1.1f, 1, 1), new Vector3f(1, 1, 1))));
+    assertFalse(Intersector3D.testBoxPlane(box, new Plane(new Vector3f(0, 0, -0.5f), new Vector3f(0, 0, 1))));
+  }
+
+  private static AxisAlignedBoundingBox box(Vector3f ll, Vector3f ur) {
+    var box = new AxisAlignedBoundingBox();
+    box.add(ll);
+    box.add(ur);
+    return box;
+  }
+
+  @Test
+  public void testIntersectRaySphereNormalized() {
+    var sphere = new Sphere(new Vector3f(0, 0, 0), 1);
+    var ray = new Ray3D(new Vector3f(0, 5, 0), new Vector3f(0, -1, 0));
+    assertEquals(4, Intersector3D.intersectRaySphereNormalized(ray, sphere), MathHelper.TOLERANCE);
+
+    // inside, behind, tangent and missing
+    var inside = new Ray3D(new Vector3f(0, 0.5f, 0), new Vector3f(0, 1, 0));
+    assertEquals(0.5f, Intersector3D.intersectRaySphereNormalized(inside, sphere), MathHelper.TOLERANCE);
+    var behind = new Ray3D(new Vector3f(0, 5, 0), new Vector3f(0, 1, 0));
+    assertTrue(Float.isNaN(Intersector3D.intersectRaySphereNormalized(behind, sphere)));
+    var tangent = new Ray3D(new Vector3f(1, 5, 0), new Vector3f(0, -1, 0));
+    assertEquals(5, Intersector3D.intersectRaySphereNormalized(tangent, sphere), MathHelper.TOLERANCE);
+    var miss = new Ray3D(new Vector3f(1.01f, 5, 0), new Vector3f(0, -1, 0));
+    assertTrue(Float.isNaN(Intersector3D.intersectRaySphereNormalized(miss, sphere)));
+
+    // a small sphere far away, where the textbook discriminant loses all digits
+    var far = new Sphere(new Vector3f(0, 0, 1e5f), 0.5f);
+    var offAxis = new Ray3D(new Vector3f(0.3f, 0, 0), new Vector3f(0, 0, 1));
+    var lambda = Intersector3D.intersectRaySphereNormalized(offAxis, far);
+    assertEquals(1e5f - 0.4f, lambda, 1e-2f);
+  }
 }
@@ -0,0 +1,178 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package shape3d;
+
+import com.jme3.math.Vector3f;
+import misc.AxisAlignedBoundingBox;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestOctree {
+  private static AxisAlignedBoundingBox cube(float min, float max) {
+    var box = new AxisAlignedBoundingBox();
+    box.grow(min, min, min);
+    box.grow(max, max, max);
+    return box;
+  }
+
+  /**
+   * The half space x in [lo, hi], y in [lo, hi].
+   */
+  private static Plane[] column(float lo, float hi) {
+    return new Plane[]{
+            new Plane(new Vector3f(lo, 0, 0), new Vector3f(1, 0, 0)),
+            new Plane(new Vector3f(hi, 0, 0), new Vector3f(-1, 0, 0)),
+            new Plane(new Vector3f(0, lo, 0), new Vector3f(0, 1, 0)),
+            new Plane(new Vector3f(0, hi, 0), new Vector3f(0, -1, 0)),
+    };
+  }
+
+  private static boolean inside(Plane[] frustum, Vector3f p) {
+    for (Plane plane : frustum) {
+      if (!plane.isInPositiveHalfSpace(p)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static class Collector implements Octree.Visitor {
+    final List<Shape3D> shapes = new ArrayList<>();
+    final Set<Integer> points = new HashSet<>();
+    final List<Octree.Node> aggregates = new ArrayList<>();
+
+    @Override
+    public void visitShape(Shape3D shape) {
+      shapes.add(shape);
+    }
+
+    @Override
+    public void visitPoint(int index, float x, float y, float z) {
+      assertTrue(points.add(index), "point reported twice");
+    }
+
+    @Override
+    public void visitAggregate(Octree.Node node) {
+      aggregates.add(node);
+    }
+  }
+
+  @Test
+  public void testFrustumCulling() {
+    var random = new Random(50);
+    var octree = new Octree(cube(0, 100), 4, 8);
+    List<Sphere> spheres = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      var sphere = new Sphere(new Vector3f(random.nextFloat() * 98 + 1, random.nextFloat() * 98 + 1,
+              random.nextFloat() * 98 + 1), 0.1f + random.nextFloat() * 0.9f);
+      spheres.add(sphere);
+      octree.insert(sphere);
+    }
+    List<Vector3f> points = new ArrayList<>();
+    for (int i = 0; i < 3000; i++) {
+      var point = new Vector3f(random.nextFloat() * 100, random.nextFloat() * 100, random.nextFloat() * 100);
+      points.add(point);
+      assertEquals(i, octree.insert(point));
+    }
+    var plane = new Plane(new Vector3f(0, 0, 50), new Vector3f(0, 0, 1));
+    octree.insert(plane);
+    assertEquals(2001, octree.getShapeCount());
+    assertEquals(3000, octree.getPointCount());
+    assertFalse(octree.getRoot().isLeaf());
+
+    var frustum = column(20, 40);
+    var collector = new Collector();
+    octree.query(frustum, collector);
+    assertTrue(collector.aggregates.isEmpty());
+    assertTrue(collector.shapes.contains(plane));
+
+    for (Sphere sphere : spheres) {
+      var c = sphere.getCenter();
+      var r = sphere.getRadius();
+      boolean visible = collector.shapes.contains(sphere);
+      if (inside(frustum, c)) {
+        assertTrue(visible);
+      }
+      // fully outside one of the slabs
+      if (c.x + r < 20 || c.x - r > 40 || c.y + r < 20 || c.y - r > 40) {
+        assertFalse(visible);
+      }
+    }
+    for (int i = 0; i < points.size(); i++) {
+      assertEquals(inside(frustum, points.get(i)), collector.points.contains(i), "point " + i);
+    }
+    assertEquals(new HashSet<>(collector.shapes).size(), collector.shapes.size());
+    assertEquals(collector.shapes, octree.getVisibleShapes(frustum));
+  }
+
+  @Test
+  public void testLevelOfDetail() {
+    var random = new Random(51);
+    var octree = new Octree(cube(0, 64), 2, 6);
+    for (int i = 0; i < 4000; i++) {
+      octree.insert(random.nextFloat() * 64, random.nextFloat() * 64, random.nextFloat() * 64);
+    }
+    for (int i = 0; i < 500; i++) {
+      var c = new Vector3f(random.nextFloat() * 62 + 1, random.nextFloat() * 62 + 1, random.nextFloat() * 62 + 1);
+      octree.insert(new Sphere(c, 0.2f));
+    }
+
+    var eye = new Vector3f(0, 0, 0);
+    var detailDistance = 2f;
+    var collector = new Collector();
+    octree.query(new Plane[0], eye, detailDistance, collector);
+    assertFalse(collector.aggregates.isEmpty());
+    assertFalse(collector.points.isEmpty());
+
+    // every item is reported once, individually or by an aggregate
+    int points = collector.points.size();
+    int shapes = collector.shapes.size();
+    var box = new AxisAlignedBoundingBox();
+    var centroid = new Vector3f();
+    for (Octree.Node node : collector.aggregates) {
+      points += node.getPointCount();
+      shapes += node.getShapeCount();
+      node.getBounds(box);
+      var dx = Math.max(0, box.getMinX() - eye.x);
+      var dy = Math.max(0, box.getMinY() - eye.y);
+      var dz = Math.max(0, box.getMinZ() - eye.z);
+      assertTrue(Math.sqrt(dx * dx + dy * dy + dz * dz) > detailDistance * node.getSize());
+      node.getCentroid(centroid);
+      var content = node.getContentBounds(new AxisAlignedBoundingBox());
+      assertTrue(centroid.x >= content.getMinX() - 1e-3f && centroid.x <= content.getMaxX() + 1e-3f);
+    }
+    assertEquals(4000, points);
+    assertEquals(500, shapes);
+
+    // far away, the whole tree collapses into the root
+    collector = new Collector();
+    octree.query(new Plane[0], new Vector3f(-1000, 0, 0), detailDistance, collector);
+    assertEquals(List.of(octree.getRoot()), collector.aggregates);
+    // uniformly distributed content is centered in the tree
+    var rootCentroid = octree.getRoot().getCentroid(new Vector3f());
+    assertEquals(32, rootCentroid.x, 2);
+    assertEquals(32, rootCentroid.y, 2);
+    assertEquals(32, rootCentroid.z, 2);
+  }
+
+  @Test
+  public void testInvalid() {
+    assertThrows(IllegalArgumentException.class, () -> new Octree(new AxisAlignedBoundingBox()));
+    var octree = new Octree(cube(0, 1));
+    assertThrows(IllegalArgumentException.class, () -> octree.insert(2, 0, 0));
+    // shapes reaching out of the tree are kept aside
+    octree.insert(new Sphere(new Vector3f(1, 1, 1), 1));
+    assertEquals(1, octree.getShapeCount());
+    assertEquals(0, octree.getRoot().getShapeCount());
+  }
+}
@@ -0,0 +1,90 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package shape3d;
+
+import com.jme3.math.Vector3f;
+import misc.AxisAlignedBoundingBox;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestRayPacket {
+  @Test
+  public void testMatchesScalar() {
+    var random = new Random(18);
+    var box = new AxisAlignedBoundingBox();
+    box.grow(2, -1, -1);
+    box.grow(3, 1, 1);
+    List<Shape3D> shapes = List.of(
+            new Sphere(new Vector3f(0, 0, 0), 1),
+            new Plane(new Vector3f(0, 0, -2), new Vector3f(0, 0, 1)),
+            box);
+
+    for (int width : new int[]{4, 8, 13}) {
+      var packet = new RayPacket(width);
+      List<Ray3D> rays = new ArrayList<>();
+      for (int i = 0; i < width; i++) {
+        var origin = new Vector3f(random.nextFloat() * 8 - 4, random.nextFloat() * 8 - 4, random.nextFloat() * 8 - 4);
+        var dir = new Vector3f(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, random.nextFloat() - 0.5f);
+        if (i == 0) {
+          // parallel to the plane and axis aligned
+          dir.set(1, 0, 0);
+          origin.set(-5, 0, 0);
+        }
+        var ray = new Ray3D(origin, dir.normalizeLocal());
+        rays.add(ray);
+        packet.set(i, ray);
+      }
+
+      assertEquals(width, packet.size());
+      packet.intersect((Sphere) shapes.get(0), 0);
+      packet.intersect((Plane) shapes.get(1), 1);
+      packet.intersect((AxisAlignedBoundingBox) shapes.get(2), 2);
+
+      for (int i = 0; i < width; i++) {
+        var hit = new Hit();
+        for (Shape3D shape : shapes) {
+          Intersector3D.intersect(rays.get(i), shape, hit);
+        }
+        if (hit.isHit()) {
+          assertEquals(hit.getLambda(), packet.getLambda(i), 1e-4f);
+          assertEquals(shapes.indexOf(hit.getShape()), packet.getId(i));
+        } else {
+          assertEquals(-1, packet.getId(i));
+          assertEquals(Float.POSITIVE_INFINITY, packet.getLambda(i));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCulling() {
+    var packet = new RayPacket(4);
+    for (int i = 0; i < 4; i++) {
+      packet.set(i, i, 0, -10, 0, 0, 1);
+    }
+    var box = new AxisAlignedBoundingBox();
+    box.grow(2.5f, -1, -1);
+    box.grow(5, 1, 1);
+    assertTrue(packet.testAny(box));
+    assertEquals(1, packet.intersect(box, 7));
+    assertEquals(7, packet.getId(3));
+    assertEquals(9, packet.getLambda(3), 1e-5f);
+
+    // farther shapes are culled by the recorded hits
+    var behind = new AxisAlignedBoundingBox();
+    behind.grow(2.5f, -1, 5);
+    behind.grow(5, 1, 6);
+    assertEquals(0, packet.intersect(behind, 8));
+    packet.clear();
+    assertEquals(-1, packet.getId(3));
+    assertThrows(IllegalArgumentException.class, () -> new RayPacket(0));
+  }
+}
@@ -0,0 +1,165 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package shape3d;
+
+import com.jme3.math.Vector3f;
+import math.MathHelper;
+import misc.AxisAlignedBoundingBox;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static base.JmeAssertions.assertVecEquals;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSegment3D {
+  private static Segment3D segment(float ax, float ay, float az, float bx, float by, float bz) {
+    return new Segment3D(new Vector3f(ax, ay, az), new Vector3f(bx, by, bz));
+  }
+
+  private static Vector3f point(Shape3D shape) {
+    return ((Point3D) shape).getPoint();
+  }
+
+  @Test
+  public void testPlane() {
+    var plane = new Plane(new Vector3f(0, 0, 1), new Vector3f(0, 0, 1));
+    var res = segment(0, 0, 0, 0, 0, 4).intersect(plane);
+    assertEquals(1, res.size());
+    assertVecEquals(new Vector3f(0, 0, 1), point(res.get(0)), MathHelper.TOLERANCE);
+    assertTrue(segment(0, 0, 2, 0, 0, 4).intersect(plane).isEmpty());
+    assertTrue(segment(0, 0, 0, 1, 0, 0).intersect(plane).isEmpty());
+    // nearly parallel segments count as parallel, as for rays
+    assertTrue(segment(0, 0, 0, 1e6f, 0, 2).intersect(plane).isEmpty());
+  }
+
+  @Test
+  public void testTriangle() {
+    var triangle = new Triangle(new Vector3f(0, 0, 1), new Vector3f(2, 0, 1), new Vector3f(0, 2, 1));
+    var res = segment(0.5f, 0.5f, 0, 0.5f, 0.5f, 4).intersect(triangle);
+    assertEquals(1, res.size());
+    assertVecEquals(new Vector3f(0.5f, 0.5f, 1), point(res.get(0)), MathHelper.TOLERANCE);
+    // symmetric dispatch
+    assertEquals(1, triangle.intersect(segment(0.5f, 0.5f, 4, 0.5f, 0.5f, 0)).size());
+    // clipped to the segment
+    assertTrue(segment(0.5f, 0.5f, 2, 0.5f, 0.5f, 4).intersect(triangle).isEmpty());
+    assertTrue(segment(0.5f, 0.5f, -2, 0.5f, 0.5f, 0.5f).intersect(triangle).isEmpty());
+    assertTrue(segment(3, 3, 0, 3, 3, 4).intersect(triangle).isEmpty());
+  }
+
+  @Test
+  public void testMesh() {
+    // two unit squares stacked along z
+    var mesh = new TriangleMesh(new float[]{0, 0, 1, 1, 0, 1, 1, 1, 1, 0, 1, 1, 0, 0, 3, 1, 0, 3, 1, 1, 3, 0, 1, 3},
+            new int[]{0, 1, 2, 0, 2, 3, 4, 5, 6, 4, 6, 7});
+    var res = segment(0.75f, 0.25f, 0, 0.75f, 0.25f, 4).intersect(mesh);
+    assertEquals(2, res.size());
+    assertVecEquals(new Vector3f(0.75f, 0.25f, 1), point(res.get(0)), MathHelper.TOLERANCE);
+    assertVecEquals(new Vector3f(0.75f, 0.25f, 3), point(res.get(1)), MathHelper.TOLERANCE);
+    assertEquals(1, segment(0.75f, 0.25f, 0, 0.75f, 0.25f, 2).intersect(mesh).size());
+    assertTrue(segment(0.75f, 0.25f, 1.5f, 0.75f, 0.25f, 2.5f).intersect(mesh).isEmpty());
+    assertEquals(2, mesh.intersect(segment(0.75f, 0.25f, 4, 0.75f, 0.25f, 0)).size());
+  }
+
+  @Test
+  public void testSphere() {
+    var sphere = new Sphere(new Vector3f(0, 0, 0), 1);
+    var res = segment(-2, 0, 0, 2, 0, 0).intersect(sphere);
+    assertEquals(2, res.size());
+    assertVecEquals(new Vector3f(-1, 0, 0), point(res.get(0)), MathHelper.TOLERANCE);
+    assertVecEquals(new Vector3f(1, 0, 0), point(res.get(1)), MathHelper.TOLERANCE);
+    assertEquals(1, segment(0, 0, 0, 2, 0, 0).intersect(sphere).size());
+    assertTrue(segment(-0.5f, 0, 0, 0.5f, 0, 0).intersect(sphere).isEmpty());
+    assertTrue(segment(2, 0, 0, 3, 0, 0).intersect(sphere).isEmpty());
+    // symmetric dispatch
+    assertEquals(2, sphere.intersect(segment(-2, 0, 0, 2, 0, 0)).size());
+  }
+
+  @Test
+  public void testBox() {
+    var box = new AxisAlignedBoundingBox();
+    box.grow(-1, -1, -1);
+    box.grow(1, 1, 1);
+    var res = segment(-2, 0, 0, 2, 0, 0).intersect(box);
+    assertEquals(2, res.size());
+    assertVecEquals(new Vector3f(-1, 0, 0), point(res.get(0)), MathHelper.TOLERANCE);
+    assertVecEquals(new Vector3f(1, 0, 0), point(res.get(1)), MathHelper.TOLERANCE);
+    res = segment(0, 0, 0, 0, 3, 0).intersect(box);
+    assertEquals(1, res.size());
+    assertVecEquals(new Vector3f(0, 1, 0), point(res.get(0)), MathHelper.TOLERANCE);
+    assertTrue(segment(0, 0, 0, 0.5f, 0, 0).intersect(box).isEmpty());
+    assertTrue(segment(-3, 0, 0, -2, 0, 0).intersect(box).isEmpty());
+    assertEquals(1, segment(-2, 0, 0, -1, 0, 0).intersect(box).size());
+  }
+
+  @Test
+  public void testSegment() {
+    var res = segment(-1, 0, 0, 1, 0, 0).intersect(segment(0, -1, 0, 0, 1, 0));
+    assertEquals(1, res.size());
+    assertVecEquals(new Vector3f(0, 0, 0), point(res.get(0)), MathHelper.TOLERANCE);
+    assertTrue(segment(-1, 0, 0, 1, 0, 0).intersect(segment(0, -1, 1, 0, 1, 1)).isEmpty());
+
+    var st = new float[2];
+    // skew segments, closest points at their interior
+    assertEquals(1, Intersector3D.closestPointsSegmentSegment(
+            segment(-1, 0, 0, 1, 0, 0), segment(0.5f, -1, 1, 0.5f, 1, 1), st), MathHelper.TOLERANCE);
+    assertEquals(0.75f, st[0], MathHelper.TOLERANCE);
+    assertEquals(0.5f, st[1], MathHelper.TOLERANCE);
+    // clamped to the end point
+    assertEquals(1, Intersector3D.closestPointsSegmentSegment(
+            segment(0, 0, 0, 1, 0, 0), segment(2, -1, 0, 2, 1, 0), st), MathHelper.TOLERANCE);
+    assertEquals(1, st[0], MathHelper.TOLERANCE);
+    // parallel and degenerate
+    assertEquals(4, Intersector3D.closestPointsSegmentSegment(
+            segment(0, 0, 0, 1, 0, 0), segment(0, 2, 0, 1, 2, 0), st), MathHelper.TOLERANCE);
+    assertEquals(2, Intersector3D.closestPointsSegmentSegment(
+            segment(0, 0, 0, 0, 0, 0), segment(1, 1, 0, 1, 1, 0), null), MathHelper.TOLERANCE);
+  }
+
+  @Test
+  public void testBatch() {
+    var random = new Random(20);
+    var n = 500;
+    var segments = new float[6 * n + 6];
+    for (int i = 6; i < segments.length; i++) {
+      segments[i] = random.nextFloat() * 6 - 3;
+    }
+    var box = new AxisAlignedBoundingBox();
+    box.grow(-1, -1, -1);
+    box.grow(1, 1, 1);
+    var shapes = new Shape3D[]{
+            new Sphere(new Vector3f(0, 0, 0), 1),
+            new Plane(new Vector3f(0, 0, 0.5f), new Vector3f(0, 0, 1)),
+            box,
+            new Triangle(new Vector3f(-2, -2, 0), new Vector3f(2, -2, 0), new Vector3f(0, 2, 0)),
+            new TriangleMesh(new float[]{-2, -2, 0, 2, -2, 0, 0, 2, 0, 0, 0, 2}, new int[]{0, 1, 2, 0, 1, 3})
+    };
+    var hit = new boolean[n];
+    for (Shape3D shape : shapes) {
+      int hits = Intersector3D.testSegments(segments, 6, n, shape, hit);
+      int expectedHits = 0;
+      for (int i = 0; i < n; i++) {
+        int o = 6 + 6 * i;
+        var a = new Vector3f(segments[o], segments[o + 1], segments[o + 2]);
+        var b = new Vector3f(segments[o + 3], segments[o + 4], segments[o + 5]);
+        // the batch test agrees with the list functions
+        boolean expected = !new Segment3D(a, b).intersect(shape).isEmpty();
+        assertEquals(expected, hit[i], shape + " " + i);
+        expectedHits += expected ? 1 : 0;
+      }
+      assertEquals(expectedHits, hits);
+    }
+    assertThrows(IllegalArgumentException.class,
+            () -> Intersector3D.testSegments(segments, 0, 1, new Point3D(new Vector3f()), hit));
+
+    // segments inside a solid or in a plane do not cross its surface
+    var inside = new float[]{-0.5f, 0, 0, 0.5f, 0, 0, 0, 0, 0.5f, 1, 0, 0.5f};
+    assertEquals(0, Intersector3D.testSegments(inside, 0, 1, shapes[0], hit));
+    assertEquals(0, Intersector3D.testSegments(inside, 0, 1, shapes[2], hit));
+    assertEquals(0, Intersector3D.testSegments(inside, 6, 1, shapes[1], hit));
+    assertTrue(segment(0, 0, 0.5f, 1, 0, 0.5f).intersect(shapes[1]).isEmpty());
+  }
+}
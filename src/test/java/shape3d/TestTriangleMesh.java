@@ -0,0 +1,91 @@
+/**
+ * This file is part of the computer graphics project of the computer graphics group led by
+ * Prof. Dr. Philipp Jenke at the University of applied Sciences (HAW) in Hamburg.
+ */
+
+package shape3d;
+
+import com.jme3.math.Vector3f;
+import math.MathHelper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static base.JmeAssertions.assertVecEquals;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTriangleMesh {
+  /**
+   * Unit square in the plane z = 0, split into two triangles.
+   */
+  private static TriangleMesh square() {
+    var vertices = new float[]{0, 0, 0, 1, 0, 0, 1, 1, 0, 0, 1, 0};
+    var indices = new int[]{0, 1, 2, 0, 2, 3};
+    return new TriangleMesh(vertices, indices);
+  }
+
+  @Test
+  public void testRayTriangle() {
+    var triangle = new Triangle(new Vector3f(0, 0, 0), new Vector3f(1, 0, 0), new Vector3f(0, 1, 0));
+    var uv = new float[2];
+    var ray = new Ray3D(new Vector3f(0.25f, 0.5f, 2), new Vector3f(0, 0, -1));
+    assertEquals(2, Intersector3D.intersectRayTriangle(ray, triangle, uv), MathHelper.TOLERANCE);
+    assertEquals(0.25f, uv[0], MathHelper.TOLERANCE);
+    assertEquals(0.5f, uv[1], MathHelper.TOLERANCE);
+    assertVecEquals(ray.eval(2), triangle.eval(uv[0], uv[1], new Vector3f()), MathHelper.TOLERANCE);
+
+    // from below, outside, pointing away and within the plane
+    var below = new Ray3D(new Vector3f(0.25f, 0.25f, -1), new Vector3f(0, 0, 1));
+    assertEquals(1, Intersector3D.intersectRayTriangle(below, triangle, null), MathHelper.TOLERANCE);
+    var outside = new Ray3D(new Vector3f(0.75f, 0.75f, 1), new Vector3f(0, 0, -1));
+    assertTrue(Float.isNaN(Intersector3D.intersectRayTriangle(outside, triangle, null)));
+    var away = new Ray3D(new Vector3f(0.25f, 0.25f, 1), new Vector3f(0, 0, 1));
+    assertTrue(Float.isNaN(Intersector3D.intersectRayTriangle(away, triangle, null)));
+    var inPlane = new Ray3D(new Vector3f(-1, 0.25f, 0), new Vector3f(1, 0, 0));
+    assertTrue(Float.isNaN(Intersector3D.intersectRayTriangle(inPlane, triangle, null)));
+
+    var res = ray.intersect(triangle);
+    assertEquals(1, res.size());
+    assertVecEquals(new Vector3f(0.25f, 0.5f, 0), ((Point3D) res.get(0)).getPoint(), MathHelper.TOLERANCE);
+    assertVecEquals(new Vector3f(0, 0, 1), triangle.getNormal(new Vector3f()), MathHelper.TOLERANCE);
+  }
+
+  @Test
+  public void testRayMesh() {
+    var mesh = square();
+    assertEquals(4, mesh.getVertexCount());
+    assertEquals(2, mesh.getTriangleCount());
+
+    var hit = new float[3];
+    var ray = new Ray3D(new Vector3f(0.25f, 0.75f, 3), new Vector3f(0, 0, -1));
+    assertEquals(1, Intersector3D.intersectRayMesh(ray, mesh, Float.POSITIVE_INFINITY, hit));
+    assertEquals(3, hit[0], MathHelper.TOLERANCE);
+    assertVecEquals(new Vector3f(0.25f, 0.75f, 0), mesh.getTriangle(1).eval(hit[1], hit[2], new Vector3f()),
+            MathHelper.TOLERANCE);
+    // a miss, even one beyond maxLambda, leaves the store unchanged
+    var before = hit.clone();
+    assertEquals(-1, Intersector3D.intersectRayMesh(ray, mesh, 2.5f, hit));
+    assertArrayEquals(before, hit);
+    assertEquals(3, Intersector3D.intersectRayParameter(ray, mesh), MathHelper.TOLERANCE);
+
+    assertEquals(1, ray.intersect(mesh).size());
+    var miss = new Ray3D(new Vector3f(2, 2, 3), new Vector3f(0, 0, -1));
+    assertTrue(mesh.intersect(miss).isEmpty());
+  }
+
+  @Test
+  public void testInBoundingVolumeHierarchy() {
+    var triangle = new Triangle(new Vector3f(0, 0, 5), new Vector3f(1, 0, 5), new Vector3f(0, 1, 5));
+    var bvh = new BoundingVolumeHierarchy(List.of(square(), triangle));
+    var ray = new Ray3D(new Vector3f(0.2f, 0.2f, 10), new Vector3f(0, 0, -1));
+    assertEquals(1, bvh.intersectNearest(ray));
+    assertEquals(2, bvh.intersectAll(ray).size());
+  }
+
+  @Test
+  public void testInvalid() {
+    assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(new float[4], new int[0]));
+    assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(new float[9], new int[2]));
+    assertThrows(IndexOutOfBoundsException.class, () -> new TriangleMesh(new float[9], new int[]{0, 1, 3}));
+  }
+}